@@ -3,6 +3,7 @@ plugins {
     alias(libs.plugins.kotlin.android)
     alias(libs.plugins.kotlin.compose)
     alias(libs.plugins.ksp)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
 android {
@@ -21,12 +22,20 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
         }
+        // Igual a release pero firmada con debug: la instala :benchmark
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -37,10 +46,35 @@ android {
     }
     buildFeatures {
         compose = true
+        buildConfig = true
+    }
+    testOptions {
+        // Los tests JVM pasan por código que usa android.util.Log
+        unitTests.isReturnDefaultValues = true
+        // Robolectric (ProductoRepositoryContratoTest) lee el manifest y recursos combinados
+        unitTests.isIncludeAndroidResources = true
+    }
+    sourceSets {
+        // Los esquemas exportados por Room se usan en los tests de migración
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 }
 
+ksp {
+    // Room exporta un JSON por versión de la BD (se versiona en git)
+    arg("room.schemaLocation", "$projectDir/schemas")
+}
+
+baselineProfile {
+    // El perfil se genera en un dispositivo conectado (./gradlew :app:generateBaselineProfile)
+    // y se guarda en src/release/generated/baselineProfiles (se versiona en git)
+    saveInSrc = true
+    automaticGenerationDuringBuild = false
+}
+
 dependencies {
+    // Modelos, DTOs, entidades de Room, ResultadoApi y métricas (JVM puro)
+    implementation(project(":core"))
 
     implementation(libs.androidx.core.ktx)
     implementation(libs.androidx.lifecycle.runtime.ktx)
@@ -51,6 +85,13 @@ dependencies {
     implementation(libs.androidx.ui.tooling.preview)
     implementation(libs.androidx.material3)
     
+    // JankStats: duración de frames para RegistroMetricas
+    implementation(libs.androidx.metrics.performance)
+    
+    // Instala el Baseline Profile al primer arranque (compilación AOT de rutas calientes)
+    implementation(libs.androidx.profileinstaller)
+    baselineProfile(project(":baselineprofile"))
+    
     // Room Database
     implementation(libs.androidx.room.runtime)
     implementation(libs.androidx.room.ktx)
@@ -65,6 +106,9 @@ dependencies {
     // Coil para cargar imágenes
     implementation(libs.coil.compose)
     
+    // WorkManager: sincronización periódica del catálogo en segundo plano
+    implementation(libs.androidx.work.runtime.ktx)
+    
     // Accompanist Permissions
     implementation(libs.accompanist.permissions)
 
@@ -75,13 +119,27 @@ dependencies {
     // OkHttp para logging de peticiones HTTP
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
     implementation("com.squareup.okhttp3:logging-interceptor:4.12.0")
+    implementation("com.squareup.okhttp3:okhttp-brotli:4.12.0")
 
     // Gson para parseo de JSON
-    implementation("com.google.code.gson:gson:2.10.1")
+    implementation(libs.gson)
 
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+    // Codificador Brotli para generar respuestas "br" en los tests (solo JVM)
+    testImplementation(libs.brotli4j)
+    // Librerías nativas de todas las plataformas: los tests corren en cualquier máquina
+    testRuntimeOnly(libs.bundles.brotli4j.nativos)
+    // Room en memoria y Context en la JVM (tests de contrato del repositorio)
+    testImplementation("org.robolectric:robolectric:4.14.1")
+    testImplementation("androidx.test:core-ktx:1.6.1")
+    // Tiempo virtual y Dispatchers.Main reemplazable (tests de ViewModel)
+    testImplementation(libs.kotlinx.coroutines.test)
+    // WorkManagerTestInitHelper y TestDriver (restricciones y períodos a mano)
+    testImplementation(libs.androidx.work.testing)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
+    androidTestImplementation(libs.androidx.room.testing)
     androidTestImplementation(platform(libs.androidx.compose.bom))
     androidTestImplementation(libs.androidx.ui.test.junit4)
     debugImplementation(libs.androidx.ui.tooling)
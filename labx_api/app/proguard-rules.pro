@@ -18,4 +18,33 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# --- Logging ---
+# Log.v / Log.d no tienen efectos observables: R8 elimina la llamada
+# (y la construcción del mensaje si no se usa en otra parte).
+# RegistradorAndroid ya las descarta con BuildConfig.DEBUG; esto cubre el resto.
+-assumenosideeffects class android.util.Log {
+    public static int v(...);
+    public static int d(...);
+}
+
+# --- Gson ---
+# Gson lee los campos por reflexión: sin estas reglas R8 los renombra
+-keepattributes Signature, *Annotation*
+-keep class com.example.labx.data.remote.dto.** { <fields>; <init>(...); }
+# Semilla del catálogo (assets): se decodifica a ProductoSemilla
+-keep class com.example.labx.data.local.ProductoSemilla { <fields>; <init>(...); }
+# Panel de métricas: RegistroMetricas.aJson()
+-keep class com.example.labx.metricas.InstantaneaMetricas { <fields>; }
+-keep class com.example.labx.metricas.ResumenHistograma { <fields>; }
+
+# --- Retrofit (R8 modo completo) ---
+-keep,allowobfuscation,allowshrinking interface retrofit2.Call
+-keep,allowobfuscation,allowshrinking class retrofit2.Response
+-keep,allowobfuscation,allowshrinking class kotlin.coroutines.Continuation
+-keep,allowobfuscation interface com.example.labx.data.remote.api.** { *; }
+
+# Anotaciones propias leídas en los interceptores (Invocation)
+-keep @interface com.example.labx.data.remote.TiempoEspera
+-keep @interface com.example.labx.data.remote.ComprimirCuerpo
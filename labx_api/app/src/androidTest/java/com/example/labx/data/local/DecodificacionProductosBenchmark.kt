@@ -0,0 +1,81 @@
+package com.example.labx.data.local
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.room.withTransaction
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import com.example.labx.data.local.entity.ProductoEntity
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Compara el costo del bucle de cursor generado en ProductoDao_Impl
+ * para la fila completa (SELECT *) y para la proyección ProductoResumen.
+ *
+ * Los resultados se escriben en Logcat con el tag "DecodificacionProductos".
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class DecodificacionProductosBenchmark {
+
+    companion object {
+        private const val TAG = "DecodificacionProductos"
+        private const val BD_BENCHMARK = "benchmark-decodificacion"
+        private const val FILAS = 10_000
+        private const val CALENTAMIENTO = 3
+        private const val REPETICIONES = 10
+    }
+
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+    private lateinit var database: AppDatabase
+
+    @Before
+    fun poblarBaseDeDatos() = runBlocking {
+        context.deleteDatabase(BD_BENCHMARK)
+        val builder = Room.databaseBuilder(context, AppDatabase::class.java, BD_BENCHMARK)
+        database = AppDatabase.aplicarPerfil(builder, PerfilAlmacenamiento.EQUILIBRADO).build()
+        database.withTransaction {
+            database.productoDao().insertarProductos((1..FILAS).map(::crearProducto))
+        }
+    }
+
+    @After
+    fun borrarBaseDeDatos() {
+        database.close()
+        context.deleteDatabase(BD_BENCHMARK)
+    }
+
+    @Test
+    fun filaCompletaVsResumen() = runBlocking {
+        val dao = database.productoDao()
+
+        val msCompleta = medir { dao.obtenerTodosLosProductos().first().size }
+        val msResumen = medir { dao.obtenerResumenes().first().size }
+
+        Log.i(TAG, "filas=$FILAS completa=${msCompleta}ms resumen=${msResumen}ms (promedio de $REPETICIONES)")
+    }
+
+    private suspend fun medir(consulta: suspend () -> Int): Double {
+        repeat(CALENTAMIENTO) { consulta() }
+        val inicio = SystemClock.elapsedRealtimeNanos()
+        repeat(REPETICIONES) { consulta() }
+        return (SystemClock.elapsedRealtimeNanos() - inicio) / 1_000_000.0 / REPETICIONES
+    }
+
+    private fun crearProducto(id: Int) = ProductoEntity(
+        id = id,
+        nombre = "Producto ${(id * 7919) % 100_003}",
+        descripcion = "Descripción larga del producto $id ".repeat(12),
+        precio = 1000.0 + id,
+        imagenUrl = "imagen_$id",
+        categoria = "Categoría ${id % 20}",
+        stock = id % 50
+    )
+}
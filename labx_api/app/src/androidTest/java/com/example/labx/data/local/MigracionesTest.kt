@@ -0,0 +1,133 @@
+package com.example.labx.data.local
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.room.testing.MigrationTestHelper
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Verifica que cada Migration de Migraciones.TODAS conserva los datos
+ * del usuario y deja el esquema idéntico al que genera Room.
+ *
+ * Usa los JSON exportados en app/schemas/ (ver build.gradle.kts).
+ */
+@RunWith(AndroidJUnit4::class)
+class MigracionesTest {
+
+    companion object {
+        private const val TAG = "MigracionesTest"
+        private const val BD_PRUEBA = "migracion-test"
+        private const val PRODUCTOS_GRANDES = 50_000
+    }
+
+    @get:Rule
+    val helper = MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(),
+        AppDatabase::class.java
+    )
+
+    @Test
+    fun migraDesdeVersionMinimaConservandoCarrito() {
+        helper.createDatabase(BD_PRUEBA, Migraciones.VERSION_MINIMA_MIGRABLE).use { db ->
+            insertarProductos(db, 10)
+            insertarItemCarrito(db, productoId = 3, cantidad = 2)
+        }
+
+        helper.runMigrationsAndValidate(
+            BD_PRUEBA,
+            AppDatabase.VERSION,
+            true,
+            *Migraciones.TODAS
+        ).use { db ->
+            assertEquals(10, contar(db, "productos"))
+            assertEquals(1, contar(db, "carrito"))
+            // 4 → 5: los productos existentes quedan sincronizados
+            assertEquals(10, contar(db, "productos WHERE estadoSincronizacion = 'SINCRONIZADO'"))
+            // 5 → 6: sin versión hasta que el servidor la envíe
+            assertEquals(10, contar(db, "productos WHERE version IS NULL"))
+            // 6 → 7: sin ediciones pendientes, sin campos
+            assertEquals(10, contar(db, "productos WHERE camposPendientes IS NULL"))
+        }
+
+        // Abrir con Room valida además el identity hash del esquema final
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        val database = Room.databaseBuilder(context, AppDatabase::class.java, BD_PRUEBA)
+            .addMigrations(*Migraciones.TODAS)
+            .build()
+        try {
+            val carrito = runBlocking { database.carritoDao().obtenerTodo().first() }
+            assertEquals(2, carrito.single().cantidad)
+        } finally {
+            database.close()
+        }
+    }
+
+    @Test
+    fun migracionCon50kProductosMideTiempo() {
+        helper.createDatabase(BD_PRUEBA, Migraciones.VERSION_MINIMA_MIGRABLE).use { db ->
+            insertarProductos(db, PRODUCTOS_GRANDES)
+        }
+
+        val inicio = SystemClock.elapsedRealtime()
+        helper.runMigrationsAndValidate(
+            BD_PRUEBA,
+            AppDatabase.VERSION,
+            true,
+            *Migraciones.TODAS
+        ).use { db ->
+            val duracion = SystemClock.elapsedRealtime() - inicio
+            Log.i(TAG, "Migración ${Migraciones.VERSION_MINIMA_MIGRABLE}→${AppDatabase.VERSION} " +
+                    "con $PRODUCTOS_GRANDES productos: $duracion ms")
+            assertEquals(PRODUCTOS_GRANDES, contar(db, "productos"))
+        }
+    }
+
+    // Inserción con SQL directo: el esquema es el de la versión de origen
+    private fun insertarProductos(db: SupportSQLiteDatabase, cantidad: Int) {
+        db.beginTransaction()
+        try {
+            db.compileStatement(
+                "INSERT INTO productos (id, nombre, descripcion, precio, imagenUrl, categoria, stock) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)"
+            ).use { sentencia ->
+                for (i in 1..cantidad) {
+                    sentencia.bindLong(1, i.toLong())
+                    sentencia.bindString(2, "Producto $i")
+                    sentencia.bindString(3, "Descripción del producto $i")
+                    sentencia.bindDouble(4, 1000.0 + i)
+                    sentencia.bindString(5, "imagen_$i")
+                    sentencia.bindString(6, "Categoría ${i % 20}")
+                    sentencia.bindLong(7, (i % 50).toLong())
+                    sentencia.executeInsert()
+                    sentencia.clearBindings()
+                }
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    private fun insertarItemCarrito(db: SupportSQLiteDatabase, productoId: Int, cantidad: Int) {
+        db.execSQL(
+            "INSERT INTO carrito (productoId, nombre, descripcion, precio, imagenUrl, categoria, stock, cantidad) " +
+                    "VALUES ($productoId, 'Producto $productoId', 'Descripción', 1000.0, 'imagen', 'General', 5, $cantidad)"
+        )
+    }
+
+    private fun contar(db: SupportSQLiteDatabase, tabla: String): Int {
+        return db.query("SELECT COUNT(*) FROM $tabla").use { cursor ->
+            cursor.moveToFirst()
+            cursor.getInt(0)
+        }
+    }
+}
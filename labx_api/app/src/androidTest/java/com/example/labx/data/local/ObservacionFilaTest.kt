@@ -0,0 +1,146 @@
+package com.example.labx.data.local
+
+import android.util.Log
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.example.labx.data.local.entity.CarritoEntity
+import com.example.labx.data.local.entity.ProductoEntity
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.Collections
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Mide cuántas emisiones y cuántas filas decodificadas produce una
+ * actualización de una sola fila con los Flows por fila
+ * (observarProductoPorId, observarCantidad) frente a la lista completa.
+ */
+@RunWith(AndroidJUnit4::class)
+class ObservacionFilaTest {
+
+    companion object {
+        private const val TAG = "ObservacionFila"
+        private const val PRODUCTOS = 1_000
+        private const val ESPERA_INVALIDACION_MS = 500L
+    }
+
+    private lateinit var database: AppDatabase
+
+    // Recolectores de los Flows observados, se cancelan al terminar cada test
+    private val recolectores = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    // Consultas sobre productos ejecutadas por Room (cada una decodifica sus filas)
+    private val consultasProductos = AtomicInteger()
+
+    @Before
+    fun crearBaseDeDatos() = runBlocking {
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase::class.java)
+            .setQueryCallback({ sql, _ ->
+                if (sql.startsWith("SELECT") && sql.contains("FROM productos")) {
+                    consultasProductos.incrementAndGet()
+                }
+            }) { it.run() }
+            .build()
+        database.productoDao().insertarProductos((1..PRODUCTOS).map(::crearProducto))
+    }
+
+    @After
+    fun cerrarBaseDeDatos() {
+        recolectores.cancel()
+        database.close()
+    }
+
+    @Test
+    fun actualizarUnaFilaEmiteSoloEnSuObservador() = runBlocking {
+        val dao = database.productoDao()
+        val emisionesFila = registrar(dao.observarProductoPorId(5).distinctUntilChanged())
+        val emisionesLista = registrar(dao.obtenerTodosLosProductos())
+        esperarInvalidacion()
+        val consultasIniciales = consultasProductos.get()
+
+        // Cambia otro producto: la fila observada no debe re-emitir
+        dao.actualizarProducto(crearProducto(6).copy(stock = 0))
+        esperarInvalidacion()
+        assertEquals(1, emisionesFila.size)
+
+        // Cambia el producto observado: exactamente una emisión nueva
+        dao.actualizarProducto(crearProducto(5).copy(stock = 0))
+        withTimeout(5_000) { dao.observarProductoPorId(5).filterNotNull().first { it.stock == 0 } }
+        esperarInvalidacion()
+        assertEquals(2, emisionesFila.size)
+
+        // Por cada invalidación: la fila decodifica 1 registro, la lista PRODUCTOS
+        val reconsultas = (consultasProductos.get() - consultasIniciales) / 2
+        Log.i(
+            TAG,
+            "actualizaciones=2 emisionesFila=${emisionesFila.size - 1} " +
+                    "filasDecodificadasFila=$reconsultas " +
+                    "emisionesLista=${emisionesLista.size - 1} " +
+                    "filasDecodificadasLista=${reconsultas * PRODUCTOS}"
+        )
+    }
+
+    @Test
+    fun observarCantidadIgnoraOtrasLineasDelCarrito() = runBlocking {
+        val dao = database.carritoDao()
+        dao.insertar(crearLinea(productoId = 1))
+        dao.insertar(crearLinea(productoId = 2))
+
+        val emisiones = registrar(dao.observarCantidad(1).distinctUntilChanged())
+        esperarInvalidacion()
+
+        dao.actualizarCantidad(2, 5)
+        esperarInvalidacion()
+        assertEquals(listOf<Int?>(1), emisiones.toList())
+
+        dao.actualizarCantidad(1, 3)
+        esperarInvalidacion()
+        assertEquals(listOf<Int?>(1, 3), emisiones.toList())
+    }
+
+    private fun <T> registrar(flow: Flow<T>): MutableList<T> {
+        val emisiones = Collections.synchronizedList(mutableListOf<T>())
+        recolectores.launch { flow.collect { emisiones.add(it) } }
+        return emisiones
+    }
+
+    // La invalidación de Room es asíncrona: se da tiempo a que re-emita
+    private suspend fun esperarInvalidacion() = delay(ESPERA_INVALIDACION_MS)
+
+    private fun crearProducto(id: Int) = ProductoEntity(
+        id = id,
+        nombre = "Producto $id",
+        descripcion = "Descripción del producto $id",
+        precio = 1000.0 + id,
+        imagenUrl = "imagen_$id",
+        categoria = "Categoría ${id % 10}",
+        stock = 10
+    )
+
+    private fun crearLinea(productoId: Int) = CarritoEntity(
+        productoId = productoId,
+        nombre = "Producto $productoId",
+        descripcion = "Descripción",
+        precio = 1000.0,
+        imagenUrl = "imagen",
+        categoria = "General",
+        stock = 10
+    )
+}
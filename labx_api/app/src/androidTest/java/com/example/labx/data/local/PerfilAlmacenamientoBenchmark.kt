@@ -0,0 +1,84 @@
+package com.example.labx.data.local
+
+import android.os.SystemClock
+import android.util.Log
+import androidx.room.Room
+import androidx.room.withTransaction
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import com.example.labx.data.local.entity.ProductoEntity
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Compara los perfiles de PerfilAlmacenamiento con inserción masiva y
+ * lectura ordenada a 10k y 100k filas.
+ *
+ * Usa una BD en archivo (no en memoria) porque WAL y mmap solo tienen
+ * efecto sobre archivos. Los resultados se escriben en Logcat con el
+ * tag "PerfilAlmacenamiento".
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class PerfilAlmacenamientoBenchmark {
+
+    companion object {
+        private const val TAG = "PerfilAlmacenamiento"
+        private const val BD_BENCHMARK = "benchmark-perfil"
+        private const val TAMANO_LOTE = 1_000
+    }
+
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+
+    @Test
+    fun insercionYLecturaOrdenada10k() = medirTodosLosPerfiles(10_000)
+
+    @Test
+    fun insercionYLecturaOrdenada100k() = medirTodosLosPerfiles(100_000)
+
+    private fun medirTodosLosPerfiles(filas: Int) {
+        PerfilAlmacenamiento.TODOS.forEach { perfil -> medir(perfil, filas) }
+    }
+
+    private fun medir(perfil: PerfilAlmacenamiento, filas: Int) = runBlocking {
+        context.deleteDatabase(BD_BENCHMARK)
+        val builder = Room.databaseBuilder(context, AppDatabase::class.java, BD_BENCHMARK)
+        val database = AppDatabase.aplicarPerfil(builder, perfil).build()
+
+        try {
+            val dao = database.productoDao()
+
+            val inicioInsercion = SystemClock.elapsedRealtime()
+            database.withTransaction {
+                (1..filas).chunked(TAMANO_LOTE).forEach { ids ->
+                    dao.insertarProductos(ids.map(::crearProducto))
+                }
+            }
+            val msInsercion = SystemClock.elapsedRealtime() - inicioInsercion
+
+            val inicioLectura = SystemClock.elapsedRealtime()
+            val leidos = dao.obtenerTodosLosProductos().first()
+            val msLectura = SystemClock.elapsedRealtime() - inicioLectura
+
+            assertEquals(filas, leidos.size)
+            Log.i(TAG, "perfil=${perfil.nombre} filas=$filas insercion=${msInsercion}ms lecturaOrdenada=${msLectura}ms")
+        } finally {
+            database.close()
+            context.deleteDatabase(BD_BENCHMARK)
+        }
+    }
+
+    private fun crearProducto(id: Int) = ProductoEntity(
+        id = id,
+        nombre = "Producto ${(id * 7919) % 100_003}", // nombres desordenados respecto al id
+        descripcion = "Descripción larga del producto $id ".repeat(4),
+        precio = 1000.0 + id,
+        imagenUrl = "imagen_$id",
+        categoria = "Categoría ${id % 20}",
+        stock = id % 50
+    )
+}
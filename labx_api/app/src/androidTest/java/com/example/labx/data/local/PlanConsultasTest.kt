@@ -0,0 +1,125 @@
+package com.example.labx.data.local
+
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.example.labx.data.local.entity.CarritoEntity
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.ProductoResumen
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.Collections
+
+/**
+ * Falla si alguna consulta de ProductoDao o CarritoDao recorre una
+ * tabla completa según EXPLAIN QUERY PLAN.
+ *
+ * Las consultas se capturan con el QueryCallback de Room mientras se
+ * ejecuta cada método de los DAO, así el test usa exactamente el SQL
+ * generado por Room. Al agregar un método a un DAO, agregarlo también
+ * en ejecutarConsultasDao().
+ */
+@RunWith(AndroidJUnit4::class)
+class PlanConsultasTest {
+
+    private lateinit var database: AppDatabase
+    private val capturadas = Collections.synchronizedList(mutableListOf<Pair<String, List<Any?>>>())
+
+    @Before
+    fun crearBaseDeDatos() {
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase::class.java)
+            .setQueryCallback({ sql, argumentos -> capturadas.add(sql to argumentos.toList()) }) { it.run() }
+            .build()
+    }
+
+    @After
+    fun cerrarBaseDeDatos() {
+        database.close()
+    }
+
+    @Test
+    fun ningunaConsultaDeDaoRecorreTablaCompleta() = runBlocking {
+        ejecutarConsultasDao()
+
+        val db = database.openHelper.writableDatabase
+        val problemas = capturadas.toList()
+            .filter { (sql, _) -> esConsultaDeDao(sql) }
+            .distinctBy { (sql, _) -> sql }
+            .flatMap { (sql, argumentos) -> VerificadorPlanConsultas.buscarProblemas(db, sql, argumentos) }
+
+        assertTrue(problemas.joinToString("\n"), problemas.isEmpty())
+    }
+
+    private suspend fun ejecutarConsultasDao() {
+        val productoDao = database.productoDao()
+        val carritoDao = database.carritoDao()
+        val producto = ProductoEntity(
+            id = 1,
+            nombre = "Catan",
+            descripcion = "Juego de mesa",
+            precio = 29990.0,
+            imagenUrl = "catan",
+            categoria = "Juegos de Mesa",
+            stock = 15
+        )
+
+        productoDao.insertarProductos(listOf(producto))
+        productoDao.insertarProductosSiNoExisten(listOf(producto))
+        productoDao.insertarProducto(producto.copy(id = 2))
+        productoDao.obtenerTodosLosProductos().first()
+        productoDao.obtenerResumenes().first()
+        val resumen = ProductoResumen(1, "Catan", 27990.0, "catan", "Juegos de Mesa", 12)
+        productoDao.fusionarResumenes(listOf(resumen, resumen.copy(id = 3)))
+        productoDao.obtenerNombresSincronizados()
+        productoDao.vaciarDescripciones(listOf(1))
+        productoDao.eliminarPorIds(listOf(3))
+        productoDao.obtenerProductoPorId(1)
+        productoDao.contarProductos()
+        productoDao.actualizarProducto(producto.copy(stock = 10))
+        productoDao.actualizarStock(1, 9, EstadoSincronizacion.ACTUALIZACION_PENDIENTE, "STOCK")
+        productoDao.actualizarPrecio(1, 25990.0, EstadoSincronizacion.ACTUALIZACION_PENDIENTE, "STOCK,PRECIO")
+        productoDao.confirmarVersion(1, 2, "2026-01-01T00:00:00Z")
+        productoDao.marcarEstado(2, EstadoSincronizacion.ACTUALIZACION_PENDIENTE)
+        productoDao.obtenerPendientes()
+        productoDao.obtenerIdsPendientes()
+        val idTemporal = productoDao.insertarConIdTemporal(producto)
+        productoDao.reemplazarId(idTemporal, producto.copy(id = 20))
+        productoDao.eliminarPorId(20)
+        productoDao.eliminarProducto(producto)
+        productoDao.eliminarTodosLosProductos()
+
+        carritoDao.insertar(
+            CarritoEntity(
+                productoId = 1,
+                nombre = "Catan",
+                descripcion = "Juego de mesa",
+                precio = 29990.0,
+                imagenUrl = "catan",
+                categoria = "Juegos de Mesa",
+                stock = 15
+            )
+        )
+        carritoDao.obtenerTodo().first()
+        carritoDao.obtenerTotal().first()
+        carritoDao.obtenerPorProductoId(1)
+        carritoDao.actualizarCantidad(1, 3)
+        carritoDao.eliminarProducto(1)
+        carritoDao.vaciar()
+    }
+
+    // Ignora transacciones, PRAGMA e INSERT, y las tablas internas de Room
+    private fun esConsultaDeDao(sql: String): Boolean {
+        val normalizada = sql.trimStart().uppercase()
+        val esLecturaOEscritura = normalizada.startsWith("SELECT") ||
+                normalizada.startsWith("UPDATE") ||
+                normalizada.startsWith("DELETE")
+        return esLecturaOEscritura && !normalizada.contains("ROOM_")
+    }
+}
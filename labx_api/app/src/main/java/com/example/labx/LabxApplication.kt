@@ -0,0 +1,70 @@
+package com.example.labx
+
+import android.app.Application
+import androidx.work.Configuration
+import coil.ImageLoader
+import coil.ImageLoaderFactory
+import com.example.labx.bitacora.RegistradorAndroid
+import com.example.labx.data.local.AppDatabase
+import com.example.labx.data.local.dao.ProductoDaoMedido
+import com.example.labx.data.remote.RetrofitClient
+import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.conectividad.MonitorConectividadAndroid
+import com.example.labx.data.repository.ProductoRepositoryImpl
+import com.example.labx.data.sincronizacion.FabricaWorkersLabx
+import com.example.labx.data.sincronizacion.PrecargadorImagenesCoil
+import com.example.labx.data.sincronizacion.ProgramadorSincronizacion
+import com.example.labx.domain.repository.RepositorioProductos
+
+/**
+ * LabxApplication: Configuración global del proceso
+ *
+ * - Coil usa el mismo cliente base que Retrofit (mismo pool de
+ *   conexiones y dispatcher), así imágenes y API comparten conexiones
+ *   HTTP/2 en lugar de abrir las suyas
+ * - Un solo repositorio de productos para la UI (MainActivity) y para
+ *   la sincronización en segundo plano (WorkManager)
+ * - WorkManager se inicializa aquí (Configuration.Provider) para crear
+ *   los workers con FabricaWorkersLabx; el inicializador automático
+ *   está desactivado en el AndroidManifest
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+class LabxApplication : Application(), ImageLoaderFactory, Configuration.Provider {
+
+    /**
+     * Repositorio de productos: API (fuente primaria) + Room (cache)
+     */
+    val productoRepository: RepositorioProductos by lazy {
+        ProductoRepositoryImpl(
+            productoDao = ProductoDaoMedido(AppDatabase.getDatabase(this).productoDao()),
+            apiService = RetrofitClient.crearServicio(ProductoApiService::class.java),
+            monitorConectividad = MonitorConectividadAndroid.obtener(this),
+            registrador = RegistradorAndroid
+        )
+    }
+
+    override fun onCreate() {
+        super.onCreate()
+        // Catálogo e imágenes al día para el próximo arranque en frío
+        ProgramadorSincronizacion.programar(this)
+    }
+
+    override fun newImageLoader(): ImageLoader {
+        return ImageLoader.Builder(this)
+            .okHttpClient { RetrofitClient.clienteBase }
+            .crossfade(true)
+            .build()
+    }
+
+    override val workManagerConfiguration: Configuration
+        get() = Configuration.Builder()
+            .setWorkerFactory(
+                FabricaWorkersLabx(
+                    repositorio = { productoRepository },
+                    precargador = { contexto -> PrecargadorImagenesCoil(contexto) }
+                )
+            )
+            .build()
+}
@@ -1,19 +1,23 @@
 package com.example.labx
 
 import android.os.Bundle
+import androidx.metrics.performance.JankStats
 import androidx.activity.ComponentActivity
 import androidx.activity.compose.setContent
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Surface
+import androidx.compose.ui.ExperimentalComposeUiApi
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.semantics.semantics
+import androidx.compose.ui.semantics.testTagsAsResourceId
 import androidx.lifecycle.viewmodel.compose.viewModel
 import androidx.navigation.compose.rememberNavController
 import com.example.labx.data.local.AppDatabase
 import com.example.labx.data.local.PreferenciasManager
+import com.example.labx.data.local.dao.CarritoDaoMedido
 import com.example.labx.data.local.ProductoInicializador
-import com.example.labx.data.remote.RetrofitClient
-import com.example.labx.data.remote.api.ProductoApiService
 import com.example.labx.data.repository.CarritoRepository
-import com.example.labx.data.repository.ProductoRepositoryImpl
+import com.example.labx.metricas.MetricasFrames
 import com.example.labx.ui.navigation.NavGraph
 import com.example.labx.ui.viewmodel.ProductoViewModel
 import com.example.labx.ui.viewmodel.ProductoViewModelFactory
@@ -35,6 +39,10 @@ import com.example.labx.ui.viewmodel.ProductoViewModelFactory
  */
 class MainActivity : ComponentActivity() {
 
+    // Duración de cada frame y frames con jank (RegistroMetricas: ui.*)
+    private lateinit var jankStats: JankStats
+
+    @OptIn(ExperimentalComposeUiApi::class)
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
 
@@ -46,26 +54,20 @@ class MainActivity : ComponentActivity() {
         // Esto garantiza que la app funcione sin internet la primera vez
         ProductoInicializador.inicializarProductos(applicationContext)
 
-        // PASO 3: Configurar cliente Retrofit para consumo de API REST
-        // Crea una instancia del servicio API usando el RetrofitClient singleton
-        val apiService: ProductoApiService = RetrofitClient.crearServicio(ProductoApiService::class.java)
-
-        // PASO 4: Crear repositorios con acceso a ambas fuentes de datos
-        // ProductoRepository: usa API (fuente primaria) + Room (fallback)
-        val productoRepository = ProductoRepositoryImpl(
-            productoDao = database.productoDao(),
-            apiService = apiService
-        )
+        // PASO 3: Repositorio de productos: usa API (fuente primaria) + Room (fallback)
+        // Lo crea LabxApplication: la sincronización en segundo plano usa el mismo
+        val productoRepository = (application as LabxApplication).productoRepository
 
-        // CarritoRepository: usa solo Room (datos locales, no necesita API)
-        val carritoRepository = CarritoRepository(database.carritoDao())
+        // PASO 4: CarritoRepository: usa solo Room (datos locales, no necesita API)
+        val carritoRepository = CarritoRepository(CarritoDaoMedido(database.carritoDao()))
 
         // PASO 5: Crear PreferenciasManager para sesión de admin
         val preferenciasManager = PreferenciasManager(applicationContext)
 
         setContent {
             MaterialTheme {
-                Surface {
+                // testTag visibles como resource-id para UiAutomator (:benchmark, :baselineprofile)
+                Surface(modifier = Modifier.semantics { testTagsAsResourceId = true }) {
                     // PASO 6: Crear NavController para gestionar navegación entre pantallas
                     val navController = rememberNavController()
 
@@ -87,6 +89,18 @@ class MainActivity : ComponentActivity() {
                 }
             }
         }
+
+        jankStats = JankStats.createAndTrack(window, MetricasFrames.oyente)
+    }
+
+    override fun onResume() {
+        super.onResume()
+        jankStats.isTrackingEnabled = true
+    }
+
+    override fun onPause() {
+        super.onPause()
+        jankStats.isTrackingEnabled = false
     }
 }
 
@@ -0,0 +1,35 @@
+package com.example.labx.bitacora
+
+import android.util.Log
+import com.example.labx.BuildConfig
+
+/**
+ * RegistradorAndroid: Registrador de :core escrito en Logcat
+ *
+ * Único punto de logging de la app:
+ * - Las clases de datos lo reciben en el constructor como Registrador
+ *   (ProductoRepositoryImpl, ver LabxApplication)
+ * - La UI lo usa directamente: RegistradorAndroid.d(TAG) { "..." }
+ *
+ * depuracionActiva es un getter que devuelve BuildConfig.DEBUG (una
+ * constante): en release R8 elimina los d() completos, mensaje incluido.
+ * Además proguard-rules.pro marca Log.v/Log.d sin efectos, así que
+ * también desaparecen las llamadas directas a Log. w() y e() se
+ * mantienen en release (errores de red, fallbacks).
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+object RegistradorAndroid : Registrador {
+
+    override val depuracionActiva: Boolean
+        get() = BuildConfig.DEBUG
+
+    override fun escribir(nivel: NivelRegistro, tag: String, mensaje: String, error: Throwable?) {
+        when (nivel) {
+            NivelRegistro.DEPURACION -> Log.d(tag, mensaje, error)
+            NivelRegistro.ADVERTENCIA -> Log.w(tag, mensaje, error)
+            NivelRegistro.ERROR -> Log.e(tag, mensaje, error)
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
 import com.example.labx.data.local.dao.CarritoDao
 import com.example.labx.data.local.dao.ProductoDao
 import com.example.labx.data.local.entity.CarritoEntity
@@ -18,8 +19,8 @@ import com.example.labx.data.local.entity.ProductoEntity
  */
 @Database(
     entities = [CarritoEntity::class, ProductoEntity::class],
-    version = 2, // Incrementado por agregar ProductoEntity
-    exportSchema = false
+    version = AppDatabase.VERSION,
+    exportSchema = true // Esquemas en app/schemas/ para probar migraciones
 )
 abstract class AppDatabase : RoomDatabase() {
 
@@ -34,25 +35,68 @@ abstract class AppDatabase : RoomDatabase() {
     abstract fun productoDao(): ProductoDao
 
     companion object {
+        /**
+         * Versión actual del esquema
+         * Al incrementarla hay que agregar la Migration en Migraciones.TODAS
+         */
+        const val VERSION = 7
+
+        const val NOMBRE_BD = "labx_database"
+
         @Volatile
         private var INSTANCE: AppDatabase? = null
 
         /**
          * Obtiene instancia única de la base de datos
          * Thread-safe con synchronized
+         *
+         * @param perfil Ajustes de SQLite; solo se aplica en la primera llamada
          */
-        fun getDatabase(context: Context): AppDatabase {
+        fun getDatabase(
+            context: Context,
+            perfil: PerfilAlmacenamiento = PerfilAlmacenamiento.EQUILIBRADO
+        ): AppDatabase {
             return INSTANCE ?: synchronized(this) {
-                val instance = Room.databaseBuilder(
+                val builder = Room.databaseBuilder(
                     context.applicationContext,
                     AppDatabase::class.java,
-                    "labx_database" // Renombrado para reflejar ambas tablas
+                    NOMBRE_BD
                 )
-                    .fallbackToDestructiveMigration() // Borra BD si cambia versión
-                    .build()
+                    .addMigrations(*Migraciones.TODAS)
+                    // Solo la versión 1 (sin esquema exportado) se recrea desde cero
+                    .fallbackToDestructiveMigrationFrom(1)
+                    .addCallback(ReiniciarSemillaCallback(context.applicationContext))
+                val instance = aplicarPerfil(builder, perfil).build()
                 INSTANCE = instance
                 instance
             }
         }
+
+        /**
+         * Aplica modo de diario y PRAGMA del perfil a cualquier builder
+         * (también lo usan los tests y benchmarks con BDs propias)
+         */
+        fun aplicarPerfil(
+            builder: Builder<AppDatabase>,
+            perfil: PerfilAlmacenamiento
+        ): Builder<AppDatabase> {
+            return builder
+                .setJournalMode(perfil.modoDiario)
+                .addCallback(perfil.comoCallback())
+        }
+    }
+
+    /**
+     * Si la BD se crea desde cero (o se recrea desde la versión 1),
+     * el marcador de semilla deja de ser válido y debe volver a cargarse
+     */
+    private class ReiniciarSemillaCallback(private val context: Context) : Callback() {
+        override fun onCreate(db: SupportSQLiteDatabase) {
+            PreferenciasManager(context).guardarVersionSemilla(0)
+        }
+
+        override fun onDestructiveMigration(db: SupportSQLiteDatabase) {
+            PreferenciasManager(context).guardarVersionSemilla(0)
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,106 @@
+package com.example.labx.data.local
+
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Migraciones: Cambios de esquema entre versiones de la BD
+ *
+ * Reglas:
+ * - Cada vez que cambie una entidad se incrementa AppDatabase.VERSION
+ *   y se agrega aquí una Migration(anterior, nueva)
+ * - Nunca se borran datos del usuario (carrito, productos en cache)
+ * - Los esquemas exportados (app/schemas/) permiten probar cada paso
+ *   con MigrationTestHelper en MigracionesTest
+ *
+ * La versión 1 nunca exportó su esquema, así que es la única que
+ * todavía se recrea desde cero (ver AppDatabase.getDatabase).
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+object Migraciones {
+
+    /**
+     * Primera versión con esquema exportado: desde aquí todo se migra
+     */
+    const val VERSION_MINIMA_MIGRABLE = 2
+
+    /**
+     * Todas las migraciones en orden, registradas en el builder de Room
+     */
+    val TODAS: Array<Migration> by lazy {
+        arrayOf(
+            MIGRACION_2_3,
+            MIGRACION_3_4,
+            MIGRACION_4_5,
+            MIGRACION_5_6,
+            MIGRACION_6_7
+        )
+    }
+
+    /**
+     * 2 → 3: índice en carrito.productoId
+     * Evita recorrer todo el carrito al buscar/actualizar/eliminar un producto
+     */
+    val MIGRACION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_carrito_productoId` ON `carrito` (`productoId`)")
+        }
+    }
+
+    /**
+     * 3 → 4: índice de cobertura para la lista ordenada por nombre
+     * e índice por categoría
+     */
+    val MIGRACION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_productos_resumen` ON `productos` " +
+                        "(`nombre`, `precio`, `imagenUrl`, `categoria`, `stock`)"
+            )
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_productos_categoria` ON `productos` (`categoria`)")
+        }
+    }
+
+    /**
+     * 4 → 5: estado de sincronización para los cambios optimistas del admin
+     * Las filas existentes quedan SINCRONIZADO; el índice de la lista se
+     * rehace con el estado para seguir leyendo las tarjetas solo del índice
+     */
+    val MIGRACION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "ALTER TABLE `productos` ADD COLUMN `estadoSincronizacion` TEXT NOT NULL DEFAULT 'SINCRONIZADO'"
+            )
+            db.execSQL("DROP INDEX IF EXISTS `index_productos_resumen`")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_productos_resumen` ON `productos` " +
+                        "(`nombre`, `precio`, `imagenUrl`, `categoria`, `stock`, `estadoSincronizacion`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_productos_estadoSincronizacion` ON `productos` (`estadoSincronizacion`)"
+            )
+        }
+    }
+
+    /**
+     * 5 → 6: versión del servidor para las ediciones condicionales (If-Match)
+     * Las filas existentes quedan sin versión hasta el próximo detalle o edición
+     */
+    val MIGRACION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `productos` ADD COLUMN `version` INTEGER")
+            db.execSQL("ALTER TABLE `productos` ADD COLUMN `actualizadoEn` TEXT")
+        }
+    }
+
+    /**
+     * 6 → 7: campos de cada edición pendiente, para reenviarla por PATCH
+     * Las ediciones pendientes existentes quedan sin campos (desconocidos)
+     */
+    val MIGRACION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `productos` ADD COLUMN `camposPendientes` TEXT")
+        }
+    }
+}
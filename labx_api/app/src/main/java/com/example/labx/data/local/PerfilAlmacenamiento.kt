@@ -0,0 +1,73 @@
+package com.example.labx.data.local
+
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * PerfilAlmacenamiento: Ajustes de SQLite aplicados al abrir la BD
+ *
+ * - modoDiario: WAL permite leer mientras se escribe (Flows de Room
+ *   no se bloquean durante una sincronización del catálogo)
+ * - sincronizacion: NORMAL es seguro con WAL y evita un fsync por commit
+ * - cacheKb: páginas en memoria por conexión (PRAGMA cache_size negativo = KB)
+ * - mmapBytes: lectura por memoria mapeada (0 = desactivado)
+ *
+ * Los PRAGMA se ejecutan en el callback onOpen, es decir, sobre la
+ * conexión principal (la de escritura), que es donde más importan.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+data class PerfilAlmacenamiento(
+    val nombre: String,
+    val modoDiario: RoomDatabase.JournalMode,
+    val sincronizacion: String? = null,
+    val cacheKb: Int? = null,
+    val mmapBytes: Long? = null
+) {
+
+    companion object {
+        /**
+         * Valores por defecto de Room/SQLite (sin PRAGMA), como referencia
+         */
+        val PREDETERMINADO = PerfilAlmacenamiento(
+            nombre = "predeterminado",
+            modoDiario = RoomDatabase.JournalMode.AUTOMATIC
+        )
+
+        /**
+         * Perfil usado por la app
+         */
+        val EQUILIBRADO = PerfilAlmacenamiento(
+            nombre = "equilibrado",
+            modoDiario = RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING,
+            sincronizacion = "NORMAL",
+            cacheKb = 8 * 1024,
+            mmapBytes = 32L * 1024 * 1024
+        )
+
+        /**
+         * Para catálogos muy grandes: más cache y más memoria mapeada
+         */
+        val LECTURA_INTENSIVA = PerfilAlmacenamiento(
+            nombre = "lectura_intensiva",
+            modoDiario = RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING,
+            sincronizacion = "NORMAL",
+            cacheKb = 16 * 1024,
+            mmapBytes = 128L * 1024 * 1024
+        )
+
+        val TODOS = listOf(PREDETERMINADO, EQUILIBRADO, LECTURA_INTENSIVA)
+    }
+
+    /**
+     * Callback que aplica los PRAGMA del perfil cada vez que se abre la BD
+     */
+    fun comoCallback(): RoomDatabase.Callback = object : RoomDatabase.Callback() {
+        override fun onOpen(db: SupportSQLiteDatabase) {
+            // Algunos PRAGMA devuelven una fila: se usa query() y se cierra el cursor
+            sincronizacion?.let { db.query("PRAGMA synchronous = $it").close() }
+            cacheKb?.let { db.query("PRAGMA cache_size = -$it").close() }
+            mmapBytes?.let { db.query("PRAGMA mmap_size = $it").close() }
+        }
+    }
+}
@@ -32,6 +32,7 @@ class PreferenciasManager(context: Context) {
         // Claves (constantes para evitar typos)
         private const val KEY_ADMIN_LOGUEADO = "admin_logueado"
         private const val KEY_USERNAME_ADMIN = "username_admin"
+        private const val KEY_VERSION_SEMILLA = "version_semilla"
         
         // Credenciales por defecto (en app real, estarían en BD segura)
         const val ADMIN_USERNAME = "admin"
@@ -74,6 +75,23 @@ class PreferenciasManager(context: Context) {
         }
     }
     
+    /**
+     * Versión del catálogo semilla ya cargado en la BD (0 = ninguno)
+     */
+    fun obtenerVersionSemilla(): Int {
+        return prefs.getInt(KEY_VERSION_SEMILLA, 0)
+    }
+    
+    /**
+     * Marca el catálogo semilla como cargado
+     */
+    fun guardarVersionSemilla(version: Int) {
+        prefs.edit().apply {
+            putInt(KEY_VERSION_SEMILLA, version)
+            apply()
+        }
+    }
+    
     /**
      * Valida credenciales de admin
      * En app real: Consulta a backend con hash de password
@@ -0,0 +1,64 @@
+package com.example.labx.data.local
+
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * VerificadorPlanConsultas: Detecta consultas que recorren tablas completas
+ *
+ * Ejecuta EXPLAIN QUERY PLAN sobre una consulta y revisa cada paso:
+ * - "SCAN tabla" sin índice en una consulta con WHERE → falta un índice
+ * - "USE TEMP B-TREE FOR ORDER BY" → el ORDER BY se ordena en memoria
+ *
+ * Pensado para modo debug y tests (ver PlanConsultasTest), no para
+ * ejecutarse en cada consulta en producción.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+object VerificadorPlanConsultas {
+
+    /**
+     * Devuelve el detalle de cada paso del plan de SQLite
+     */
+    fun obtenerPlan(db: SupportSQLiteDatabase, sql: String, argumentos: List<Any?>): List<String> {
+        val consulta = SimpleSQLiteQuery("EXPLAIN QUERY PLAN $sql", argumentos.toTypedArray())
+        return db.query(consulta).use { cursor ->
+            val columnaDetalle = cursor.getColumnIndexOrThrow("detail")
+            buildList {
+                while (cursor.moveToNext()) {
+                    add(cursor.getString(columnaDetalle))
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista los problemas encontrados (vacía si el plan es correcto)
+     */
+    fun buscarProblemas(db: SupportSQLiteDatabase, sql: String, argumentos: List<Any?>): List<String> {
+        val tieneWhere = sql.contains(" WHERE ", ignoreCase = true)
+        return obtenerPlan(db, sql, argumentos).mapNotNull { paso ->
+            when {
+                tieneWhere && esRecorridoCompleto(paso) -> "Recorrido completo ($paso) en: $sql"
+                paso.contains("TEMP B-TREE FOR ORDER BY") -> "Ordenamiento en memoria ($paso) en: $sql"
+                else -> null
+            }
+        }
+    }
+
+    /**
+     * Lanza IllegalStateException si la consulta recorre la tabla completa
+     */
+    fun verificar(db: SupportSQLiteDatabase, sql: String, argumentos: List<Any?>) {
+        val problemas = buscarProblemas(db, sql, argumentos)
+        check(problemas.isEmpty()) { problemas.joinToString("\n") }
+    }
+
+    // Versiones antiguas de SQLite escriben "SCAN TABLE x", las nuevas "SCAN x"
+    private fun esRecorridoCompleto(paso: String): Boolean {
+        return paso.startsWith("SCAN ") &&
+                !paso.contains("USING INDEX") &&
+                !paso.contains("USING COVERING INDEX") &&
+                !paso.contains("USING INTEGER PRIMARY KEY")
+    }
+}
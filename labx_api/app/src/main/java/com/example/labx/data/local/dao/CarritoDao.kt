@@ -49,6 +49,13 @@ interface CarritoDao {
     @Query("SELECT * FROM carrito WHERE productoId = :productoId LIMIT 1")
     suspend fun obtenerPorProductoId(productoId: Int): CarritoEntity?
 
+    /**
+     * Observa solo la cantidad de un producto en el carrito
+     * @return Cantidad, o null si el producto no está en el carrito
+     */
+    @Query("SELECT cantidad FROM carrito WHERE productoId = :productoId LIMIT 1")
+    fun observarCantidad(productoId: Int): Flow<Int?>
+
     /**
      * NUEVA: Actualiza la cantidad de un producto en el carrito
      * @param productoId ID del producto
@@ -0,0 +1,71 @@
+package com.example.labx.data.local.dao
+
+import com.example.labx.data.local.entity.CarritoEntity
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.domain.model.ProductoResumen
+import com.example.labx.metricas.RegistroMetricas
+import com.example.labx.metricas.medirPrimeraEmision
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * DAOs que miden sus consultas en RegistroMetricas ("dao.*")
+ *
+ * Envuelven al DAO generado por Room (delegación con "by"): solo se
+ * sobrescriben las consultas a medir, el resto pasa directo.
+ * - suspend: duración de la consulta
+ * - Flow: tiempo hasta la primera emisión
+ */
+class ProductoDaoMedido(private val dao: ProductoDao) : ProductoDao by dao {
+
+    private val tiempoTodos = RegistroMetricas.temporizador("dao.productos.todos")
+    private val tiempoResumenes = RegistroMetricas.temporizador("dao.productos.resumenes")
+    private val tiempoPorId = RegistroMetricas.temporizador("dao.productos.porId")
+    private val tiempoContar = RegistroMetricas.temporizador("dao.productos.contar")
+    private val tiempoInsertarLote = RegistroMetricas.temporizador("dao.productos.insertarLote")
+    private val tiempoFusionar = RegistroMetricas.temporizador("dao.productos.fusionarResumenes")
+
+    override fun obtenerTodosLosProductos(): Flow<List<ProductoEntity>> =
+        dao.obtenerTodosLosProductos().medirPrimeraEmision(tiempoTodos)
+
+    override fun obtenerResumenes(): Flow<List<ProductoResumen>> =
+        dao.obtenerResumenes().medirPrimeraEmision(tiempoResumenes)
+
+    override suspend fun obtenerProductoPorId(id: Int): ProductoEntity? =
+        tiempoPorId.medir { dao.obtenerProductoPorId(id) }
+
+    override suspend fun contarProductos(): Int =
+        tiempoContar.medir { dao.contarProductos() }
+
+    override suspend fun insertarProductos(productos: List<ProductoEntity>) =
+        tiempoInsertarLote.medir { dao.insertarProductos(productos) }
+
+    override suspend fun fusionarResumenes(resumenes: List<ProductoResumen>) =
+        tiempoFusionar.medir { dao.fusionarResumenes(resumenes) }
+}
+
+/**
+ * CarritoDao medido (ver ProductoDaoMedido)
+ */
+class CarritoDaoMedido(private val dao: CarritoDao) : CarritoDao by dao {
+
+    private val tiempoTodo = RegistroMetricas.temporizador("dao.carrito.todo")
+    private val tiempoTotal = RegistroMetricas.temporizador("dao.carrito.total")
+    private val tiempoPorProducto = RegistroMetricas.temporizador("dao.carrito.porProductoId")
+    private val tiempoInsertar = RegistroMetricas.temporizador("dao.carrito.insertar")
+    private val tiempoActualizar = RegistroMetricas.temporizador("dao.carrito.actualizarCantidad")
+
+    override fun obtenerTodo(): Flow<List<CarritoEntity>> =
+        dao.obtenerTodo().medirPrimeraEmision(tiempoTodo)
+
+    override fun obtenerTotal(): Flow<Double?> =
+        dao.obtenerTotal().medirPrimeraEmision(tiempoTotal)
+
+    override suspend fun obtenerPorProductoId(productoId: Int): CarritoEntity? =
+        tiempoPorProducto.medir { dao.obtenerPorProductoId(productoId) }
+
+    override suspend fun insertar(item: CarritoEntity) =
+        tiempoInsertar.medir { dao.insertar(item) }
+
+    override suspend fun actualizarCantidad(productoId: Int, cantidad: Int) =
+        tiempoActualizar.medir { dao.actualizarCantidad(productoId, cantidad) }
+}
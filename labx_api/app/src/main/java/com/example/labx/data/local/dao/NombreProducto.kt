@@ -0,0 +1,9 @@
+package com.example.labx.data.local.dao
+
+/**
+ * Proyección de productos con solo ID y nombre (ver ProductoDao.fusionarResumenes)
+ */
+data class NombreProducto(
+    val id: Int,
+    val nombre: String
+)
@@ -5,16 +5,26 @@ import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import androidx.room.Update
 import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.local.entity.toEntitySinDescripcion
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.ProductoResumen
 import kotlinx.coroutines.flow.Flow
 
 /**
  * DAO de productos
  * Define las operaciones de base de datos
  * 
+ * Las listas no muestran las filas con ELIMINACION_PENDIENTE: para la UI
+ * ya están borradas aunque el servidor todavía no lo confirme
+ * 
  * Autor: Prof. Sting Adams Parra Silva
  */
+// Variables por sentencia: SQLite antes de 3.32 (Android 11 o anterior) acepta hasta 999
+private const val MAXIMO_PARAMETROS_SQL = 900
+
 @Dao
 interface ProductoDao {
     
@@ -22,15 +32,39 @@ interface ProductoDao {
      * Obtiene todos los productos ordenados por nombre
      * Devuelve un Flow que se actualiza automáticamente
      */
-    @Query("SELECT * FROM productos ORDER BY nombre ASC")
+    @Query("SELECT * FROM productos WHERE estadoSincronizacion != 'ELIMINACION_PENDIENTE' ORDER BY nombre ASC")
     fun obtenerTodosLosProductos(): Flow<List<ProductoEntity>>
     
+    /**
+     * Lista liviana para las tarjetas (sin 'descripcion')
+     * Se resuelve completa con index_productos_resumen
+     */
+    @Query(
+        "SELECT id, nombre, precio, imagenUrl, categoria, stock FROM productos " +
+                "WHERE estadoSincronizacion != 'ELIMINACION_PENDIENTE' ORDER BY nombre ASC"
+    )
+    fun obtenerResumenes(): Flow<List<ProductoResumen>>
+    
+    /**
+     * Cantidad de productos en cache
+     */
+    @Query("SELECT COUNT(*) FROM productos")
+    suspend fun contarProductos(): Int
+    
     /**
      * Obtiene un producto por su ID
      */
     @Query("SELECT * FROM productos WHERE id = :id")
     suspend fun obtenerProductoPorId(id: Int): ProductoEntity?
     
+    /**
+     * Observa un solo producto
+     * Room re-ejecuta la consulta ante cualquier cambio en la tabla, pero
+     * solo decodifica esta fila (usar con distinctUntilChanged)
+     */
+    @Query("SELECT * FROM productos WHERE id = :id")
+    fun observarProductoPorId(id: Int): Flow<ProductoEntity?>
+    
     /**
      * Inserta varios productos
      * Si ya existen, los reemplaza
@@ -38,6 +72,13 @@ interface ProductoDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertarProductos(productos: List<ProductoEntity>)
     
+    /**
+     * Inserta varios productos sin reemplazar los existentes
+     * Usado por el catálogo semilla
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertarProductosSiNoExisten(productos: List<ProductoEntity>)
+    
     /**
      * Inserta un solo producto
      * Retorna el ID del producto insertado
@@ -45,6 +86,159 @@ interface ProductoDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertarProducto(producto: ProductoEntity): Long
     
+    /**
+     * Actualiza solo las columnas de ProductoResumen (por id)
+     * No toca 'descripcion'
+     */
+    @Update(entity = ProductoEntity::class)
+    suspend fun actualizarResumenes(resumenes: List<ProductoResumen>)
+    
+    /**
+     * Fusiona la lista del catálogo con la cache
+     * - Filas existentes: se actualizan sin perder la descripción ya cargada,
+     *   salvo que cambie el nombre (ya es otro producto con ese ID, ej: una
+     *   fila del catálogo semilla): la descripción vacía se pide en el detalle
+     * - Filas nuevas: se insertan con descripción vacía
+     * - Filas que el servidor ya no tiene (otro admin las eliminó, o la
+     *   semilla): se eliminan
+     * - Filas con un cambio pendiente: no se tocan (el cambio local es
+     *   más nuevo que la copia del servidor)
+     */
+    @Transaction
+    suspend fun fusionarResumenes(resumenes: List<ProductoResumen>) {
+        val pendientes = obtenerIdsPendientes().toSet()
+        val aplicables = if (pendientes.isEmpty()) resumenes else resumenes.filterNot { it.id in pendientes }
+        val delServidor = aplicables.associateBy { it.id }
+
+        val sincronizados = obtenerNombresSincronizados()
+        sincronizados.filter { it.id !in delServidor }
+            .map { it.id }
+            .chunked(MAXIMO_PARAMETROS_SQL)
+            .forEach { eliminarPorIds(it) }
+        sincronizados.filter { fila -> delServidor[fila.id]?.let { it.nombre != fila.nombre } == true }
+            .map { it.id }
+            .chunked(MAXIMO_PARAMETROS_SQL)
+            .forEach { vaciarDescripciones(it) }
+
+        actualizarResumenes(aplicables)
+        insertarProductosSiNoExisten(aplicables.map { it.toEntitySinDescripcion() })
+    }
+    
+    /**
+     * ID y nombre de las filas sin cambios pendientes, para fusionarResumenes()
+     * Busca por el índice del estado y no decodifica 'descripcion'
+     */
+    @Query("SELECT id, nombre FROM productos WHERE estadoSincronizacion = 'SINCRONIZADO'")
+    suspend fun obtenerNombresSincronizados(): List<NombreProducto>
+    
+    @Query("DELETE FROM productos WHERE id IN (:ids)")
+    suspend fun eliminarPorIds(ids: List<Int>)
+    
+    @Query("UPDATE productos SET descripcion = '' WHERE id IN (:ids)")
+    suspend fun vaciarDescripciones(ids: List<Int>)
+    
+    /**
+     * Productos con un cambio local sin confirmar (ver EstadoSincronizacion)
+     */
+    @Query(
+        "SELECT * FROM productos WHERE estadoSincronizacion IN " +
+                "('CREACION_PENDIENTE', 'ACTUALIZACION_PENDIENTE', 'ELIMINACION_PENDIENTE', 'CONFLICTO')"
+    )
+    suspend fun obtenerPendientes(): List<ProductoEntity>
+    
+    /**
+     * Solo los IDs de obtenerPendientes() (se resuelve con el índice del estado)
+     */
+    @Query(
+        "SELECT id FROM productos WHERE estadoSincronizacion IN " +
+                "('CREACION_PENDIENTE', 'ACTUALIZACION_PENDIENTE', 'ELIMINACION_PENDIENTE', 'CONFLICTO')"
+    )
+    suspend fun obtenerIdsPendientes(): List<Int>
+    
+    /**
+     * Cambia solo el estado de sincronización de un producto
+     */
+    @Query("UPDATE productos SET estadoSincronizacion = :estado WHERE id = :id")
+    suspend fun marcarEstado(id: Int, estado: EstadoSincronizacion)
+    
+    /**
+     * Elimina un producto por su ID
+     */
+    @Query("DELETE FROM productos WHERE id = :id")
+    suspend fun eliminarPorId(id: Int)
+    
+    /**
+     * ID más bajo de la tabla (null si está vacía)
+     * Se resuelve con la clave primaria, sin recorrer la tabla
+     */
+    @Query("SELECT MIN(id) FROM productos")
+    suspend fun obtenerIdMinimo(): Int?
+    
+    /**
+     * Inserta un producto creado en el teléfono con un ID temporal negativo
+     * 
+     * Los IDs del servidor son positivos: el temporal nunca choca con
+     * un producto que llegue en el catálogo mientras la creación está
+     * pendiente (un autoincremento local sí podría)
+     * 
+     * @return ID temporal asignado (-1, -2, ...)
+     */
+    @Transaction
+    suspend fun insertarConIdTemporal(producto: ProductoEntity): Int {
+        val id = minOf(obtenerIdMinimo() ?: 0, 0) - 1
+        insertarProducto(producto.copy(id = id))
+        return id
+    }
+    
+    /**
+     * Cambia el producto al que apunta una línea del carrito
+     */
+    @Query("UPDATE carrito SET productoId = :idServidor WHERE productoId = :idLocal")
+    suspend fun reasignarEnCarrito(idLocal: Int, idServidor: Int)
+    
+    /**
+     * Reemplaza la fila local por la que devolvió el servidor al crear
+     * (el servidor asigna su propio ID)
+     * 
+     * Las líneas del carrito que apuntaban al ID temporal pasan al del
+     * servidor en la misma transacción
+     */
+    @Transaction
+    suspend fun reemplazarId(idLocal: Int, producto: ProductoEntity) {
+        eliminarPorId(idLocal)
+        insertarProducto(producto)
+        reasignarEnCarrito(idLocal, producto.id)
+    }
+    
+    /**
+     * Cambios de solo stock o solo precio (las correcciones más comunes
+     * del admin): no reescriben la fila completa con su descripción, y
+     * SQLite solo actualiza los índices que contienen esas columnas
+     * 
+     * @param campos Campos de la edición pendiente (ver camposEditados)
+     */
+    @Query(
+        "UPDATE productos SET stock = :stock, estadoSincronizacion = :estado, " +
+                "camposPendientes = :campos WHERE id = :id"
+    )
+    suspend fun actualizarStock(id: Int, stock: Int, estado: EstadoSincronizacion, campos: String?)
+    
+    @Query(
+        "UPDATE productos SET precio = :precio, estadoSincronizacion = :estado, " +
+                "camposPendientes = :campos WHERE id = :id"
+    )
+    suspend fun actualizarPrecio(id: Int, precio: Double, estado: EstadoSincronizacion, campos: String?)
+    
+    /**
+     * El servidor confirmó el cambio sin tocar otros campos: solo cambian
+     * la versión y el estado
+     */
+    @Query(
+        "UPDATE productos SET version = :version, actualizadoEn = :actualizadoEn, " +
+                "estadoSincronizacion = 'SINCRONIZADO', camposPendientes = NULL WHERE id = :id"
+    )
+    suspend fun confirmarVersion(id: Int, version: Int?, actualizadoEn: String?)
+    
     /**
      * Actualiza un producto existente
      */
@@ -0,0 +1,49 @@
+package com.example.labx.data.remote
+
+import okhttp3.Interceptor
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.Response
+import okio.Buffer
+import okio.GzipSink
+import okio.buffer
+import retrofit2.Invocation
+
+/**
+ * Marca un endpoint cuyo cuerpo se envía comprimido con gzip
+ *
+ * Solo para endpoints cuyo backend acepta "Content-Encoding: gzip"
+ * en la petición (ej: altas y modificaciones del admin).
+ */
+@Target(AnnotationTarget.FUNCTION)
+@Retention(AnnotationRetention.RUNTIME)
+annotation class ComprimirCuerpo
+
+/**
+ * Comprime con gzip el cuerpo de las peticiones marcadas con @ComprimirCuerpo
+ *
+ * La descripción larga del producto es texto repetitivo y se comprime
+ * bien; el ahorro se ve en los bytes enviados de RegistroMetricasRed.
+ */
+class InterceptorCompresionCuerpo : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        val cuerpo = request.body
+        val marcado = request.tag(Invocation::class.java)
+            ?.method()
+            ?.isAnnotationPresent(ComprimirCuerpo::class.java) == true
+
+        if (!marcado || cuerpo == null || request.header("Content-Encoding") != null) {
+            return chain.proceed(request)
+        }
+
+        val comprimido = Buffer()
+        GzipSink(comprimido).buffer().use { destino -> cuerpo.writeTo(destino) }
+
+        val nuevaRequest = request.newBuilder()
+            .header("Content-Encoding", "gzip")
+            .method(request.method, comprimido.readByteString().toRequestBody(cuerpo.contentType()))
+            .build()
+        return chain.proceed(nuevaRequest)
+    }
+}
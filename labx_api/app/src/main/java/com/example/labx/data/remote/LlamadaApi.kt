@@ -0,0 +1,84 @@
+package com.example.labx.data.remote
+
+import com.example.labx.data.remote.resiliencia.CircuitoAbiertoException
+import kotlinx.coroutines.CancellationException
+import retrofit2.Response
+import java.io.IOException
+import java.net.UnknownHostException
+
+/**
+ * Ejecuta una llamada de Retrofit y la convierte en ResultadoApi
+ *
+ * - 2xx con cuerpo: Exito con origen RED, código HTTP y latencia
+ * - 4xx/5xx o cuerpo vacío: Error con el código HTTP
+ * - Excepción: Error con un mensaje para el usuario
+ *
+ * La cancelación de la corrutina se propaga (no es un error de red).
+ *
+ * Ejemplo de uso:
+ * ```
+ * val resultado = llamarApi { apiService.obtenerProductoPorId(id) }
+ * ```
+ *
+ * @param reloj Hora actual en ms (reemplazable en tests)
+ */
+suspend fun <T> llamarApi(
+    reloj: () -> Long = System::currentTimeMillis,
+    llamada: suspend () -> Response<T>
+): ResultadoApi<T> {
+    val inicio = System.nanoTime()
+    fun latenciaMs() = (System.nanoTime() - inicio) / 1_000_000
+
+    return try {
+        val respuesta = llamada()
+        val cuerpo = respuesta.body()
+        if (respuesta.isSuccessful && cuerpo != null) {
+            ResultadoApi.Exito(
+                datos = cuerpo,
+                metadatos = MetadatosRespuesta(
+                    origen = OrigenDatos.RED,
+                    marcaTiempoMs = reloj(),
+                    codigoHttp = respuesta.code(),
+                    latenciaMs = latenciaMs()
+                )
+            )
+        } else {
+            ResultadoApi.Error(
+                mensajeError = "Error del servidor (HTTP ${respuesta.code()})",
+                codigoHttp = respuesta.code(),
+                latenciaMs = latenciaMs()
+            )
+        }
+    } catch (excepcion: CancellationException) {
+        throw excepcion
+    } catch (excepcion: CircuitoAbiertoException) {
+        ResultadoApi.Error("Servicio no disponible por el momento", excepcion = excepcion, latenciaMs = latenciaMs())
+    } catch (excepcion: UnknownHostException) {
+        ResultadoApi.Error("Sin conexión a internet", excepcion = excepcion, latenciaMs = latenciaMs())
+    } catch (excepcion: IOException) {
+        ResultadoApi.Error("Error de red: ${excepcion.message}", excepcion = excepcion, latenciaMs = latenciaMs())
+    } catch (excepcion: Exception) {
+        ResultadoApi.Error("Error inesperado: ${excepcion.javaClass.simpleName}", excepcion = excepcion, latenciaMs = latenciaMs())
+    }
+}
+
+/**
+ * El servidor rechazó la petición y repetirla daría lo mismo
+ * (4xx salvo 408, 412 y 429). Sin red, timeouts y 5xx son transitorios.
+ */
+val ResultadoApi.Error.esRechazoDefinitivo: Boolean
+    get() = codigoHttp in 400..499 && codigoHttp != 408 && codigoHttp != 429 && !esConflictoDeVersion
+
+/**
+ * 412 Precondition Failed: el If-Match no coincide, otro admin cambió
+ * el producto después de la versión que se editó
+ */
+val ResultadoApi.Error.esConflictoDeVersion: Boolean
+    get() = codigoHttp == 412
+
+/**
+ * 2xx sin cuerpo (ej: 204): llamarApi lo entrega como Error, pero el
+ * servidor sí aplicó el cambio
+ */
+val ResultadoApi.Error.esExitoSinCuerpo: Boolean
+    get() = codigoHttp in 200..299
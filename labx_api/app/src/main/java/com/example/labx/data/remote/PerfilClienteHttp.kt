@@ -0,0 +1,70 @@
+package com.example.labx.data.remote
+
+import okhttp3.ConnectionPool
+import okhttp3.Dispatcher
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.brotli.BrotliInterceptor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Perfil de configuración del cliente OkHttp
+ *
+ * - Pool de conexiones: cuántas conexiones inactivas se mantienen abiertas
+ *   y por cuánto tiempo (evita repetir DNS + TCP + TLS entre pantallas)
+ * - HTTP/2: una sola conexión multiplexa API e imágenes al mismo host
+ * - Dispatcher: cuántas llamadas asíncronas corren en paralelo
+ *   (Retrofit con suspend y Coil usan enqueue, así que aplica a ambos)
+ * - Timeouts por defecto: los endpoints pueden ajustarlos con @TiempoEspera
+ * - Brotli: pide "br" además de gzip; la respuesta del catálogo (texto
+ *   repetitivo) suele pesar menos que con gzip. Si el servidor no
+ *   soporta br, responde con gzip y se decodifica igual
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+data class PerfilClienteHttp(
+    val maxConexionesInactivas: Int = 5,
+    val keepAliveSegundos: Long = 300,
+    val preferirHttp2: Boolean = true,
+    val brotli: Boolean = false,
+    val maxPeticiones: Int = 64,
+    val maxPeticionesPorHost: Int = 10,
+    val conexionMs: Long = 10_000,
+    val lecturaMs: Long = 15_000,
+    val escrituraMs: Long = 15_000
+) {
+
+    companion object {
+        /**
+         * Perfil usado por la app
+         */
+        val PREDETERMINADO = PerfilClienteHttp(brotli = true)
+    }
+
+    /**
+     * Aplica el perfil a un builder de OkHttp
+     */
+    fun aplicar(builder: OkHttpClient.Builder): OkHttpClient.Builder {
+        val dispatcher = Dispatcher().apply {
+            maxRequests = maxPeticiones
+            maxRequestsPerHost = maxPeticionesPorHost
+        }
+        val protocolos = if (preferirHttp2) {
+            listOf(Protocol.HTTP_2, Protocol.HTTP_1_1)
+        } else {
+            listOf(Protocol.HTTP_1_1)
+        }
+        if (brotli) {
+            // Reemplaza el gzip transparente de OkHttp: maneja br y gzip
+            builder.addInterceptor(BrotliInterceptor)
+        }
+        return builder
+            .connectionPool(ConnectionPool(maxConexionesInactivas, keepAliveSegundos, TimeUnit.SECONDS))
+            .dispatcher(dispatcher)
+            .protocols(protocolos)
+            .connectTimeout(conexionMs, TimeUnit.MILLISECONDS)
+            .readTimeout(lecturaMs, TimeUnit.MILLISECONDS)
+            .writeTimeout(escrituraMs, TimeUnit.MILLISECONDS)
+    }
+}
@@ -1,5 +1,11 @@
 package com.example.labx.data.remote
 
+import com.example.labx.BuildConfig
+import com.example.labx.data.remote.metricas.InterceptorLogMuestreado
+import com.example.labx.data.remote.metricas.MetricasEventListener
+import com.example.labx.data.remote.resiliencia.InterceptorCircuito
+import com.example.labx.data.remote.resiliencia.InterceptorReintentos
+import okhttp3.Interceptor
 import okhttp3.OkHttpClient
 import okhttp3.logging.HttpLoggingInterceptor
 import retrofit2.Retrofit
@@ -30,6 +36,17 @@ object RetrofitClient {
     // Asegúrate de que termine con una barra inclinada "/"
 
 
+    /**
+     * En release se loguean solo los headers de 1 de cada N llamadas
+     */
+    private const val MUESTREO_LOG_RELEASE = 20
+
+    /**
+     * Tope de una llamada a la API con todos sus reintentos y esperas
+     * (InterceptorReintentos no espera más allá de este tiempo)
+     */
+    private const val TIEMPO_TOTAL_LLAMADA_S = 60L
+
     /**
      * Interceptor para logging de peticiones y respuestas HTTP
      *
@@ -38,25 +55,57 @@ object RetrofitClient {
      * - BASIC: Request method y URL, response code
      * - HEADERS: Request y response headers
      * - BODY: Request y response body completo
+     *
+     * BODY obliga a cargar toda la respuesta en memoria para imprimirla
+     * (el catálogo completo en cada llamada), por eso solo se usa en debug.
+     * En release se usa un muestreo de headers.
+     */
+    private val interceptorLog: Interceptor = if (BuildConfig.DEBUG) {
+        HttpLoggingInterceptor().apply {
+            level = HttpLoggingInterceptor.Level.BODY
+        }
+    } else {
+        InterceptorLogMuestreado(unaDeCada = MUESTREO_LOG_RELEASE)
+    }
+
+    /**
+     * Cliente base: pool de conexiones, dispatcher, protocolos y timeouts
+     * según PerfilClienteHttp, más las métricas de red
+     *
+     * Lo comparten la API y Coil (ver LabxApplication) para reutilizar
+     * conexiones HTTP/2 e imponer un solo límite de llamadas en paralelo.
+     * No tiene logging: las imágenes no deben volcarse a Logcat.
+     *
+     * MetricasEventListener registra tiempos y bytes por endpoint en
+     * RegistroMetricasRed (en debug y en release); las imágenes de Coil
+     * se suman todas en el endpoint "imagenes"
      */
-    private val interceptorLog = HttpLoggingInterceptor().apply {
-        level = HttpLoggingInterceptor.Level.BODY
+    val clienteBase: OkHttpClient by lazy {
+        PerfilClienteHttp.PREDETERMINADO
+            .aplicar(OkHttpClient.Builder())
+            .eventListenerFactory(MetricasEventListener.FABRICA)
+            .build()
     }
 
     /**
-     * Cliente HTTP configurado con timeouts e interceptores
+     * Cliente HTTP de la API: el cliente base más interceptores
      *
-     * Timeouts configurados:
-     * - connectTimeout: Tiempo máximo para establecer conexión
-     * - readTimeout: Tiempo máximo para leer respuesta
-     * - writeTimeout: Tiempo máximo para enviar datos
+     * - InterceptorCircuito: corta las llamadas a un host caído (va primero)
+     * - InterceptorReintentos: backoff con jitter para GET, respeta Retry-After
+     * - InterceptorTiempoEspera: timeouts por endpoint (@TiempoEspera)
+     * - InterceptorCompresionCuerpo: gzip en peticiones (@ComprimirCuerpo)
+     * - interceptorLog: logging según el tipo de build
      */
-    private val clienteHttp = OkHttpClient.Builder()
-        .addInterceptor(interceptorLog)
-        .connectTimeout(30, TimeUnit.SECONDS)
-        .readTimeout(30, TimeUnit.SECONDS)
-        .writeTimeout(30, TimeUnit.SECONDS)
-        .build()
+    private val clienteHttp: OkHttpClient by lazy {
+        clienteBase.newBuilder()
+            .callTimeout(TIEMPO_TOTAL_LLAMADA_S, TimeUnit.SECONDS)
+            .addInterceptor(InterceptorCircuito())
+            .addInterceptor(InterceptorReintentos())
+            .addInterceptor(InterceptorTiempoEspera())
+            .addInterceptor(InterceptorCompresionCuerpo())
+            .addInterceptor(interceptorLog)
+            .build()
+    }
 
     /**
      * Instancia de Retrofit inicializada de forma perezosa
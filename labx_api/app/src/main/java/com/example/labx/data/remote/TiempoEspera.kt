@@ -0,0 +1,50 @@
+package com.example.labx.data.remote
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import retrofit2.Invocation
+import java.util.concurrent.TimeUnit
+
+/**
+ * Timeouts propios de un endpoint de Retrofit
+ *
+ * Se lee en InterceptorTiempoEspera a través del tag Invocation que
+ * Retrofit agrega a cada Request.
+ *
+ * Ejemplo:
+ * ```
+ * @TiempoEspera(conexionMs = 5_000, lecturaMs = 5_000)
+ * @GET("api/productos/{id}")
+ * suspend fun obtenerProductoPorId(...)
+ * ```
+ */
+@Target(AnnotationTarget.FUNCTION)
+@Retention(AnnotationRetention.RUNTIME)
+annotation class TiempoEspera(
+    val conexionMs: Int,
+    val lecturaMs: Int,
+    val escrituraMs: Int = -1
+)
+
+/**
+ * Aplica @TiempoEspera sobre los timeouts del cliente
+ *
+ * Sin anotación se usan los timeouts del PerfilClienteHttp.
+ */
+class InterceptorTiempoEspera : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val anotacion = chain.request()
+            .tag(Invocation::class.java)
+            ?.method()
+            ?.getAnnotation(TiempoEspera::class.java)
+            ?: return chain.proceed(chain.request())
+
+        val escrituraMs = if (anotacion.escrituraMs >= 0) anotacion.escrituraMs else anotacion.lecturaMs
+        return chain
+            .withConnectTimeout(anotacion.conexionMs, TimeUnit.MILLISECONDS)
+            .withReadTimeout(anotacion.lecturaMs, TimeUnit.MILLISECONDS)
+            .withWriteTimeout(escrituraMs, TimeUnit.MILLISECONDS)
+            .proceed(chain.request())
+    }
+}
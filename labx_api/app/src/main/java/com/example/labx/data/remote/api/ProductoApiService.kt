@@ -1,10 +1,15 @@
 package com.example.labx.data.remote.api
 
+import com.example.labx.data.remote.ComprimirCuerpo
+import com.example.labx.data.remote.TiempoEspera
 import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.data.remote.dto.ProductoResumenDto
 import retrofit2.Response
 import retrofit2.http.Body
 import retrofit2.http.DELETE
 import retrofit2.http.GET
+import retrofit2.http.Header
+import retrofit2.http.PATCH
 import retrofit2.http.POST
 import retrofit2.http.PUT
 import retrofit2.http.Path
@@ -15,6 +20,18 @@ import retrofit2.http.Query
  *
  * ADAPTADA PARA: https://api-dfs2-dm-production.up.railway.app
  *
+ * Timeouts (@TiempoEspera):
+ * - Detalle: cortos, la pantalla cae a la cache local en segundos
+ * - Catálogo completo: lectura más larga por el tamaño de la respuesta
+ *
+ * Lista vs detalle:
+ * - La lista usa obtenerCatalogoResumido (?fields=, sin 'descripcion')
+ * - El detalle pide el producto completo con obtenerProductoPorId
+ *
+ * Ediciones:
+ * - modificarCampos (PATCH) envía solo los campos cambiados
+ * - modificarProducto (PUT) envía el producto completo
+ *
  * @author Sting Parra Silva (Actualizado)
  * @version 2.0
  */
@@ -24,13 +41,28 @@ interface ProductoApiService {
      * Obtiene todos los productos disponibles
      * Endpoint: GET /api/productos
      */
+    @TiempoEspera(conexionMs = 10_000, lecturaMs = 30_000)
     @GET("api/productos")
     suspend fun obtenerTodosLosProductos(): Response<List<ProductoDto>>
 
+    /**
+     * Obtiene el catálogo solo con los campos de la lista
+     * Endpoint: GET /api/productos?fields=id,nombre,...
+     *
+     * TODO: Verificar que el backend respete 'fields'. Si lo ignora,
+     * responde el producto completo y ProductoResumenDto descarta el resto.
+     */
+    @TiempoEspera(conexionMs = 10_000, lecturaMs = 30_000)
+    @GET("api/productos")
+    suspend fun obtenerCatalogoResumido(
+        @Query("fields") campos: String = ProductoResumenDto.CAMPOS
+    ): Response<List<ProductoResumenDto>>
+
     /**
      * Obtiene un producto específico por su ID
      * Endpoint: GET /api/productos/{id}
      */
+    @TiempoEspera(conexionMs = 5_000, lecturaMs = 5_000)
     @GET("api/productos/{id}")
     suspend fun obtenerProductoPorId(
         @Path("id") identificador: Int
@@ -40,6 +72,7 @@ interface ProductoApiService {
      * Crea un nuevo producto
      * Endpoint: POST /api/productos
      */
+    @ComprimirCuerpo
     @POST("api/productos")
     suspend fun agregarProducto(
         @Body nuevoProducto: ProductoDto
@@ -48,11 +81,35 @@ interface ProductoApiService {
     /**
      * Actualiza un producto existente
      * Endpoint: PUT /api/productos/{id}
+     *
+     * Con If-Match el servidor solo aplica el cambio si el producto sigue
+     * en esa versión; si no, responde 412. null: sin el header (producto
+     * sin versión conocida, se sobrescribe como antes)
      */
+    @ComprimirCuerpo
     @PUT("api/productos/{id}")
     suspend fun modificarProducto(
         @Path("id") identificador: Int,
-        @Body productoActualizado: ProductoDto
+        @Body productoActualizado: ProductoDto,
+        @Header("If-Match") siCoincide: String? = null
+    ): Response<ProductoDto>
+
+    /**
+     * Actualiza solo algunos campos de un producto
+     * Endpoint: PATCH /api/productos/{id}
+     *
+     * Cuerpo: ver Producto.aCambiosDto (ej: {"stock":3}). Sin
+     * @ComprimirCuerpo: son pocos bytes, gzip los haría más grandes.
+     * If-Match igual que en modificarProducto.
+     *
+     * TODO: Verificar que el backend acepte PATCH. Si responde 405/501,
+     * el repositorio vuelve a PUT (ver ProductoRepositoryImpl).
+     */
+    @PATCH("api/productos/{id}")
+    suspend fun modificarCampos(
+        @Path("id") identificador: Int,
+        @Body cambios: Map<String, @JvmSuppressWildcards Any>,
+        @Header("If-Match") siCoincide: String? = null
     ): Response<ProductoDto>
 
     /**
@@ -0,0 +1,42 @@
+package com.example.labx.data.remote.conectividad
+
+import kotlinx.coroutines.flow.StateFlow
+
+/**
+ * Estado de la red que ve la app
+ *
+ * @property conectado Hay una red con acceso a internet
+ * @property medida La red cobra por datos (datos móviles, hotspot)
+ */
+data class EstadoConectividad(
+    val conectado: Boolean,
+    val medida: Boolean
+) {
+    /**
+     * Descargas grandes (catálogo completo, prefetch de imágenes):
+     * solo con red no medida
+     */
+    val permiteDescargaGrande: Boolean
+        get() = conectado && !medida
+
+    companion object {
+        val SIN_CONEXION = EstadoConectividad(conectado = false, medida = false)
+        val WIFI = EstadoConectividad(conectado = true, medida = false)
+        val DATOS_MOVILES = EstadoConectividad(conectado = true, medida = true)
+    }
+}
+
+/**
+ * MonitorConectividad: Expone el estado de la red como StateFlow
+ *
+ * El repositorio lo consulta antes de cada llamada: sin red responde
+ * desde Room al instante en lugar de esperar el UnknownHostException
+ * (timeout de DNS).
+ *
+ * Implementaciones:
+ * - MonitorConectividadAndroid: ConnectivityManager (la app)
+ * - Un monitor falso con estado fijo (tests unitarios)
+ */
+interface MonitorConectividad {
+    val estado: StateFlow<EstadoConectividad>
+}
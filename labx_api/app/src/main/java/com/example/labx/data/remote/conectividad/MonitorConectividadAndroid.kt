@@ -0,0 +1,67 @@
+package com.example.labx.data.remote.conectividad
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.Network
+import android.net.NetworkCapabilities
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+
+/**
+ * Monitor de conectividad basado en ConnectivityManager
+ *
+ * Registra un callback de la red por defecto durante toda la vida del
+ * proceso (una sola instancia, ver obtener()). El estado inicial se lee
+ * de forma síncrona, así la primera consulta del repositorio ya es correcta.
+ *
+ * Requiere el permiso ACCESS_NETWORK_STATE.
+ */
+class MonitorConectividadAndroid private constructor(context: Context) : MonitorConectividad {
+
+    private val connectivityManager =
+        context.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
+
+    private val _estado = MutableStateFlow(
+        leerEstado(connectivityManager.getNetworkCapabilities(connectivityManager.activeNetwork))
+    )
+    override val estado: StateFlow<EstadoConectividad> = _estado.asStateFlow()
+
+    init {
+        connectivityManager.registerDefaultNetworkCallback(object : ConnectivityManager.NetworkCallback() {
+            override fun onCapabilitiesChanged(network: Network, capacidades: NetworkCapabilities) {
+                _estado.value = leerEstado(capacidades)
+            }
+
+            override fun onLost(network: Network) {
+                _estado.value = EstadoConectividad.SIN_CONEXION
+            }
+        })
+    }
+
+    private fun leerEstado(capacidades: NetworkCapabilities?): EstadoConectividad {
+        if (capacidades == null ||
+            !capacidades.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+        ) {
+            return EstadoConectividad.SIN_CONEXION
+        }
+        return EstadoConectividad(
+            conectado = true,
+            medida = !capacidades.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED)
+        )
+    }
+
+    companion object {
+        @Volatile
+        private var INSTANCE: MonitorConectividadAndroid? = null
+
+        /**
+         * Instancia única del proceso (un solo callback registrado)
+         */
+        fun obtener(context: Context): MonitorConectividadAndroid {
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: MonitorConectividadAndroid(context.applicationContext).also { INSTANCE = it }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.labx.data.remote.metricas
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import okhttp3.logging.HttpLoggingInterceptor
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Registra en Logcat solo una muestra de las peticiones
+ *
+ * Pensado para builds release: en vez de volcar todas las respuestas,
+ * se loguean los headers de aproximadamente 1 de cada [unaDeCada]
+ * llamadas. Las demás pasan sin costo adicional.
+ *
+ * @param unaDeCada Tasa de muestreo (1 = todas)
+ * @param logger Interceptor de logging que se usa para las muestras
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+class InterceptorLogMuestreado(
+    private val unaDeCada: Int,
+    private val logger: HttpLoggingInterceptor = HttpLoggingInterceptor().apply {
+        level = HttpLoggingInterceptor.Level.HEADERS
+        redactHeader("Authorization")
+        redactHeader("Cookie")
+    }
+) : Interceptor {
+
+    init {
+        require(unaDeCada >= 1) { "unaDeCada debe ser 1 o mayor" }
+    }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val muestreada = unaDeCada == 1 || ThreadLocalRandom.current().nextInt(unaDeCada) == 0
+        return if (muestreada) logger.intercept(chain) else chain.proceed(chain.request())
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.labx.data.remote.metricas
+
+import okhttp3.Call
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import okhttp3.Response
+import retrofit2.Invocation
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+
+/**
+ * EventListener de OkHttp que mide cada fase de una llamada
+ *
+ * Fases medidas:
+ * - DNS, conexión TCP y TLS (solo si la conexión es nueva)
+ * - Tiempo al primer byte: desde que se envían los headers hasta
+ *   que llegan los headers de respuesta
+ * - Lectura del cuerpo y bytes transferidos (los bytes recibidos son
+ *   los del cable, antes de descomprimir)
+ *
+ * Se crea una instancia por llamada (ver FABRICA), así no hay estado
+ * compartido entre hilos.
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+class MetricasEventListener private constructor() : EventListener() {
+
+    companion object {
+        /**
+         * Fábrica para OkHttpClient.Builder.eventListenerFactory()
+         */
+        val FABRICA = Factory { MetricasEventListener() }
+
+        /**
+         * Llamadas sin método de Retrofit: las imágenes de Coil, que
+         * comparten RetrofitClient.clienteBase
+         */
+        const val ENDPOINT_IMAGENES = "imagenes"
+
+        /**
+         * Nombre del endpoint: método de Retrofit si existe, si no
+         * ENDPOINT_IMAGENES
+         *
+         * No se usa la ruta: cada URL de imagen sería un endpoint nuevo
+         * con sus propios contadores en RegistroMetricas, que nunca se
+         * liberan
+         */
+        fun nombreEndpoint(call: Call): String {
+            val invocacion = call.request().tag(Invocation::class.java)
+            return invocacion?.method()?.name ?: ENDPOINT_IMAGENES
+        }
+    }
+
+    private var inicioLlamada = 0L
+    private var inicioDns = 0L
+    private var dnsNs = 0L
+    private var inicioConexion = 0L
+    private var conexionNs = 0L
+    private var inicioTls = 0L
+    private var tlsNs = 0L
+    private var inicioPeticion = 0L
+    private var primerByteNs = 0L
+    private var inicioCuerpo = 0L
+    private var cuerpoNs = 0L
+    private var bytesEnviados = 0L
+    private var bytesRecibidos = 0L
+
+    override fun callStart(call: Call) {
+        inicioLlamada = System.nanoTime()
+    }
+
+    override fun dnsStart(call: Call, domainName: String) {
+        inicioDns = System.nanoTime()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        dnsNs += System.nanoTime() - inicioDns
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        inicioConexion = System.nanoTime()
+    }
+
+    override fun connectEnd(
+        call: Call,
+        inetSocketAddress: InetSocketAddress,
+        proxy: Proxy,
+        protocol: Protocol?
+    ) {
+        conexionNs += System.nanoTime() - inicioConexion
+    }
+
+    override fun secureConnectStart(call: Call) {
+        inicioTls = System.nanoTime()
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        tlsNs += System.nanoTime() - inicioTls
+    }
+
+    override fun requestHeadersStart(call: Call) {
+        inicioPeticion = System.nanoTime()
+    }
+
+    override fun requestBodyEnd(call: Call, byteCount: Long) {
+        bytesEnviados += byteCount
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        primerByteNs = System.nanoTime() - inicioPeticion
+    }
+
+    override fun responseHeadersEnd(call: Call, response: Response) {
+        // Las respuestas sin cuerpo no llaman a responseBodyStart
+        inicioCuerpo = System.nanoTime()
+    }
+
+    override fun responseBodyStart(call: Call) {
+        inicioCuerpo = System.nanoTime()
+    }
+
+    override fun responseBodyEnd(call: Call, byteCount: Long) {
+        cuerpoNs = System.nanoTime() - inicioCuerpo
+        bytesRecibidos += byteCount
+    }
+
+    override fun callEnd(call: Call) {
+        registrar(call, fallida = false)
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        registrar(call, fallida = true)
+    }
+
+    private fun registrar(call: Call, fallida: Boolean) {
+        RegistroMetricasRed.registrar(
+            nombreEndpoint(call),
+            MedicionLlamada(
+                dnsMs = dnsNs / 1_000_000,
+                conexionMs = conexionNs / 1_000_000,
+                tlsMs = tlsNs / 1_000_000,
+                primerByteMs = primerByteNs / 1_000_000,
+                cuerpoMs = cuerpoNs / 1_000_000,
+                totalMs = (System.nanoTime() - inicioLlamada) / 1_000_000,
+                bytesEnviados = bytesEnviados,
+                bytesRecibidos = bytesRecibidos,
+                fallida = fallida
+            )
+        )
+    }
+}
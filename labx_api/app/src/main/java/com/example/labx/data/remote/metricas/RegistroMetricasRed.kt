@@ -0,0 +1,143 @@
+package com.example.labx.data.remote.metricas
+
+import com.example.labx.metricas.Contador
+import com.example.labx.metricas.RegistroMetricas
+import com.example.labx.metricas.Temporizador
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Registro en memoria de métricas de red por endpoint
+ *
+ * Cada endpoint (nombre del método de ProductoApiService) acumula sus
+ * contadores en RegistroMetricas con el prefijo "red.<endpoint>.", así
+ * aparecen en el panel de debug y en el JSON junto al resto de la app.
+ * La latencia total se guarda además en un histograma (percentiles).
+ * MetricasEventListener lo alimenta al terminar cada llamada HTTP.
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+object RegistroMetricasRed {
+
+    private const val PREFIJO = "red."
+
+    private val porEndpoint = ConcurrentHashMap<String, AcumuladorEndpoint>()
+
+    /**
+     * Registra la medición de una llamada terminada
+     */
+    fun registrar(endpoint: String, medicion: MedicionLlamada) {
+        porEndpoint.getOrPut(endpoint) { AcumuladorEndpoint(PREFIJO + endpoint) }.sumar(medicion)
+    }
+
+    /**
+     * Copia de los valores actuales, para mostrar o exportar
+     */
+    fun instantanea(): Map<String, ResumenEndpoint> {
+        return porEndpoint.mapValues { (_, acumulador) -> acumulador.resumen() }
+    }
+
+    /**
+     * Reinicia todas las métricas (tests y pantalla de debug)
+     */
+    fun reiniciar() {
+        porEndpoint.clear()
+        RegistroMetricas.reiniciar(PREFIJO)
+    }
+
+    private class AcumuladorEndpoint(nombre: String) {
+        val llamadas: Contador = RegistroMetricas.contador("$nombre.llamadas")
+        val fallidas: Contador = RegistroMetricas.contador("$nombre.fallidas")
+        val dnsMs: Contador = RegistroMetricas.contador("$nombre.dns_ms")
+        val conexionMs: Contador = RegistroMetricas.contador("$nombre.conexion_ms")
+        val tlsMs: Contador = RegistroMetricas.contador("$nombre.tls_ms")
+        val primerByteMs: Contador = RegistroMetricas.contador("$nombre.primer_byte_ms")
+        val cuerpoMs: Contador = RegistroMetricas.contador("$nombre.cuerpo_ms")
+        val totalMs: Contador = RegistroMetricas.contador("$nombre.total_ms")
+        val bytesEnviados: Contador = RegistroMetricas.contador("$nombre.bytes_enviados")
+        val bytesRecibidos: Contador = RegistroMetricas.contador("$nombre.bytes_recibidos")
+        val latencia: Temporizador = RegistroMetricas.temporizador("$nombre.latencia")
+
+        fun sumar(medicion: MedicionLlamada) {
+            llamadas.incrementar()
+            if (medicion.fallida) fallidas.incrementar()
+            dnsMs.sumar(medicion.dnsMs)
+            conexionMs.sumar(medicion.conexionMs)
+            tlsMs.sumar(medicion.tlsMs)
+            primerByteMs.sumar(medicion.primerByteMs)
+            cuerpoMs.sumar(medicion.cuerpoMs)
+            totalMs.sumar(medicion.totalMs)
+            bytesEnviados.sumar(medicion.bytesEnviados)
+            bytesRecibidos.sumar(medicion.bytesRecibidos)
+            latencia.registrarNanos(medicion.totalMs * 1_000_000)
+        }
+
+        fun resumen() = ResumenEndpoint(
+            llamadas = llamadas.valor(),
+            fallidas = fallidas.valor(),
+            dnsMs = dnsMs.valor(),
+            conexionMs = conexionMs.valor(),
+            tlsMs = tlsMs.valor(),
+            primerByteMs = primerByteMs.valor(),
+            cuerpoMs = cuerpoMs.valor(),
+            totalMs = totalMs.valor(),
+            bytesEnviados = bytesEnviados.valor(),
+            bytesRecibidos = bytesRecibidos.valor(),
+            p90Ms = latencia.histograma.resumen().p90 / 1_000
+        )
+    }
+}
+
+/**
+ * Tiempos y bytes de una sola llamada HTTP (milisegundos)
+ *
+ * dns/conexion/tls valen 0 cuando la conexión se reutilizó del pool.
+ */
+data class MedicionLlamada(
+    val dnsMs: Long,
+    val conexionMs: Long,
+    val tlsMs: Long,
+    val primerByteMs: Long,
+    val cuerpoMs: Long,
+    val totalMs: Long,
+    val bytesEnviados: Long,
+    val bytesRecibidos: Long,
+    val fallida: Boolean
+)
+
+/**
+ * Totales acumulados de un endpoint
+ *
+ * p90Ms: percentil 90 aproximado de la latencia total (por cubetas)
+ */
+data class ResumenEndpoint(
+    val llamadas: Long,
+    val fallidas: Long,
+    val dnsMs: Long,
+    val conexionMs: Long,
+    val tlsMs: Long,
+    val primerByteMs: Long,
+    val cuerpoMs: Long,
+    val totalMs: Long,
+    val bytesEnviados: Long,
+    val bytesRecibidos: Long,
+    val p90Ms: Long = 0
+) {
+    /**
+     * Latencia promedio por llamada
+     */
+    val promedioMs: Long
+        get() = if (llamadas == 0L) 0 else totalMs / llamadas
+
+    /**
+     * Tamaño promedio de la petición (bytes en el cable)
+     */
+    val promedioBytesEnviados: Long
+        get() = if (llamadas == 0L) 0 else bytesEnviados / llamadas
+
+    /**
+     * Tamaño promedio de la respuesta (bytes en el cable, comprimidos)
+     */
+    val promedioBytesRecibidos: Long
+        get() = if (llamadas == 0L) 0 else bytesRecibidos / llamadas
+}
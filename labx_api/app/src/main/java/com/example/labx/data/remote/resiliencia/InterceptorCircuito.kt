@@ -0,0 +1,121 @@
+package com.example.labx.data.remote.resiliencia
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Circuit breaker por host
+ *
+ * Tras umbralFallos fallos seguidos de un host (error de red, timeout o
+ * HTTP 5xx) el circuito se abre: durante enfriamientoMs las llamadas a
+ * ese host fallan al instante con CircuitoAbiertoException, y el
+ * repositorio cae a Room sin esperar un timeout.
+ *
+ * Pasado el enfriamiento se deja pasar una sola llamada de prueba:
+ * - Si responde bien, el circuito se cierra
+ * - Si falla, se vuelve a abrir por otro enfriamiento
+ *
+ * Va por fuera de InterceptorReintentos: una tanda completa de
+ * reintentos cuenta como un solo fallo.
+ */
+class InterceptorCircuito(
+    private val umbralFallos: Int = 5,
+    private val enfriamientoMs: Long = 30_000,
+    private val reloj: () -> Long = System::currentTimeMillis
+) : Interceptor {
+
+    /**
+     * Estados del circuito de un host
+     */
+    enum class Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private class CircuitoHost {
+        var estado = Estado.CERRADO
+        var fallosSeguidos = 0
+        var abiertoHasta = 0L
+    }
+
+    private val circuitos = ConcurrentHashMap<String, CircuitoHost>()
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val host = chain.request().url.host
+        val circuito = circuitos.getOrPut(host) { CircuitoHost() }
+
+        permitirLlamada(host, circuito)
+
+        val respuesta = try {
+            chain.proceed(chain.request())
+        } catch (excepcion: IOException) {
+            if (chain.call().isCanceled()) {
+                liberarPrueba(circuito)
+            } else {
+                registrarFallo(circuito)
+            }
+            throw excepcion
+        }
+
+        if (respuesta.code >= 500) {
+            registrarFallo(circuito)
+        } else {
+            registrarExito(circuito)
+        }
+        return respuesta
+    }
+
+    /**
+     * Estado actual del circuito de un host (CERRADO si nunca se usó)
+     */
+    fun estado(host: String): Estado = circuitos[host]?.let { circuito ->
+        synchronized(circuito) { circuito.estado }
+    } ?: Estado.CERRADO
+
+    private fun permitirLlamada(host: String, circuito: CircuitoHost) = synchronized(circuito) {
+        when (circuito.estado) {
+            Estado.CERRADO -> Unit
+            Estado.ABIERTO -> {
+                val restanteMs = circuito.abiertoHasta - reloj()
+                if (restanteMs > 0) {
+                    throw CircuitoAbiertoException(host, restanteMs)
+                }
+                // Enfriamiento cumplido: esta llamada es la prueba
+                circuito.estado = Estado.SEMIABIERTO
+            }
+            // Ya hay una prueba en curso: el resto espera su resultado
+            Estado.SEMIABIERTO -> throw CircuitoAbiertoException(host, 0)
+        }
+    }
+
+    private fun registrarFallo(circuito: CircuitoHost) = synchronized(circuito) {
+        circuito.fallosSeguidos++
+        if (circuito.estado == Estado.SEMIABIERTO || circuito.fallosSeguidos >= umbralFallos) {
+            circuito.estado = Estado.ABIERTO
+            circuito.abiertoHasta = reloj() + enfriamientoMs
+        }
+    }
+
+    // Una prueba cancelada no dice nada del host: la siguiente llamada prueba de nuevo
+    private fun liberarPrueba(circuito: CircuitoHost) = synchronized(circuito) {
+        if (circuito.estado == Estado.SEMIABIERTO) {
+            circuito.estado = Estado.ABIERTO
+            circuito.abiertoHasta = reloj()
+        }
+    }
+
+    private fun registrarExito(circuito: CircuitoHost) = synchronized(circuito) {
+        circuito.estado = Estado.CERRADO
+        circuito.fallosSeguidos = 0
+    }
+}
+
+/**
+ * La llamada no se envió porque el circuito del host está abierto
+ *
+ * Es una IOException: el repositorio la trata como cualquier error de
+ * red y usa los datos locales.
+ */
+class CircuitoAbiertoException(
+    val host: String,
+    val restanteMs: Long
+) : IOException("Circuito abierto para $host (reintento en ${restanteMs} ms)")
@@ -0,0 +1,128 @@
+package com.example.labx.data.remote.resiliencia
+
+import okhttp3.Interceptor
+import okhttp3.Response
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.util.concurrent.TimeUnit
+import kotlin.math.min
+import kotlin.random.Random
+
+/**
+ * Reintentos acotados con backoff exponencial y jitter
+ *
+ * Solo para métodos idempotentes (GET, HEAD): repetir un POST podría
+ * crear el producto dos veces.
+ *
+ * Se reintenta ante:
+ * - Error de red (conexión rechazada, conexión cortada)
+ * - HTTP 429, 502, 503, 504
+ *
+ * No se reintenta un timeout: el servidor ya consumió el tiempo completo
+ * y repetirlo solo multiplica la espera antes de caer a la cache.
+ *
+ * Espera entre intentos:
+ * - Si la respuesta trae Retry-After (segundos o fecha), se respeta; si
+ *   pide más de esperaMaximaMs no se reintenta y se entrega la respuesta
+ * - Si no, "full jitter": aleatorio entre 0 y base * 2^intento (con tope)
+ * - Si la espera no cabe en lo que queda del timeout de la llamada
+ *   (OkHttpClient.callTimeout), no se reintenta
+ *
+ * La espera bloquea el hilo del dispatcher de OkHttp. Si la llamada se
+ * cancela mientras tanto (ej: refrescar() cancela el refresco anterior),
+ * al despertar se corta con IOException sin volver a pedir.
+ *
+ * @param maxIntentos Intentos totales, incluido el primero
+ * @param dormir Espera bloqueante (reemplazable en tests)
+ */
+class InterceptorReintentos(
+    private val maxIntentos: Int = 3,
+    private val esperaBaseMs: Long = 300,
+    private val esperaMaximaMs: Long = 5_000,
+    private val aleatorio: Random = Random.Default,
+    private val reloj: () -> Long = System::currentTimeMillis,
+    private val dormir: (Long) -> Unit = Thread::sleep
+) : Interceptor {
+
+    companion object {
+        private val METODOS_IDEMPOTENTES = setOf("GET", "HEAD")
+        private val CODIGOS_REINTENTABLES = setOf(429, 502, 503, 504)
+    }
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.method !in METODOS_IDEMPOTENTES) {
+            return chain.proceed(request)
+        }
+
+        val inicio = reloj()
+        var intento = 0
+        while (true) {
+            val esUltimo = intento == maxIntentos - 1
+
+            val respuesta = try {
+                chain.proceed(request)
+            } catch (excepcion: IOException) {
+                // InterruptedIOException: timeout o llamada cancelada
+                if (esUltimo || excepcion is InterruptedIOException || chain.call().isCanceled()) {
+                    throw excepcion
+                }
+                val esperaMs = esperaConJitter(intento)
+                if (!cabeEnElTimeout(chain, inicio, esperaMs)) {
+                    throw excepcion
+                }
+                esperar(chain, esperaMs)
+                intento++
+                continue
+            }
+
+            if (esUltimo || respuesta.code !in CODIGOS_REINTENTABLES) {
+                return respuesta
+            }
+
+            val esperaMs = esperaRetryAfter(respuesta) ?: esperaConJitter(intento)
+            if (esperaMs > esperaMaximaMs || !cabeEnElTimeout(chain, inicio, esperaMs)) {
+                return respuesta
+            }
+            respuesta.close()
+            esperar(chain, esperaMs)
+            intento++
+        }
+    }
+
+    private fun esperar(chain: Interceptor.Chain, esperaMs: Long) {
+        dormir(esperaMs)
+        if (chain.call().isCanceled()) {
+            throw IOException("Canceled")
+        }
+    }
+
+    /**
+     * true si tras esperar aún queda tiempo de la llamada para otro intento
+     * (sin callTimeout configurado no hay tope)
+     */
+    private fun cabeEnElTimeout(chain: Interceptor.Chain, inicio: Long, esperaMs: Long): Boolean {
+        val timeoutNs = chain.call().timeout().timeoutNanos()
+        if (timeoutNs == 0L) return true
+        val restanteMs = TimeUnit.NANOSECONDS.toMillis(timeoutNs) - (reloj() - inicio)
+        return esperaMs < restanteMs
+    }
+
+    /**
+     * Aleatorio entre 0 y base * 2^intento, con tope esperaMaximaMs
+     */
+    internal fun esperaConJitter(intento: Int): Long {
+        val techo = min(esperaMaximaMs, esperaBaseMs shl min(intento, 20))
+        return aleatorio.nextLong(techo + 1)
+    }
+
+    /**
+     * Retry-After en segundos ("120") o como fecha HTTP
+     */
+    private fun esperaRetryAfter(respuesta: Response): Long? {
+        val valor = respuesta.header("Retry-After") ?: return null
+        valor.trim().toLongOrNull()?.let { segundos -> return segundos.coerceAtLeast(0) * 1_000 }
+        val fecha = respuesta.headers.getDate("Retry-After") ?: return null
+        return (fecha.time - reloj()).coerceAtLeast(0)
+    }
+}
@@ -6,6 +6,7 @@ import com.example.labx.data.local.entity.toDomain
 import com.example.labx.domain.model.ItemCarrito
 import com.example.labx.domain.model.Producto
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.map
 
 /**
@@ -35,6 +36,27 @@ class CarritoRepository(private val carritoDao: CarritoDao) {
             }
     }
 
+    /**
+     * Productos del carrito sin cantidades
+     * Un cambio de cantidad no re-emite la lista: cada fila observa
+     * su propia cantidad con observarCantidad()
+     */
+    fun obtenerProductosEnCarrito(): Flow<List<Producto>> {
+        return carritoDao.obtenerTodo()
+            .map { entities -> entities.map { it.toDomain() } }
+            .distinctUntilChanged()
+    }
+
+    /**
+     * Cantidad de un producto en el carrito (0 si no está)
+     * Solo emite cuando cambia esa cantidad
+     */
+    fun observarCantidad(productoId: Int): Flow<Int> {
+        return carritoDao.observarCantidad(productoId)
+            .map { it ?: 0 }
+            .distinctUntilChanged()
+    }
+
     /**
      * MEJORADO: Agrega o incrementa la cantidad de un producto
      * 
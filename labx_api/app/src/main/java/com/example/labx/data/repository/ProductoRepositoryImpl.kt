@@ -1,18 +1,51 @@
 package com.example.labx.data.repository
 
-import android.util.Log
+import com.example.labx.bitacora.Registrador
+import com.example.labx.bitacora.d
+import com.example.labx.bitacora.e
+import com.example.labx.bitacora.w
 import com.example.labx.data.local.dao.ProductoDao
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.local.entity.camposEditados
+import com.example.labx.data.local.entity.comoColumna
 import com.example.labx.data.local.entity.toEntity
 import com.example.labx.data.local.entity.toProducto
+import com.example.labx.data.remote.MetadatosRespuesta
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
 import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.conectividad.MonitorConectividad
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.data.remote.dto.aCambiosDto
 import com.example.labx.data.remote.dto.aDto
 import com.example.labx.data.remote.dto.aModelo
+import com.example.labx.data.remote.dto.aResumen
+import com.example.labx.data.remote.esConflictoDeVersion
+import com.example.labx.data.remote.esDeCache
+import com.example.labx.data.remote.esExitoSinCuerpo
+import com.example.labx.data.remote.esRechazoDefinitivo
+import com.example.labx.data.remote.llamarApi
+import com.example.labx.data.remote.mapear
+import com.example.labx.domain.model.CampoProducto
+import com.example.labx.domain.model.ConflictoEdicion
+import com.example.labx.domain.model.EstadoSincronizacion
 import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+import com.example.labx.domain.model.camposDistintos
 import com.example.labx.domain.repository.RepositorioProductos
+import com.example.labx.metricas.RegistroMetricas
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.flow
-import java.io.IOException
-import java.net.UnknownHostException
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Implementación del repositorio de productos con soporte para API REST y cache local
@@ -21,10 +54,28 @@ import java.net.UnknownHostException
  * - Fuente primaria: API REST (Retrofit)
  * - Fuente secundaria: Base de datos local (Room)
  *
- * Estrategia de fallback implementada:
- * 1. Intenta obtener datos de la API
- * 2. Si la API falla (sin internet, timeout, error servidor), usa datos locales
- * 3. Siempre hay un plan B para garantizar funcionamiento offline
+ * Room es la única fuente que observa la UI:
+ * 1. observarProductos() / obtenerResumenes() leen Room y no terminan
+ * 2. refrescarProductos() descarga de la API y escribe en Room; los
+ *    observadores reciben el cambio sin volver a suscribirse
+ * 3. Un Error del refresco no borra lo ya mostrado: la UI sigue con la
+ *    cache e informa que no se pudo actualizar
+ * 4. Los cambios del admin se escriben primero en Room con un estado
+ *    pendiente (EstadoSincronizacion) y se confirman o deshacen con la
+ *    respuesta de la API; los que no llegaron se reenvían al refrescar
+ * 5. Las ediciones envían solo los campos cambiados (PATCH) y son
+ *    condicionales (If-Match con la versión editada):
+ *    si otro admin cambió el producto se fusiona campo por campo, y si
+ *    ambos cambiaron el mismo campo el admin decide (observarConflictos)
+ * 6. Los envíos a la API (cambios del admin y reenvíos) van de a uno
+ *    (ver enviando()): un refresco nunca repite un POST o PUT que aún
+ *    espera respuesta, y una vez enviado se espera la respuesta aunque
+ *    se cancele quien lo pidió, así el estado en Room refleja lo que
+ *    hizo el servidor
+ *
+ * Cada ResultadoApi lleva origen, marca de tiempo, código HTTP y
+ * latencia (ver MetadatosRespuesta), así la UI y las métricas no
+ * dependen de Logcat.
  *
  * Ventajas de esta arquitectura:
  * - La app funciona sin internet (usando cache)
@@ -32,123 +83,137 @@ import java.net.UnknownHostException
  * - Experiencia de usuario consistente
  * - Fácil cambiar fuente de datos sin afectar ViewModels
  *
+ * Conectividad:
+ * - Sin red: se responde desde Room sin intentar la API
+ * - Red medida (datos móviles): si ya hay cache, no se descarga el
+ *   catálogo completo; se refresca cuando vuelva una red no medida
+ *
  * @property productoDao DAO para acceso a base de datos local
  * @property apiService Servicio para peticiones HTTP a la API
+ * @property monitorConectividad Estado actual de la red
+ * @property reloj Hora actual en ms (reemplazable en tests)
+ * @property registrador Logging sin depender de android.util.Log
  *
  * @author Sting Parra Silva
  * @version 2.0
  */
 class ProductoRepositoryImpl(
     private val productoDao: ProductoDao,
-    private val apiService: ProductoApiService
+    private val apiService: ProductoApiService,
+    private val monitorConectividad: MonitorConectividad,
+    private val reloj: () -> Long = System::currentTimeMillis,
+    private val registrador: Registrador = Registrador.NINGUNO
 ) : RepositorioProductos {
 
     companion object {
         private const val TAG = "ProductoRepository"
+
+        private val tiempoMapeoCatalogo = RegistroMetricas.temporizador("mapeo.catalogo")
+
+        // Reenvíos automáticos tras un 412 sin campos en conflicto (otros
+        // admins escribiendo a la vez); después queda pendiente
+        private const val MAXIMO_FUSIONES_AUTOMATICAS = 2
     }
 
-    /**
-     * Obtiene la lista de productos con estrategia API-first + fallback local
-     *
-     * Flujo de ejecución:
-     * 1. Realiza petición GET a la API
-     * 2. Si la respuesta es exitosa (código 2xx):
-     *    - Mapea ProductoDto a Producto
-     *    - Emite la lista al Flow
-     * 3. Si la API falla por cualquier motivo:
-     *    - Captura la excepción
-     *    - Obtiene datos de Room como fallback
-     *    - Emite la lista local
-     *
-     * Excepciones manejadas:
-     * - IOException: Problemas de red (sin internet, timeout)
-     * - UnknownHostException: No se puede resolver el host
-     * - Exception: Cualquier otro error inesperado
-     *
-     * @return Flow que emite lista de productos (de API o local)
-     */
-    override fun obtenerProductos(): Flow<List<Producto>> = flow {
-        try {
-            Log.d(TAG, "Intentando obtener productos desde API REST...")
+    // Última descarga exitosa del catálogo en este proceso (null: aún no)
+    @Volatile
+    private var catalogoSincronizadoEnMs: Long? = null
 
-            // Realizar petición HTTP GET a la API
-            val respuesta = apiService.obtenerTodosLosProductos()
+    // ID temporal (negativo) → ID que asignó el servidor. Room ya no tiene
+    // el temporal, pero la UI puede seguir usándolo (ej: el formulario de
+    // edición abierto mientras se confirmaba la creación)
+    private val idsDelServidor = ConcurrentHashMap<Int, Int>()
 
-            // Verificar si la respuesta fue exitosa (código 200-299)
-            if (respuesta.isSuccessful) {
-                val cuerpoRespuesta = respuesta.body()
+    // Ediciones en CONFLICTO esperando al admin, por ID
+    private val conflictos = MutableStateFlow<Map<Int, ConflictoEdicion>>(emptyMap())
 
-                if (cuerpoRespuesta != null) {
-                    // Mapear lista de DTOs a lista de modelos de dominio
-                    val listaProductos = cuerpoRespuesta.map { productoDto ->
-                        productoDto.aModelo()
-                    }
+    // Un solo envío a la vez: cambios del admin y reenvíos de pendientes
+    private val envios = Mutex()
 
-                    Log.d(TAG, "✓ Productos obtenidos de API exitosamente: ${listaProductos.size} items")
+    // false si el backend no tiene PATCH (ver llamarModificacion): se edita con PUT
+    @Volatile
+    private var patchDisponible = true
 
-                    // Opcional: Guardar en cache local para futuras consultas offline
-                    // Descomentar las siguientes líneas si quieres implementar cache
-                    // val entidades = listaProductos.map { it.toEntity() }
-                    // productoDao.eliminarTodosLosProductos()
-                    // productoDao.insertarProductos(entidades)
-                    // Log.d(TAG, "Cache local actualizado")
+    /**
+     * Catálogo observado desde Room
+     *
+     * No termina: emite la cache al suscribirse y otra vez cada vez que
+     * cambia la tabla (refrescos, altas, ediciones). La red nunca se
+     * consulta aquí; para eso está refrescarProductos()
+     *
+     * @return Flow con los productos de la cache local
+     */
+    override fun observarProductos(): Flow<List<Producto>> {
+        return productoDao.obtenerTodosLosProductos()
+            .map { entidades -> entidades.map { entidad -> entidad.toProducto() } }
+    }
 
-                    emit(listaProductos)
+    /**
+     * Descarga el catálogo y lo guarda en Room (canal lateral)
+     *
+     * Los productos no se devuelven: llegan a observarProductos() y
+     * obtenerResumenes() cuando Room confirma la escritura.
+     *
+     * Resultados posibles:
+     * - Exito(RED): catálogo liviano (?fields=, sin 'descripcion')
+     *   fusionado con Room; datos = cantidad de productos recibidos
+     * - Exito(CACHE): no se intentó la red (sin conexión o red medida)
+     *   pero hay cache que mostrar; datos = 0
+     * - Error: la API falló, o no hay red ni cache
+     *
+     * Cancelable: si la corrutina se cancela se cancela la llamada HTTP
+     * y la fusión (transacción) no se aplica a medias. Los reenvíos ya
+     * salidos terminan igual (ver enviando())
+     */
+    override suspend fun refrescarProductos(): ResultadoApi<Int> {
+        val hayCache = productoDao.contarProductos() > 0
 
-                } else {
-                    // Respuesta exitosa pero sin datos (edge case)
-                    Log.w(TAG, "⚠ Respuesta HTTP exitosa pero cuerpo vacío, usando datos locales")
-                    usarDatosLocales(this)
+        val red = monitorConectividad.estado.value
+        if (!red.conectado) {
+            registrador.d(TAG) { "Sin conexión, usando datos locales sin intentar la API" }
+            return if (hayCache) sinDescarga() else ResultadoApi.Error("Sin conexión a internet")
+        }
+        // Cambios del admin que no llegaron al servidor (son pequeños: también con red medida)
+        reenviarPendientes()
+        currentCoroutineContext().ensureActive()
+        if (!red.permiteDescargaGrande && hayCache) {
+            registrador.d(TAG) { "Red medida con cache disponible, se difiere la descarga del catálogo" }
+            return sinDescarga()
+        }
+
+        registrador.d(TAG) { "Intentando obtener productos desde API REST..." }
+        return when (val resultado = llamarApi(reloj) { apiService.obtenerCatalogoResumido() }) {
+            is ResultadoApi.Exito -> {
+                val resumenes = tiempoMapeoCatalogo.medir {
+                    resultado.datos.map { resumenDto -> resumenDto.aResumen() }
                 }
+                registrador.d(TAG) { "✓ Catálogo obtenido de API: ${resumenes.size} items en ${resultado.metadatos.latenciaMs} ms" }
+                // Guardar en cache local: alimenta la lista liviana (obtenerResumenes)
+                // y el modo offline. La descripción se completa en el detalle
+                productoDao.fusionarResumenes(resumenes)
+                catalogoSincronizadoEnMs = resultado.metadatos.marcaTiempoMs
 
-            } else {
-                // Error HTTP (4xx, 5xx)
-                Log.w(TAG, "⚠ Error HTTP ${respuesta.code()}: ${respuesta.message()}, usando datos locales")
-                usarDatosLocales(this)
+                resultado.mapear { resumenes.size }
             }
-
-        } catch (excepcion: UnknownHostException) {
-            // No se puede resolver el host (sin internet o URL incorrecta)
-            Log.e(TAG, "✗ Sin conexión a internet o host inválido, usando datos locales")
-            usarDatosLocales(this)
-
-        } catch (excepcion: IOException) {
-            // Error de red genérico (timeout, conexión cerrada, etc)
-            Log.e(TAG, "✗ Error de red: ${excepcion.message}, usando datos locales")
-            usarDatosLocales(this)
-
-        } catch (excepcion: Exception) {
-            // Cualquier otro error inesperado (parsing JSON, etc)
-            Log.e(TAG, "✗ Error inesperado: ${excepcion.javaClass.simpleName} - ${excepcion.message}")
-            Log.e(TAG, "Usando datos locales como fallback")
-            usarDatosLocales(this)
+            is ResultadoApi.Error -> {
+                registrador.w(TAG) { "⚠ ${resultado.mensajeError}, se mantienen los datos locales" }
+                resultado
+            }
+            is ResultadoApi.Cargando -> ResultadoApi.Cargando
         }
     }
 
+    private fun sinDescarga(): ResultadoApi<Int> =
+        ResultadoApi.Exito(0, MetadatosRespuesta.cache(catalogoSincronizadoEnMs))
+
     /**
-     * Función auxiliar para obtener datos desde la base de datos local
-     *
-     * Se usa como fallback cuando la API no está disponible.
-     * Evita duplicación de código en los múltiples catch blocks.
+     * Lista liviana para las tarjetas, siempre desde Room
      *
-     * @param flowCollector Colector del Flow para emitir los datos
+     * Solo lee las columnas que muestra la tarjeta; la descripción se
+     * carga en el detalle con obtenerProductoPorId()
      */
-    private suspend fun usarDatosLocales(
-        flowCollector: kotlinx.coroutines.flow.FlowCollector<List<Producto>>
-    ) {
-        productoDao.obtenerTodosLosProductos().collect { listaEntidades ->
-            val productosLocales = listaEntidades.map { entidad ->
-                entidad.toProducto()
-            }
-
-            if (productosLocales.isEmpty()) {
-                Log.w(TAG, "Base de datos local está vacía")
-            } else {
-                Log.d(TAG, "✓ Productos obtenidos de cache local: ${productosLocales.size} items")
-            }
-
-            flowCollector.emit(productosLocales)
-        }
+    override fun obtenerResumenes(): Flow<List<ProductoResumen>> {
+        return productoDao.obtenerResumenes()
     }
 
     /**
@@ -156,39 +221,62 @@ class ProductoRepositoryImpl(
      *
      * Estrategia:
      * 1. Intenta obtener de la API usando el endpoint GET /products/{id}
-     * 2. Si falla, busca en la base de datos local
+     *    y guarda la fila en cache (los observadores de observarProducto
+     *    reciben el cambio). Aquí se completa la descripción que la
+     *    lista del catálogo no descarga
+     * 2. Si falla o no hay red, busca en la base de datos local
+     *    (Exito con origen CACHE)
      *
      * @param id Identificador único del producto
-     * @return Producto encontrado o null si no existe
+     * @return Exito con el producto, o el Error de la API si tampoco
+     *   está en cache
      */
-    override suspend fun obtenerProductoPorId(id: Int): Producto? {
-        return try {
-            Log.d(TAG, "Buscando producto con ID: $id en API...")
-
-            val respuesta = apiService.obtenerProductoPorId(id)
-
-            if (respuesta.isSuccessful && respuesta.body() != null) {
-                val productoDto = respuesta.body()!!
-                val producto = productoDto.aModelo()
-
-                Log.d(TAG, "✓ Producto encontrado en API: ${producto.nombre}")
-                producto
+    override suspend fun obtenerProductoPorId(id: Int): ResultadoApi<Producto> {
+        if (!monitorConectividad.estado.value.conectado) {
+            return buscarEnCache(id, ResultadoApi.Error("Sin conexión a internet"))
+        }
 
-            } else {
-                // Producto no encontrado en API, buscar localmente
-                Log.w(TAG, "⚠ Producto no encontrado en API (HTTP ${respuesta.code()}), buscando localmente...")
-                val entidad = productoDao.obtenerProductoPorId(id)
-                entidad?.toProducto()
+        registrador.d(TAG) { "Buscando producto con ID: $id en API..." }
+        return when (val resultado = llamarApi(reloj) { apiService.obtenerProductoPorId(id) }) {
+            is ResultadoApi.Exito -> {
+                val local = productoDao.obtenerProductoPorId(id)
+                if (local != null && local.estadoSincronizacion.pendiente) {
+                    // El cambio local sin confirmar es más nuevo que la copia del servidor
+                    return ResultadoApi.Exito(local.toProducto(), MetadatosRespuesta.cache(null))
+                }
+                val producto = resultado.datos.aModelo()
+                productoDao.insertarProducto(producto.toEntity())
+                registrador.d(TAG) { "✓ Producto encontrado en API: ${producto.nombre}" }
+                resultado.mapear { producto }
             }
-
-        } catch (excepcion: Exception) {
-            // Error de red, buscar en base de datos local
-            Log.e(TAG, "✗ Error al buscar en API: ${excepcion.message}, buscando localmente...")
-            val entidad = productoDao.obtenerProductoPorId(id)
-            entidad?.toProducto()
+            is ResultadoApi.Error -> {
+                registrador.w(TAG) { "⚠ ${resultado.mensajeError}, buscando localmente..." }
+                buscarEnCache(id, resultado)
+            }
+            is ResultadoApi.Cargando -> ResultadoApi.Cargando
         }
     }
 
+    private suspend fun buscarEnCache(id: Int, siNoExiste: ResultadoApi.Error): ResultadoApi<Producto> {
+        val entidad = productoDao.obtenerProductoPorId(id) ?: return siNoExiste
+        return ResultadoApi.Exito(entidad.toProducto(), MetadatosRespuesta.cache(null))
+    }
+
+    /**
+     * Observa un producto en Room
+     *
+     * distinctUntilChanged: las escrituras a otras filas re-ejecutan la
+     * consulta (Room invalida por tabla), pero no vuelven a emitir
+     *
+     * @param id Identificador del producto
+     * @return Flow con el producto o null si no está en cache
+     */
+    override fun observarProducto(id: Int): Flow<Producto?> {
+        return productoDao.observarProductoPorId(id)
+            .distinctUntilChanged()
+            .map { entidad -> entidad?.toProducto() }
+    }
+
     /**
      * Inserta una lista de productos en la base de datos local
      *
@@ -200,116 +288,480 @@ class ProductoRepositoryImpl(
     override suspend fun insertarProductos(productos: List<Producto>) {
         val entidades = productos.map { it.toEntity() }
         productoDao.insertarProductos(entidades)
-        Log.d(TAG, "✓ ${productos.size} productos insertados en cache local")
+        registrador.d(TAG) { "✓ ${productos.size} productos insertados en cache local" }
     }
 
     /**
-     * Crea un nuevo producto tanto en la API como localmente
+     * Crea un producto (optimista)
      *
      * Estrategia:
-     * 1. Intenta crear el producto en la API (POST)
-     * 2. Si es exitoso, también lo guarda localmente
-     * 3. Si falla, solo lo guarda localmente
+     * 1. Lo guarda en Room con CREACION_PENDIENTE y un ID temporal
+     *    negativo: la lista del admin lo muestra al instante, sin esperar
+     *    a la API
+     * 2. POST a la API; el servidor responde el producto con SU ID, que
+     *    reemplaza al temporal en Room (producto y carrito) sin volver
+     *    a descargar el catálogo
+     * 3. Si el servidor lo rechaza (4xx), se borra la fila local
+     * 4. Sin red o con error transitorio queda pendiente y se reenvía en
+     *    el próximo refrescarProductos()
      *
-     * Nota: FakeStoreAPI simula la creación pero no persiste datos.
-     * Con JSON Server los datos sí se persisten realmente.
+     * @param producto Producto a crear (se ignora su ID)
+     * @return Ver RepositorioProductos (cambios optimistas)
+     */
+    override suspend fun insertarProducto(producto: Producto): ResultadoApi<Producto> = enviando {
+        val local = producto.copy(sincronizacion = EstadoSincronizacion.CREACION_PENDIENTE)
+        val idLocal = productoDao.insertarConIdTemporal(local.toEntity())
+        registrador.d(TAG) { "Producto ${producto.nombre} guardado localmente (ID $idLocal), enviando a la API..." }
+        enviarCreacion(local.copy(id = idLocal))
+    }
+
+    /**
+     * Ejecuta un cambio del admin con el envío a la API tomado
      *
-     * @param producto Producto a crear
-     * @return ID del producto insertado localmente
+     * - Espera a que termine el envío en curso (otro cambio o un reenvío):
+     *   así ve el estado que dejó en Room y resolverId() ya conoce el ID
+     *   del servidor si era una creación
+     * - NonCancellable: una vez tomado, el cambio se envía y su respuesta
+     *   se aplica aunque se cancele el scope que lo pidió (ej: el admin
+     *   sale de la pantalla). Lo acota el callTimeout del cliente
      */
-    override suspend fun insertarProducto(producto: Producto): Long {
-        return try {
-            Log.d(TAG, "Creando producto: ${producto.nombre} en API...")
+    private suspend fun <T> enviando(cambio: suspend () -> ResultadoApi<T>): ResultadoApi<T> =
+        envios.withLock { withContext(NonCancellable) { cambio() } }
+
+    private suspend fun enviarCreacion(local: Producto): ResultadoApi<Producto> {
+        if (!monitorConectividad.estado.value.conectado) return quedaPendiente(local)
+
+        // El ID local no se envía: lo asigna el servidor
+        val resultado = llamarApi(reloj) { apiService.agregarProducto(local.aDto().copy(identificador = 0)) }
+        return when {
+            resultado is ResultadoApi.Exito -> {
+                val servidor = resultado.datos.aModelo()
+                productoDao.reemplazarId(local.id, servidor.toEntity())
+                idsDelServidor[local.id] = servidor.id
+                registrador.d(TAG) { "✓ Producto creado en API con ID ${servidor.id} (local ${local.id})" }
+                resultado.mapear { servidor }
+            }
+            resultado is ResultadoApi.Error && resultado.esExitoSinCuerpo -> {
+                registrador.w(TAG) { "⚠ La API creó el producto sin devolverlo, se conserva el ID local ${local.id}" }
+                confirmarSinCuerpo(local, resultado)
+            }
+            resultado is ResultadoApi.Error && resultado.esRechazoDefinitivo -> {
+                productoDao.eliminarPorId(local.id)
+                registrador.w(TAG) { "✗ La API rechazó el producto (HTTP ${resultado.codigoHttp}), se deshace la creación" }
+                resultado
+            }
+            else -> quedaPendiente(local)
+        }
+    }
 
-            // Convertir modelo de dominio a DTO para enviar a API
-            val productoDto = producto.aDto()
-            val respuesta = apiService.agregarProducto(productoDto)
+    /**
+     * Actualiza un producto (optimista)
+     *
+     * Estrategia:
+     * 1. Compara con el original (lo que vio el admin) y escribe en Room
+     *    solo los campos que cambiaron, con ACTUALIZACION_PENDIENTE y la
+     *    lista de campos por enviar (se suman a los de un cambio anterior
+     *    aún pendiente)
+     * 2. PATCH a la API con esos campos (PUT completo si no se sabe qué
+     *    cambió); la respuesta del servidor queda como versión final
+     * 3. Si el servidor lo rechaza (4xx), se restaura la fila anterior
+     * 4. Sin red o con error transitorio queda pendiente
+     *
+     * Un producto que aún no llegó al servidor sigue pendiente de
+     * creación: se envía un POST con los datos nuevos.
+     *
+     * @param producto Producto con datos actualizados (con ID temporal
+     *   o del servidor)
+     * @param original Producto antes de editar (null: la fila de Room)
+     * @return Ver RepositorioProductos (cambios optimistas)
+     */
+    override suspend fun actualizarProducto(producto: Producto, original: Producto?): ResultadoApi<Producto> = enviando {
+        val id = resolverId(producto.id)
+        actualizarConId(producto.copy(id = id), original?.copy(id = id))
+    }
 
-            if (respuesta.isSuccessful) {
-                Log.d(TAG, "✓ Producto creado exitosamente en API")
+    private suspend fun actualizarConId(producto: Producto, original: Producto?): ResultadoApi<Producto> {
+        val anterior = productoDao.obtenerProductoPorId(producto.id)
+        if (anterior?.estadoSincronizacion == EstadoSincronizacion.CREACION_PENDIENTE) {
+            val local = producto.copy(sincronizacion = EstadoSincronizacion.CREACION_PENDIENTE)
+            productoDao.actualizarProducto(local.toEntity())
+            return enviarCreacion(local)
+        }
 
-                // Guardar también en base de datos local
-                val idLocal = productoDao.insertarProducto(producto.toEntity())
-                Log.d(TAG, "✓ Producto guardado en cache local con ID: $idLocal")
-                idLocal
+        // Lo que vio el admin: base del diff, del If-Match y de la fusión. Con
+        // un cambio anterior aún sin enviar la base del servidor no se conoce,
+        // y se envían los campos de ambos cambios (null: no se sabe, va completo)
+        val enCola = anterior?.takeIf { it.estadoSincronizacion.pendiente }
+        val base = if (enCola != null) null else original ?: anterior?.toProducto()
+        val cambiados = (original ?: anterior?.toProducto())?.let { producto.camposDistintos(it) }
+        if (cambiados?.isEmpty() == true) {
+            return ResultadoApi.Exito(anterior?.toProducto() ?: producto, MetadatosRespuesta.cache(null))
+        }
+        val campos = if (enCola != null) cambiados?.let { enCola.camposEditados?.plus(it) } else cambiados
+
+        // Solo los campos editados sobre la fila actual: un valor viejo del
+        // formulario no pisa lo que trajo un refresco mientras se editaba
+        val editado = if (anterior != null && cambiados != null) {
+            cambiados.fold(anterior.toProducto()) { fila, campo -> campo.copiar(producto, fila) }
+        } else {
+            producto
+        }
+        val local = editado.copy(
+            sincronizacion = EstadoSincronizacion.ACTUALIZACION_PENDIENTE,
+            version = base?.version ?: producto.version ?: anterior?.version,
+            actualizadoEn = base?.actualizadoEn ?: producto.actualizadoEn ?: anterior?.actualizadoEn
+        )
+        guardarEdicion(local, cambiados, campos)
+        registrador.d(TAG) { "Producto ID ${producto.id} actualizado localmente (${campos ?: "todo"}), enviando a la API..." }
+        return enviarActualizacion(local, anterior, base, campos)
+    }
 
-            } else {
-                // Error en API, guardar solo localmente
-                Log.w(TAG, "⚠ Error al crear en API (HTTP ${respuesta.code()}), guardando solo localmente")
-                productoDao.insertarProducto(producto.toEntity())
+    /**
+     * Escribe la edición en Room; solo stock o solo precio van con un
+     * UPDATE de esa columna (ver ProductoDao.actualizarStock)
+     *
+     * @param cambiados Campos que cambian en esta edición
+     * @param pendientes Campos por enviar, guardados con la fila para que
+     *   el reenvío también vaya por PATCH (null: desconocidos)
+     */
+    private suspend fun guardarEdicion(
+        local: Producto,
+        cambiados: Set<CampoProducto>?,
+        pendientes: Set<CampoProducto>?
+    ) {
+        val columna = pendientes?.comoColumna()
+        when (cambiados) {
+            setOf(CampoProducto.STOCK) -> productoDao.actualizarStock(local.id, local.stock, local.sincronizacion, columna)
+            setOf(CampoProducto.PRECIO) -> productoDao.actualizarPrecio(local.id, local.precio, local.sincronizacion, columna)
+            else -> productoDao.actualizarProducto(local.toEntity(pendientes))
+        }
+    }
+
+    /**
+     * @param anterior Fila antes del cambio, para deshacerlo; null al
+     *   reenviar un pendiente (se restaura la copia del servidor)
+     * @param base Versión sobre la que editó el admin, para fusionar tras
+     *   un 412 (null: desconocida)
+     * @param campos Campos que cambió el admin: van por PATCH (null: PUT,
+     *   ver llamarPut)
+     * @param fusionesRestantes Reenvíos automáticos que quedan tras un 412
+     */
+    private suspend fun enviarActualizacion(
+        local: Producto,
+        anterior: ProductoEntity?,
+        base: Producto?,
+        campos: Set<CampoProducto>?,
+        fusionesRestantes: Int = MAXIMO_FUSIONES_AUTOMATICAS
+    ): ResultadoApi<Producto> {
+        if (!monitorConectividad.estado.value.conectado) return quedaPendiente(local)
+
+        val resultado = llamarModificacion(local, campos)
+        return when {
+            resultado is ResultadoApi.Exito -> {
+                val servidor = resultado.datos.aModelo()
+                if (servidor.camposDistintos(local).isEmpty()) {
+                    // Nadie más cambió nada: la fila ya está, solo falta la versión
+                    productoDao.confirmarVersion(local.id, servidor.version, servidor.actualizadoEn)
+                } else {
+                    productoDao.actualizarProducto(servidor.toEntity())
+                }
+                conflictos.update { it - local.id }
+                registrador.d(TAG) { "✓ Producto ID ${local.id} actualizado en API" }
+                resultado.mapear { servidor }
             }
+            resultado is ResultadoApi.Error && resultado.esExitoSinCuerpo -> confirmarSinCuerpo(local, resultado)
+            resultado is ResultadoApi.Error && resultado.esConflictoDeVersion ->
+                fusionarConServidor(local, base, resultado, fusionesRestantes)
+            resultado is ResultadoApi.Error && resultado.esRechazoDefinitivo -> {
+                registrador.w(TAG) { "✗ La API rechazó el cambio (HTTP ${resultado.codigoHttp}), se deshace" }
+                if (anterior != null && !anterior.estadoSincronizacion.pendiente) {
+                    productoDao.actualizarProducto(anterior)
+                } else {
+                    restaurarDesdeServidor(local.id)
+                }
+                resultado
+            }
+            else -> quedaPendiente(local)
+        }
+    }
 
-        } catch (excepcion: Exception) {
-            // Error de red, guardar solo localmente
-            Log.e(TAG, "✗ Error de red al crear producto: ${excepcion.message}")
-            Log.d(TAG, "Guardando producto solo en cache local")
-            productoDao.insertarProducto(producto.toEntity())
+    /**
+     * PATCH con los campos cambiados, o PUT con el producto completo
+     *
+     * Si el backend no acepta PATCH se reintenta con PUT y el resto del
+     * proceso usa PUT directamente:
+     * - 405/501: el backend lo dice
+     * - 404: Express responde así a una ruta sin handler, pero también a
+     *   un producto borrado. Decide el PUT: si encuentra el producto, lo
+     *   que faltaba era la ruta PATCH; si también da 404, el producto ya
+     *   no existe y PATCH sigue en uso
+     */
+    private suspend fun llamarModificacion(local: Producto, campos: Set<CampoProducto>?): ResultadoApi<ProductoDto> {
+        val siCoincide = local.version?.let { "\"$it\"" }
+        if (campos == null || !patchDisponible) return llamarPut(local, campos, siCoincide)
+
+        val parcial = llamarApi(reloj) { apiService.modificarCampos(local.id, local.aCambiosDto(campos), siCoincide) }
+        val codigo = (parcial as? ResultadoApi.Error)?.codigoHttp
+        if (codigo != 404 && codigo != 405 && codigo != 501) return parcial
+
+        val completo = llamarPut(local, campos, siCoincide)
+        if (codigo != 404 || (completo as? ResultadoApi.Error)?.codigoHttp != 404) {
+            registrador.w(TAG) { "⚠ La API no acepta PATCH (HTTP $codigo), se usa PUT" }
+            patchDisponible = false
         }
+        return completo
     }
 
     /**
-     * Actualiza un producto existente en API y localmente
+     * PUT con el producto completo
      *
-     * Estrategia:
-     * 1. Intenta actualizar en la API (PUT)
-     * 2. Actualiza en base de datos local independientemente del resultado API
+     * Una fila que llegó solo en el catálogo no tiene la descripción
+     * (ver toEntitySinDescripcion): enviarla tal cual borraría la del
+     * servidor. Antes se pide la copia del servidor y se envía esa con
+     * los campos del admin; sin campos conocidos se completa solo la
+     * descripción que falta
+     */
+    private suspend fun llamarPut(
+        local: Producto,
+        campos: Set<CampoProducto>?,
+        siCoincide: String?
+    ): ResultadoApi<ProductoDto> {
+        val completo = if (local.descripcion.isNotEmpty()) {
+            local
+        } else {
+            val servidor = when (val actual = llamarApi(reloj) { apiService.obtenerProductoPorId(local.id) }) {
+                is ResultadoApi.Exito -> actual.datos.aModelo().copy(version = local.version)
+                else -> return actual
+            }
+            campos?.fold(servidor) { producto, campo -> campo.copiar(local, producto) }
+                ?: local.copy(descripcion = servidor.descripcion)
+        }
+        return llamarApi(reloj) { apiService.modificarProducto(local.id, completo.aDto(), siCoincide) }
+    }
+
+    /**
+     * 412: otro admin cambió el producto después de la versión editada
      *
-     * @param producto Producto con datos actualizados
+     * Se pide la versión actual y se fusiona campo por campo
+     * (ConflictoEdicion.fusionar):
+     * - Sin campos en conflicto: se reenvía la fusión con If-Match de la
+     *   versión nueva, sin molestar al admin
+     * - Con campos en conflicto: la fila queda CONFLICTO (con los valores
+     *   del admin) y el conflicto espera en observarConflictos()
+     *
+     * La fusión del catálogo no trae 'version': una fila refrescada puede
+     * tener valores nuevos con versión vieja. El 412 resultante termina
+     * aquí y se fusiona sin conflicto (el servidor coincide con la base).
      */
-    override suspend fun actualizarProducto(producto: Producto) {
-        try {
-            Log.d(TAG, "Actualizando producto ID: ${producto.id} - ${producto.nombre}")
+    private suspend fun fusionarConServidor(
+        local: Producto,
+        base: Producto?,
+        rechazo: ResultadoApi.Error,
+        fusionesRestantes: Int
+    ): ResultadoApi<Producto> {
+        val servidor = when (val actual = llamarApi(reloj) { apiService.obtenerProductoPorId(local.id) }) {
+            is ResultadoApi.Exito -> actual.datos.aModelo()
+            // Sin la versión actual no hay con qué fusionar: se reintenta al refrescar
+            else -> return quedaPendiente(local)
+        }
+        val fusion = ConflictoEdicion.fusionar(base, local, servidor)
+
+        if (fusion.campos.isEmpty()) {
+            val porEnviar = fusion.local.camposDistintos(servidor)
+            if (porEnviar.isEmpty()) {
+                // El otro admin dejó los mismos valores: no hay nada que enviar
+                productoDao.actualizarProducto(servidor.toEntity())
+                conflictos.update { it - local.id }
+                return ResultadoApi.Exito(servidor, MetadatosRespuesta(OrigenDatos.RED, reloj()))
+            }
+            productoDao.actualizarProducto(fusion.local.toEntity(porEnviar))
+            if (fusionesRestantes == 0) return quedaPendiente(fusion.local)
+            registrador.d(TAG) { "Producto ID ${local.id} cambió en el servidor sin chocar, se reenvía fusionado" }
+            return enviarActualizacion(fusion.local, servidor.toEntity(), servidor, porEnviar, fusionesRestantes - 1)
+        }
 
-            // Enviar actualización a la API
-            val productoDto = producto.aDto()
-            val respuesta = apiService.modificarProducto(producto.id, productoDto)
+        val enConflicto = fusion.local.copy(sincronizacion = EstadoSincronizacion.CONFLICTO)
+        productoDao.actualizarProducto(enConflicto.toEntity(enConflicto.camposDistintos(servidor)))
+        conflictos.update { it + (local.id to fusion.copy(local = enConflicto)) }
+        val campos = fusion.campos.joinToString { it.etiqueta.lowercase() }
+        registrador.w(TAG) { "✗ Producto ID ${local.id}: otro admin cambió $campos, espera decisión" }
+        return ResultadoApi.Error(
+            mensajeError = "Otro administrador cambió $campos",
+            codigoHttp = rechazo.codigoHttp,
+            latenciaMs = rechazo.latenciaMs
+        )
+    }
 
-            if (respuesta.isSuccessful) {
-                Log.d(TAG, "✓ Producto actualizado exitosamente en API")
-            } else {
-                Log.w(TAG, "⚠ Error al actualizar en API (HTTP ${respuesta.code()})")
-            }
+    override fun observarConflictos(): Flow<List<ConflictoEdicion>> {
+        return conflictos.map { it.values.toList() }
+    }
 
-        } catch (excepcion: Exception) {
-            Log.e(TAG, "✗ Error al actualizar en API: ${excepcion.message}")
-        } finally {
-            // SIEMPRE actualizar en cache local (aunque falle API)
-            productoDao.actualizarProducto(producto.toEntity())
-            Log.d(TAG, "✓ Producto actualizado en cache local")
+    /**
+     * Cierra un conflicto con la versión que eligió el admin
+     *
+     * - Igual a la del servidor: se descarta el cambio propio, sin llamar
+     *   a la API
+     * - Otra: se envía sobre la versión del servidor del conflicto (si
+     *   cambió de nuevo, vuelve a fusionarse o a quedar en conflicto)
+     */
+    override suspend fun resolverConflicto(conflicto: ConflictoEdicion, elegido: Producto): ResultadoApi<Producto> = enviando {
+        conflictos.update { it - conflicto.id }
+        val servidor = conflicto.servidor
+        if (elegido.camposDistintos(servidor).isEmpty()) {
+            productoDao.actualizarProducto(servidor.toEntity())
+            registrador.d(TAG) { "Conflicto en producto ID ${servidor.id}: se usa la versión del servidor" }
+            return@enviando ResultadoApi.Exito(servidor, MetadatosRespuesta(OrigenDatos.RED, reloj()))
         }
+
+        val local = elegido.copy(
+            id = servidor.id,
+            version = servidor.version,
+            actualizadoEn = servidor.actualizadoEn,
+            sincronizacion = EstadoSincronizacion.ACTUALIZACION_PENDIENTE
+        )
+        val campos = local.camposDistintos(servidor)
+        productoDao.actualizarProducto(local.toEntity(campos))
+        enviarActualizacion(local, servidor.toEntity(), servidor, campos)
     }
 
     /**
-     * Elimina un producto de API y base de datos local
+     * Elimina un producto (optimista)
      *
      * Estrategia:
-     * 1. Intenta eliminar de la API (DELETE)
-     * 2. Elimina de base de datos local independientemente del resultado API
+     * 1. Lo marca ELIMINACION_PENDIENTE: desaparece de las listas al instante
+     * 2. DELETE a la API; al confirmarse (o si ya no existía, 404) se
+     *    borra la fila
+     * 3. Si el servidor lo rechaza (4xx), vuelve a mostrarse
+     * 4. Sin red o con error transitorio queda oculto y pendiente
      *
-     * @param producto Producto a eliminar
+     * Un producto que nunca llegó al servidor se borra sin llamar a la API.
+     *
+     * @param producto Producto a eliminar (con ID temporal o del servidor)
+     * @return Ver RepositorioProductos (cambios optimistas)
      */
-    override suspend fun eliminarProducto(producto: Producto) {
-        try {
-            Log.d(TAG, "Eliminando producto ID: ${producto.id} - ${producto.nombre}")
+    override suspend fun eliminarProducto(producto: Producto): ResultadoApi<Unit> = enviando {
+        val id = resolverId(producto.id)
+        val anterior = productoDao.obtenerProductoPorId(id)
+            ?: return@enviando ResultadoApi.Exito(Unit, MetadatosRespuesta.cache(null))
+        if (anterior.estadoSincronizacion == EstadoSincronizacion.CREACION_PENDIENTE) {
+            productoDao.eliminarPorId(id)
+            return@enviando ResultadoApi.Exito(Unit, MetadatosRespuesta.cache(null))
+        }
 
-            // Enviar solicitud de eliminación a la API
-            val respuesta = apiService.borrarProducto(producto.id)
+        productoDao.marcarEstado(id, EstadoSincronizacion.ELIMINACION_PENDIENTE)
+        registrador.d(TAG) { "Producto ID $id oculto localmente, enviando DELETE a la API..." }
+        enviarEliminacion(id, anterior.estadoSincronizacion)
+    }
 
-            if (respuesta.isSuccessful) {
-                Log.d(TAG, "✓ Producto eliminado exitosamente de API")
-            } else {
-                Log.w(TAG, "⚠ Error al eliminar de API (HTTP ${respuesta.code()})")
+    /**
+     * ID vigente: el del servidor si la creación ya se confirmó
+     */
+    private fun resolverId(id: Int): Int = idsDelServidor[id] ?: id
+
+    /**
+     * @param estadoAnterior Estado a restaurar si el servidor rechaza el DELETE
+     */
+    private suspend fun enviarEliminacion(id: Int, estadoAnterior: EstadoSincronizacion): ResultadoApi<Unit> {
+        if (!monitorConectividad.estado.value.conectado) return quedaPendiente(Unit)
+
+        val resultado = llamarApi(reloj) { apiService.borrarProducto(id) }
+        // 204 llega como Error sin cuerpo; 404: otro admin ya lo eliminó
+        val confirmado = resultado is ResultadoApi.Exito ||
+                (resultado is ResultadoApi.Error && (resultado.esExitoSinCuerpo || resultado.codigoHttp == 404))
+        return when {
+            confirmado -> {
+                productoDao.eliminarPorId(id)
+                registrador.d(TAG) { "✓ Producto ID $id eliminado de API" }
+                ResultadoApi.Exito(Unit, MetadatosRespuesta(OrigenDatos.RED, reloj()))
             }
+            resultado is ResultadoApi.Error && resultado.esRechazoDefinitivo -> {
+                productoDao.marcarEstado(id, estadoAnterior)
+                registrador.w(TAG) { "✗ La API rechazó la eliminación (HTTP ${resultado.codigoHttp}), se deshace" }
+                resultado
+            }
+            else -> quedaPendiente(Unit)
+        }
+    }
 
-        } catch (excepcion: Exception) {
-            Log.e(TAG, "✗ Error al eliminar de API: ${excepcion.message}")
+    /**
+     * Reenvía los cambios que quedaron pendientes (sin red o error transitorio)
+     *
+     * Se llama al refrescar, antes de descargar el catálogo: así la
+     * fusión ya ve las confirmaciones del servidor. Las ediciones van por
+     * PATCH con los campos guardados en la fila (ver camposEditados).
+     *
+     * Si hay un cambio del admin en curso no se reenvía nada: su fila
+     * aún figura pendiente y reenviarla duplicaría el POST (o chocaría
+     * con su If-Match). Lo que quede pendiente sale en el próximo refresco.
+     *
+     * @return Cantidad de cambios que el servidor confirmó o rechazó
+     */
+    private suspend fun reenviarPendientes(): Int {
+        if (!envios.tryLock()) {
+            registrador.d(TAG) { "Hay un envío en curso, los pendientes esperan al próximo refresco" }
+            return 0
+        }
+        try {
+            return withContext(NonCancellable) { reenviarPendientesConEnvioTomado() }
         } finally {
-            // SIEMPRE eliminar de cache local (aunque falle API)
-            productoDao.eliminarProducto(producto.toEntity())
-            Log.d(TAG, "✓ Producto eliminado de cache local")
+            envios.unlock()
+        }
+    }
+
+    private suspend fun reenviarPendientesConEnvioTomado(): Int {
+        val pendientes = productoDao.obtenerPendientes()
+        if (pendientes.isEmpty()) return 0
+        registrador.d(TAG) { "Reenviando ${pendientes.size} cambios pendientes..." }
+
+        return pendientes.count { entidad ->
+            val resultado = when (entidad.estadoSincronizacion) {
+                EstadoSincronizacion.CREACION_PENDIENTE -> enviarCreacion(entidad.toProducto())
+                EstadoSincronizacion.ACTUALIZACION_PENDIENTE ->
+                    enviarActualizacion(entidad.toProducto(), anterior = null, base = null, campos = entidad.camposEditados)
+                EstadoSincronizacion.ELIMINACION_PENDIENTE ->
+                    enviarEliminacion(entidad.id, EstadoSincronizacion.SINCRONIZADO)
+                // Ya espera al admin; si la app se reinició, el reenvío lo vuelve a detectar
+                EstadoSincronizacion.CONFLICTO ->
+                    if (entidad.id in conflictos.value) null
+                    else enviarActualizacion(entidad.toProducto(), anterior = null, base = null, campos = entidad.camposEditados)
+                EstadoSincronizacion.SINCRONIZADO -> null
+            }
+            resultado != null && !resultado.esDeCache()
+        }
+    }
+
+    /**
+     * El servidor aceptó el cambio pero no devolvió el producto (ej: 204)
+     */
+    private suspend fun confirmarSinCuerpo(local: Producto, resultado: ResultadoApi.Error): ResultadoApi<Producto> {
+        productoDao.marcarEstado(local.id, EstadoSincronizacion.SINCRONIZADO)
+        val confirmado = local.copy(sincronizacion = EstadoSincronizacion.SINCRONIZADO)
+        return ResultadoApi.Exito(confirmado, MetadatosRespuesta(OrigenDatos.RED, reloj(), resultado.codigoHttp, resultado.latenciaMs))
+    }
+
+    /**
+     * Deshace un cambio reenviado (sin copia anterior): vuelve a la
+     * versión del servidor, o borra la fila si el servidor ya no la tiene
+     */
+    private suspend fun restaurarDesdeServidor(id: Int) {
+        when (val resultado = llamarApi(reloj) { apiService.obtenerProductoPorId(id) }) {
+            is ResultadoApi.Exito -> productoDao.insertarProducto(resultado.datos.aModelo().toEntity())
+            is ResultadoApi.Error ->
+                if (resultado.codigoHttp == 404) {
+                    productoDao.eliminarPorId(id)
+                } else {
+                    // Sin copia del servidor: se deja la local; el próximo refresco corrige el resumen
+                    productoDao.marcarEstado(id, EstadoSincronizacion.SINCRONIZADO)
+                }
+            is ResultadoApi.Cargando -> Unit
         }
     }
 
+    private fun <T> quedaPendiente(datos: T): ResultadoApi<T> {
+        registrador.w(TAG) { "⚠ Cambio guardado solo localmente, se reenviará al refrescar" }
+        return ResultadoApi.Exito(datos, MetadatosRespuesta.cache(null))
+    }
+
     /**
      * Elimina todos los productos de la base de datos local
      *
@@ -318,6 +770,6 @@ class ProductoRepositoryImpl(
      */
     override suspend fun eliminarTodosLosProductos() {
         productoDao.eliminarTodosLosProductos()
-        Log.d(TAG, "✓ Todos los productos eliminados de cache local")
+        registrador.d(TAG) { "✓ Todos los productos eliminados de cache local" }
     }
 }
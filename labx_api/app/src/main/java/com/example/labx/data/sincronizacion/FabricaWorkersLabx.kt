@@ -0,0 +1,39 @@
+package com.example.labx.data.sincronizacion
+
+import android.content.Context
+import androidx.work.ListenableWorker
+import androidx.work.WorkerFactory
+import androidx.work.WorkerParameters
+import com.example.labx.domain.repository.RepositorioProductos
+
+/**
+ * FabricaWorkersLabx: Crea los workers que necesitan dependencias
+ *
+ * WorkManager crea los workers por reflexión (constructor con Context y
+ * WorkerParameters); los que reciben el repositorio se crean aquí.
+ * La registra LabxApplication en su Configuration de WorkManager; los
+ * tests la registran con un repositorio contra MockWebServer.
+ *
+ * @param repositorio Se pide recién al crear el worker (no al arrancar la app)
+ * @param precargador Precargador de imágenes para el contexto de la app
+ */
+class FabricaWorkersLabx(
+    private val repositorio: () -> RepositorioProductos,
+    private val precargador: (Context) -> PrecargadorImagenes
+) : WorkerFactory() {
+
+    override fun createWorker(
+        appContext: Context,
+        workerClassName: String,
+        workerParameters: WorkerParameters
+    ): ListenableWorker? = when (workerClassName) {
+        SincronizacionCatalogoWorker::class.java.name -> SincronizacionCatalogoWorker(
+            contexto = appContext,
+            parametros = workerParameters,
+            repositorio = repositorio(),
+            precargador = precargador(appContext)
+        )
+        // null: WorkManager usa su fábrica por defecto
+        else -> null
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.labx.data.sincronizacion
+
+import android.content.Context
+import coil.imageLoader
+import coil.request.CachePolicy
+import coil.request.ImageRequest
+import coil.request.SuccessResult
+
+/**
+ * Descarga imágenes a la cache de disco antes de que la UI las pida
+ *
+ * Implementaciones:
+ * - PrecargadorImagenesCoil: el ImageLoader de la app (LabxApplication)
+ * - Uno falso que solo anota las URLs (tests del worker)
+ */
+interface PrecargadorImagenes {
+
+    /**
+     * @return Cantidad de imágenes que quedaron en la cache
+     */
+    suspend fun precargar(urls: List<String>): Int
+}
+
+/**
+ * Precarga con Coil, con la misma regla que ProductoCard: un nombre que
+ * es un drawable del APK no se descarga
+ *
+ * Las imágenes se decodifican al tamaño de la miniatura (80 dp) y no se
+ * guardan en la cache de memoria: lo que importa es la copia en disco,
+ * que sobrevive al cierre del proceso.
+ */
+class PrecargadorImagenesCoil(
+    private val contexto: Context
+) : PrecargadorImagenes {
+
+    private val ladoPx = (LADO_MINIATURA_DP * contexto.resources.displayMetrics.density).toInt()
+
+    override suspend fun precargar(urls: List<String>): Int {
+        // Una a la vez: es trabajo de fondo, no compite con la UI por conexiones
+        return urls.filterNot { esRecursoLocal(it) }.count { url ->
+            val solicitud = ImageRequest.Builder(contexto)
+                .data(url)
+                .size(ladoPx)
+                .memoryCachePolicy(CachePolicy.DISABLED)
+                .build()
+            contexto.imageLoader.execute(solicitud) is SuccessResult
+        }
+    }
+
+    private fun esRecursoLocal(nombre: String): Boolean {
+        return contexto.resources.getIdentifier(nombre, "drawable", contexto.packageName) != 0
+    }
+
+    private companion object {
+        // Tamaño de la imagen en ProductoCard
+        const val LADO_MINIATURA_DP = 80
+    }
+}
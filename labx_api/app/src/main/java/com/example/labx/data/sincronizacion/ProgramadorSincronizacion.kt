@@ -0,0 +1,52 @@
+package com.example.labx.data.sincronizacion
+
+import android.content.Context
+import androidx.work.Constraints
+import androidx.work.ExistingPeriodicWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.Operation
+import androidx.work.PeriodicWorkRequest
+import androidx.work.PeriodicWorkRequestBuilder
+import androidx.work.WorkManager
+import java.util.concurrent.TimeUnit
+
+/**
+ * ProgramadorSincronizacion: Agenda la sincronización periódica del catálogo
+ *
+ * Solo corre con red no medida y el teléfono cargando: descargar el
+ * catálogo y sus imágenes no gasta datos móviles ni batería.
+ *
+ * Se llama en cada arranque (LabxApplication.onCreate); como el trabajo
+ * es único, no se duplica ni se reinicia su período.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+object ProgramadorSincronizacion {
+
+    const val NOMBRE_TRABAJO = "sincronizacion_catalogo"
+
+    const val INTERVALO_HORAS = 6L
+
+    val RESTRICCIONES: Constraints = Constraints.Builder()
+        .setRequiredNetworkType(NetworkType.UNMETERED)
+        .setRequiresCharging(true)
+        .build()
+
+    fun crearSolicitud(): PeriodicWorkRequest {
+        return PeriodicWorkRequestBuilder<SincronizacionCatalogoWorker>(INTERVALO_HORAS, TimeUnit.HOURS)
+            .setConstraints(RESTRICCIONES)
+            .build()
+    }
+
+    /**
+     * Agenda el trabajo si no existe; si existe, actualiza su definición
+     * (ej: nuevas restricciones tras actualizar la app) sin mover el período
+     */
+    fun programar(contexto: Context): Operation {
+        return WorkManager.getInstance(contexto).enqueueUniquePeriodicWork(
+            NOMBRE_TRABAJO,
+            ExistingPeriodicWorkPolicy.UPDATE,
+            crearSolicitud()
+        )
+    }
+}
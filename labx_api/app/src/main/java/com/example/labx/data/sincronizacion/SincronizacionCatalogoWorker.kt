@@ -0,0 +1,97 @@
+package com.example.labx.data.sincronizacion
+
+import android.content.Context
+import androidx.work.CoroutineWorker
+import androidx.work.WorkerParameters
+import androidx.work.workDataOf
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.domain.repository.RepositorioProductos
+import com.example.labx.metricas.RegistroMetricas
+import kotlinx.coroutines.flow.first
+
+/**
+ * SincronizacionCatalogoWorker: Refresca el catálogo en segundo plano
+ *
+ * Pasos:
+ * 1. repositorio.refrescarProductos(): el mismo camino que el
+ *    pull-to-refresh (API → fusión en Room)
+ * 2. Precarga las miniaturas de los primeros productos de la lista
+ *    en la cache de disco de Coil
+ *
+ * Así, al abrir la app en frío, Room y las imágenes ya están al día y
+ * HomeScreen no espera a api/productos. Lo programa
+ * ProgramadorSincronizacion (red no medida y cargando).
+ *
+ * Métricas (RegistroMetricas, prefijo "sincronizacion."):
+ * - catalogo / miniaturas / total: duración de cada paso
+ * - exitosas / fallidas: sincronizaciones terminadas
+ * - miniaturas_precargadas: imágenes que quedaron en la cache
+ *
+ * Se crea con FabricaWorkersLabx (necesita el repositorio).
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+class SincronizacionCatalogoWorker(
+    contexto: Context,
+    parametros: WorkerParameters,
+    private val repositorio: RepositorioProductos,
+    private val precargador: PrecargadorImagenes
+) : CoroutineWorker(contexto, parametros) {
+
+    companion object {
+        /**
+         * Miniaturas a precargar: lo que cabe en las primeras pantallas de la lista
+         */
+        const val CANTIDAD_MINIATURAS = 20
+
+        /**
+         * Reintentos con backoff ante errores de red o 5xx; después se
+         * espera al siguiente período
+         */
+        const val MAXIMO_REINTENTOS = 3
+
+        // Datos de salida
+        const val CLAVE_PRODUCTOS = "productos"
+        const val CLAVE_MINIATURAS = "miniaturas"
+
+        private val tiempoCatalogo = RegistroMetricas.temporizador("sincronizacion.catalogo")
+        private val tiempoMiniaturas = RegistroMetricas.temporizador("sincronizacion.miniaturas")
+        private val tiempoTotal = RegistroMetricas.temporizador("sincronizacion.total")
+        private val exitosas = RegistroMetricas.contador("sincronizacion.exitosas")
+        private val fallidas = RegistroMetricas.contador("sincronizacion.fallidas")
+        private val miniaturasPrecargadas = RegistroMetricas.contador("sincronizacion.miniaturas_precargadas")
+    }
+
+    override suspend fun doWork(): Result = tiempoTotal.medir {
+        when (val resultado = tiempoCatalogo.medir { repositorio.refrescarProductos() }) {
+            is ResultadoApi.Exito -> {
+                exitosas.incrementar()
+                // Sin descarga (la red cambió a medida o se cortó): nada nuevo que precargar
+                val miniaturas = if (resultado.metadatos.origen == OrigenDatos.RED) precargarMiniaturas() else 0
+                Result.success(
+                    workDataOf(CLAVE_PRODUCTOS to resultado.datos, CLAVE_MINIATURAS to miniaturas)
+                )
+            }
+            is ResultadoApi.Error -> {
+                fallidas.incrementar()
+                // 4xx no se arregla reintentando
+                val esDefinitivo = resultado.codigoHttp in 400..499
+                if (esDefinitivo || runAttemptCount >= MAXIMO_REINTENTOS) Result.failure() else Result.retry()
+            }
+            is ResultadoApi.Cargando -> Result.retry()
+        }
+    }
+
+    /**
+     * Precarga las imágenes de los primeros productos en el orden de HomeScreen
+     */
+    private suspend fun precargarMiniaturas(): Int {
+        val urls = repositorio.obtenerResumenes().first()
+            .take(CANTIDAD_MINIATURAS)
+            .map { it.imagenUrl }
+        val precargadas = tiempoMiniaturas.medir { precargador.precargar(urls) }
+        miniaturasPrecargadas.sumar(precargadas.toLong())
+        return precargadas
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.labx.metricas
+
+import androidx.metrics.performance.JankStats
+
+/**
+ * Métricas de frames alimentadas por JankStats
+ *
+ * - ui.frame: duración del trabajo de UI de cada frame (µs)
+ * - ui.frames_jank: frames que JankStats marcó como jank
+ *
+ * El oyente corre en el hilo principal en cada frame: solo registra en
+ * métricas ya creadas (JankStats reutiliza el FrameData, no se guarda).
+ */
+object MetricasFrames {
+
+    private val duracionFrame = RegistroMetricas.temporizador("ui.frame")
+    private val framesJank = RegistroMetricas.contador("ui.frames_jank")
+
+    val oyente = JankStats.OnFrameListener { frame ->
+        duracionFrame.registrarNanos(frame.frameDurationUiNanos)
+        if (frame.isJank) framesJank.incrementar()
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.labx.ui.navigation
+
+/**
+ * EtiquetasPrueba: testTag de los elementos que recorren los benchmarks
+ * 
+ * MainActivity activa testTagsAsResourceId, así UiAutomator los encuentra
+ * con By.res(...) desde :benchmark y :baselineprofile (que no pueden
+ * importar esta clase: si se cambia un valor, actualizar también allá)
+ * 
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+object EtiquetasPrueba {
+    const val PORTADA_ENTRAR = "portada_entrar"
+    const val LISTA_PRODUCTOS = "lista_productos"
+    const val TARJETA_PRODUCTO = "tarjeta_producto"
+    const val DETALLE_AGREGAR_CARRITO = "detalle_agregar_carrito"
+    const val DETALLE_CONFIRMACION = "detalle_confirmacion"
+}
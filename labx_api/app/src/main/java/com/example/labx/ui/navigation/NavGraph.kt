@@ -4,6 +4,8 @@ import androidx.compose.runtime.Composable
 import androidx.compose.runtime.LaunchedEffect
 import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
+import androidx.compose.runtime.key
+import androidx.compose.runtime.produceState
 import androidx.compose.ui.Modifier
 import androidx.navigation.NavHostController
 import androidx.navigation.NavType
@@ -11,8 +13,9 @@ import androidx.navigation.compose.NavHost
 import androidx.navigation.compose.composable
 import androidx.navigation.navArgument
 import com.example.labx.data.local.PreferenciasManager
+import com.example.labx.data.remote.obtenerDatosONull
 import com.example.labx.data.repository.CarritoRepository
-import com.example.labx.data.repository.ProductoRepositoryImpl
+import com.example.labx.domain.repository.RepositorioProductos
 import com.example.labx.ui.screen.AdminPanelScreen
 import com.example.labx.ui.screen.CarritoScreen
 import com.example.labx.ui.screen.DetalleProductoScreen
@@ -21,6 +24,7 @@ import com.example.labx.ui.screen.HomeScreen
 import com.example.labx.ui.screen.LoginAdminScreen
 import com.example.labx.ui.screen.PortadaScreen
 import com.example.labx.ui.screen.RegistroScreen
+import com.example.labx.ui.state.EstadoRefresco
 import com.example.labx.ui.viewmodel.ProductoViewModel
 
 /**
@@ -36,7 +40,7 @@ import com.example.labx.ui.viewmodel.ProductoViewModel
 @Composable
 fun NavGraph(
     navController: NavHostController,
-    productoRepository: ProductoRepositoryImpl,
+    productoRepository: RepositorioProductos,
     carritoRepository: CarritoRepository,
     preferenciasManager: PreferenciasManager,
     productoViewModel: ProductoViewModel,
@@ -68,7 +72,8 @@ fun NavGraph(
         // Ruta 1: Pantalla principal (Home)
         composable(route = Rutas.HOME) {
             HomeScreen(
-                productoRepository = productoRepository,
+                // El mismo ViewModel de MainActivity: un solo refresco y un solo observador de Room
+                productoViewModel = productoViewModel,
                 carritoRepository = carritoRepository,
                 onProductoClick = { productoId ->
                     // Cuando tocas un producto, navega a detalle
@@ -170,13 +175,24 @@ fun NavGraph(
                 return@composable
             }
             
-            val productos by productoViewModel.uiState.collectAsState()
+            val productos by productoViewModel.productosCompletos.collectAsState()
+            val estadoRefresco by productoViewModel.estadoRefresco.collectAsState()
+            val aviso by productoViewModel.aviso.collectAsState()
+            val conflictos by productoViewModel.conflictos.collectAsState()
             
             AdminPanelScreen(
-                productos = productos.productos,
+                productos = productos,
+                estaRefrescando = estadoRefresco is EstadoRefresco.Refrescando && productos.isNotEmpty(),
                 usernameAdmin = preferenciasManager.obtenerUsernameAdmin() ?: "Admin",
+                aviso = aviso,
+                conflictos = conflictos,
+                onRefrescar = { productoViewModel.refrescar() },
+                onAvisoMostrado = { productoViewModel.avisoMostrado() },
+                onResolverConflicto = { conflicto, elegido ->
+                    productoViewModel.resolverConflicto(conflicto, elegido)
+                },
                 onAgregarProducto = {
-                    navController.navigate("formulario_producto?productoId=-1")
+                    navController.navigate(Rutas.formularioEditar(0))
                 },
                 onEditarProducto = { producto ->
                     navController.navigate(Rutas.formularioEditar(producto.id))
@@ -194,35 +210,47 @@ fun NavGraph(
         }
         
         // Ruta 7: Formulario Producto (agregar o editar)
+        // productoId = 0: agregar (los IDs negativos son productos creados
+        // en el teléfono que esperan su ID del servidor)
         composable(
             route = Rutas.FORMULARIO_PRODUCTO,
             arguments = listOf(
                 navArgument("productoId") {
                     type = NavType.IntType
-                    defaultValue = -1
+                    defaultValue = 0
                 }
             )
         ) { backStackEntry ->
-            val productoId = backStackEntry.arguments?.getInt("productoId") ?: -1
-            val productos by productoViewModel.uiState.collectAsState()
-            val productoEditar = if (productoId != -1) {
-                productos.productos.find { it.id == productoId }
+            val productoId = backStackEntry.arguments?.getInt("productoId") ?: 0
+            val productos by productoViewModel.productosCompletos.collectAsState()
+            val productoEditar = if (productoId != 0) {
+                productos.find { it.id == productoId }
             } else null
             
-            FormularioProductoScreen(
-                productoExistente = productoEditar,
-                onGuardar = { producto ->
-                    if (producto.id == 0) {
-                        productoViewModel.agregarProducto(producto)
-                    } else {
-                        productoViewModel.actualizarProducto(producto)
-                    }
-                    navController.popBackStack()
-                },
-                onCancelar = {
-                    navController.popBackStack()
+            // La lista del catálogo no trae la descripción: se completa
+            // desde la API antes de editar (key reinicia el formulario)
+            val productoCompleto by produceState(initialValue = productoEditar, productoId) {
+                if (productoEditar != null && productoEditar.descripcion.isBlank()) {
+                    productoViewModel.obtenerProductoPorId(productoId).obtenerDatosONull()?.let { value = it }
                 }
-            )
+            }
+            
+            key(productoCompleto) {
+                FormularioProductoScreen(
+                    productoExistente = productoCompleto,
+                    onGuardar = { producto ->
+                        if (producto.id == 0) {
+                            productoViewModel.agregarProducto(producto)
+                        } else {
+                            productoViewModel.actualizarProducto(producto, original = productoCompleto)
+                        }
+                        navController.popBackStack()
+                    },
+                    onCancelar = {
+                        navController.popBackStack()
+                    }
+                )
+            }
         }
     }
 }
@@ -6,19 +6,27 @@ import androidx.compose.foundation.lazy.items
 import androidx.compose.material.icons.Icons
 import androidx.compose.material.icons.filled.*
 import androidx.compose.material3.*
+import androidx.compose.material3.pulltorefresh.PullToRefreshBox
 import androidx.compose.runtime.*
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import com.example.labx.domain.model.CampoProducto
+import com.example.labx.domain.model.ConflictoEdicion
+import com.example.labx.domain.model.EstadoSincronizacion
 import com.example.labx.domain.model.Producto
 
 /**
  * AdminPanelScreen: Panel principal de administración
  * 
  * Funcionalidades:
- * - Ver todos los productos
+ * - Ver todos los productos (deslizar hacia abajo para refrescar)
+ * - Los cambios se ven al instante; los que el servidor aún no confirmó
+ *   se marcan como pendientes y los avisos salen en un Snackbar
+ * - Si otro admin cambió los mismos campos, un diálogo pide elegir
+ *   qué versión conservar
  * - Agregar nuevo producto
  * - Editar producto existente
  * - Eliminar producto
@@ -31,7 +39,13 @@ import com.example.labx.domain.model.Producto
 @Composable
 fun AdminPanelScreen(
     productos: List<Producto>,
+    estaRefrescando: Boolean,
     usernameAdmin: String,
+    aviso: String?,
+    conflictos: List<ConflictoEdicion>,
+    onRefrescar: () -> Unit,
+    onAvisoMostrado: () -> Unit,
+    onResolverConflicto: (ConflictoEdicion, Producto) -> Unit,
     onAgregarProducto: () -> Unit,
     onEditarProducto: (Producto) -> Unit,
     onEliminarProducto: (Producto) -> Unit,
@@ -39,8 +53,17 @@ fun AdminPanelScreen(
 ) {
     var mostrarDialogoEliminar by remember { mutableStateOf<Producto?>(null) }
     var pestanaSeleccionada by remember { mutableStateOf(0) }
+    val snackbarHostState = remember { SnackbarHostState() }
+    
+    LaunchedEffect(aviso) {
+        if (aviso != null) {
+            snackbarHostState.showSnackbar(aviso)
+            onAvisoMostrado()
+        }
+    }
     
     Scaffold(
+        snackbarHost = { SnackbarHost(snackbarHostState) },
         topBar = {
             TopAppBar(
                 title = { 
@@ -116,17 +139,23 @@ fun AdminPanelScreen(
                             }
                         }
                     } else {
-                        LazyColumn(
-                            modifier = Modifier.fillMaxSize(),
-                            contentPadding = PaddingValues(16.dp),
-                            verticalArrangement = Arrangement.spacedBy(12.dp)
+                        PullToRefreshBox(
+                            isRefreshing = estaRefrescando,
+                            onRefresh = onRefrescar,
+                            modifier = Modifier.fillMaxSize()
                         ) {
-                            items(productos) { producto ->
-                                AdminProductoCard(
-                                    producto = producto,
-                                    onEditar = { onEditarProducto(producto) },
-                                    onEliminar = { mostrarDialogoEliminar = producto }
-                                )
+                            LazyColumn(
+                                modifier = Modifier.fillMaxSize(),
+                                contentPadding = PaddingValues(16.dp),
+                                verticalArrangement = Arrangement.spacedBy(12.dp)
+                            ) {
+                                items(productos) { producto ->
+                                    AdminProductoCard(
+                                        producto = producto,
+                                        onEditar = { onEditarProducto(producto) },
+                                        onEliminar = { mostrarDialogoEliminar = producto }
+                                    )
+                                }
                             }
                         }
                     }
@@ -139,6 +168,14 @@ fun AdminPanelScreen(
         }
     }
     
+    // Un conflicto a la vez; al resolverlo aparece el siguiente
+    conflictos.firstOrNull()?.let { conflicto ->
+        DialogoConflicto(
+            conflicto = conflicto,
+            onResolver = { elegido -> onResolverConflicto(conflicto, elegido) }
+        )
+    }
+    
     // Diálogo de confirmación de eliminación
     if (mostrarDialogoEliminar != null) {
         AlertDialog(
@@ -200,6 +237,19 @@ fun AdminProductoCard(
                     fontSize = 14.sp,
                     color = MaterialTheme.colorScheme.onSurfaceVariant
                 )
+                if (producto.sincronizacion == EstadoSincronizacion.CONFLICTO) {
+                    Text(
+                        text = "En conflicto con otro administrador",
+                        fontSize = 12.sp,
+                        color = MaterialTheme.colorScheme.error
+                    )
+                } else if (producto.sincronizacion.pendiente) {
+                    Text(
+                        text = "Pendiente de sincronizar",
+                        fontSize = 12.sp,
+                        color = MaterialTheme.colorScheme.tertiary
+                    )
+                }
             }
             
             Row {
@@ -222,6 +272,66 @@ fun AdminProductoCard(
     }
 }
 
+/**
+ * Diálogo de conflicto: los campos que cambiaron ambos admins, con el
+ * valor propio y el del servidor
+ * 
+ * Los cambios del otro admin en campos distintos ya vienen incluidos en
+ * "Conservar los míos" (ver ConflictoEdicion.fusionar)
+ */
+@Composable
+private fun DialogoConflicto(
+    conflicto: ConflictoEdicion,
+    onResolver: (Producto) -> Unit
+) {
+    AlertDialog(
+        // Hay que elegir: tocar fuera no lo cierra
+        onDismissRequest = {},
+        title = { Text("\"${conflicto.servidor.nombre}\" cambió en el servidor") },
+        text = {
+            Column(verticalArrangement = Arrangement.spacedBy(8.dp)) {
+                Text("Otro administrador modificó los mismos datos:")
+                conflicto.campos.sortedBy { it.ordinal }.forEach { campo ->
+                    Column {
+                        Text(text = campo.etiqueta, fontWeight = FontWeight.Bold)
+                        Text(
+                            text = "Tuyo: ${valorLegible(campo, conflicto.local)}",
+                            fontSize = 14.sp
+                        )
+                        Text(
+                            text = "Servidor: ${valorLegible(campo, conflicto.servidor)}",
+                            fontSize = 14.sp,
+                            color = MaterialTheme.colorScheme.onSurfaceVariant
+                        )
+                    }
+                }
+                conflicto.servidor.actualizadoEn?.let { fecha ->
+                    Text(
+                        text = "Versión del servidor: $fecha",
+                        fontSize = 12.sp,
+                        color = MaterialTheme.colorScheme.onSurfaceVariant
+                    )
+                }
+            }
+        },
+        confirmButton = {
+            TextButton(onClick = { onResolver(conflicto.local) }) {
+                Text("Conservar los míos")
+            }
+        },
+        dismissButton = {
+            TextButton(onClick = { onResolver(conflicto.servidor) }) {
+                Text("Usar los del servidor")
+            }
+        }
+    )
+}
+
+private fun valorLegible(campo: CampoProducto, producto: Producto): String = when (campo) {
+    CampoProducto.PRECIO -> producto.precioFormateado()
+    else -> campo.valor(producto).toString()
+}
+
 /**
  * Panel de estadísticas básicas
  */
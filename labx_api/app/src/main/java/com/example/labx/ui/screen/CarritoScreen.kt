@@ -38,6 +38,9 @@ import kotlinx.coroutines.launch
  * - Vaciar carrito
  * - Click en producto para ver detalle
  * 
+ * La lista solo cambia al agregar/quitar productos; cada fila observa
+ * su propia cantidad, así +/- no recompone el carrito completo
+ * 
  * Autor: Prof. Sting Adams Parra Silva
  */
 @OptIn(ExperimentalMaterial3Api::class)
@@ -47,9 +50,11 @@ fun CarritoScreen(
     onVolverClick: () -> Unit,
     onProductoClick: (Int) -> Unit
 ) {
-    // Observar items del carrito
-    val itemsCarrito by carritoRepository.obtenerCarrito().collectAsState(initial = emptyList())
-    val total by carritoRepository.obtenerTotal().collectAsState(initial = 0.0)
+    // Observar productos del carrito (sin cantidades) y el total
+    val itemsCarrito by remember {
+        carritoRepository.obtenerProductosEnCarrito()
+    }.collectAsState(initial = emptyList())
+    val total by remember { carritoRepository.obtenerTotal() }.collectAsState(initial = 0.0)
     
     val scope = rememberCoroutineScope()
 
@@ -157,23 +162,28 @@ fun CarritoScreen(
                     contentPadding = PaddingValues(16.dp),
                     verticalArrangement = Arrangement.spacedBy(12.dp)
                 ) {
-                    items(itemsCarrito) { item ->
+                    items(itemsCarrito, key = { it.id }) { producto ->
+                        // Cantidad observada por fila
+                        val cantidad by remember(producto.id) {
+                            carritoRepository.observarCantidad(producto.id)
+                        }.collectAsState(initial = 1)
+
                         CarritoItemCard(
-                            item = item,
+                            item = ItemCarrito(producto = producto, cantidad = cantidad),
                             onCantidadChange = { nuevaCantidad ->
                                 scope.launch {
                                     carritoRepository.modificarCantidad(
-                                        item.producto.id,
+                                        producto.id,
                                         nuevaCantidad
                                     )
                                 }
                             },
                             onEliminarClick = {
                                 scope.launch {
-                                    carritoRepository.eliminarProducto(item.producto.id)
+                                    carritoRepository.eliminarProducto(producto.id)
                                 }
                             },
-                            onClick = { onProductoClick(item.producto.id) }
+                            onClick = { onProductoClick(producto.id) }
                         )
                     }
                 }
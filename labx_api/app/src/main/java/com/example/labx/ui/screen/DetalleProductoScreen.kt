@@ -15,14 +15,16 @@ import androidx.compose.ui.draw.clip
 import androidx.compose.ui.graphics.Color
 import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import coil.compose.AsyncImage
 import coil.request.ImageRequest
+import com.example.labx.data.remote.obtenerMensajeError
 import com.example.labx.data.repository.CarritoRepository
-import com.example.labx.data.repository.ProductoRepositoryImpl
-import com.example.labx.domain.model.Producto
+import com.example.labx.domain.repository.RepositorioProductos
+import com.example.labx.ui.navigation.EtiquetasPrueba
 import kotlinx.coroutines.launch
 
 /**
@@ -33,27 +35,40 @@ import kotlinx.coroutines.launch
  * - Agregar al carrito
  * - Volver a la lista
  * 
+ * Observa solo la fila del producto y su cantidad en el carrito:
+ * cambios en otros productos no recomponen esta pantalla
+ * 
+ * La lista del catálogo no descarga la descripción: se muestra la fila
+ * en cache de inmediato y la descripción llega al terminar la consulta
+ * a la API (se guarda en la misma fila de Room)
+ * 
  * Autor: Prof. Sting Adams Parra Silva
  */
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun DetalleProductoScreen(
     productoId: Int,
-    productoRepository: ProductoRepositoryImpl,
+    productoRepository: RepositorioProductos,
     carritoRepository: CarritoRepository,
     onVolverClick: () -> Unit
 ) {
-    // Estado del producto
-    var producto by remember { mutableStateOf<Producto?>(null) }
+    // Estado del producto: se observa la fila en Room
+    val producto by remember(productoId) {
+        productoRepository.observarProducto(productoId)
+    }.collectAsState(initial = null)
+    val cantidadEnCarrito by remember(productoId) {
+        carritoRepository.observarCantidad(productoId)
+    }.collectAsState(initial = 0)
     var estaCargando by remember { mutableStateOf(true) }
+    var errorCarga by remember { mutableStateOf<String?>(null) }
     var mostrarMensaje by remember { mutableStateOf(false) }
     
     val scope = rememberCoroutineScope()
     
-    // Cargar producto al crear la pantalla
+    // Refrescar desde la API: el resultado se guarda en Room y llega por el Flow
     LaunchedEffect(productoId) {
         estaCargando = true
-        producto = productoRepository.obtenerProductoPorId(productoId)
+        errorCarga = productoRepository.obtenerProductoPorId(productoId).obtenerMensajeError().ifEmpty { null }
         estaCargando = false
     }
 
@@ -85,8 +100,8 @@ fun DetalleProductoScreen(
                 .background(Color(0xFF0F0F1A))
         ) {
             when {
-                // Estado: Cargando
-                estaCargando -> {
+                // Estado: Cargando (sin copia en cache que mostrar)
+                producto == null && estaCargando -> {
                     CircularProgressIndicator(
                         modifier = Modifier.align(Alignment.Center)
                     )
@@ -95,7 +110,7 @@ fun DetalleProductoScreen(
                 // Estado: Producto no encontrado
                 producto == null -> {
                     Text(
-                        text = "Producto no encontrado",
+                        text = errorCarga ?: "Producto no encontrado",
                         modifier = Modifier.align(Alignment.Center)
                     )
                 }
@@ -155,7 +170,11 @@ fun DetalleProductoScreen(
                             color = Color.White
                         )
                         Text(
-                            text = producto!!.descripcion,
+                            text = when {
+                                producto!!.descripcion.isNotBlank() -> producto!!.descripcion
+                                estaCargando -> "Cargando descripción..."
+                                else -> "Descripción no disponible"
+                            },
                             fontSize = 16.sp,
                             color = Color.White
                         )
@@ -202,6 +221,15 @@ fun DetalleProductoScreen(
                             )
                         }
 
+                        // Cantidad ya agregada
+                        if (cantidadEnCarrito > 0) {
+                            Text(
+                                text = "En tu carrito: $cantidadEnCarrito",
+                                fontSize = 16.sp,
+                                color = Color(0xFF39FF14)
+                            )
+                        }
+
                         Spacer(modifier = Modifier.weight(1f))
 
                         // Botón agregar al carrito
@@ -214,7 +242,9 @@ fun DetalleProductoScreen(
                                     }
                                 }
                             },
-                            modifier = Modifier.fillMaxWidth(),
+                            modifier = Modifier
+                                .fillMaxWidth()
+                                .testTag(EtiquetasPrueba.DETALLE_AGREGAR_CARRITO),
                             enabled = producto!!.hayStock,
                             colors = ButtonDefaults.buttonColors(
                                 containerColor = Color(0xFF39FF14)
@@ -233,7 +263,9 @@ fun DetalleProductoScreen(
                             Text(
                                 text = "✓ Producto agregado al carrito",
                                 color = Color(0xFF39FF14),
-                                modifier = Modifier.align(Alignment.CenterHorizontally)
+                                modifier = Modifier
+                                    .align(Alignment.CenterHorizontally)
+                                    .testTag(EtiquetasPrueba.DETALLE_CONFIRMACION)
                             )
                             LaunchedEffect(Unit) {
                                 kotlinx.coroutines.delay(2000)
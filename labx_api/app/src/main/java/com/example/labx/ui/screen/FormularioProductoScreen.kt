@@ -234,7 +234,10 @@ fun FormularioProductoScreen(
                                     precio = precio.toDouble(),
                                     imagenUrl = imagenUrl.trim(),
                                     categoria = categoria.trim(),
-                                    stock = stock.toInt()
+                                    stock = stock.toInt(),
+                                    // Versión sobre la que se editó (If-Match)
+                                    version = productoExistente?.version,
+                                    actualizadoEn = productoExistente?.actualizadoEn
                                 )
                                 onGuardar(producto)
                             }
@@ -1,6 +1,9 @@
 package com.example.labx.ui.screen
 
+import android.text.format.DateUtils
+import androidx.activity.compose.ReportDrawnWhen
 import androidx.compose.foundation.clickable
+import androidx.compose.foundation.gestures.detectTapGestures
 import androidx.compose.foundation.horizontalScroll
 import androidx.compose.foundation.layout.*
 import androidx.compose.foundation.lazy.LazyColumn
@@ -14,6 +17,7 @@ import androidx.compose.material.icons.filled.Person
 import androidx.compose.material.icons.filled.Search
 import androidx.compose.material.icons.filled.ShoppingCart
 import androidx.compose.material3.*
+import androidx.compose.material3.pulltorefresh.PullToRefreshBox
 import androidx.compose.runtime.Composable
 import androidx.compose.runtime.collectAsState
 import androidx.compose.runtime.getValue
@@ -23,22 +27,25 @@ import androidx.compose.runtime.setValue
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.draw.clip
+import androidx.compose.ui.input.pointer.pointerInput
 import androidx.compose.ui.layout.ContentScale
 import androidx.compose.ui.platform.LocalContext
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
-import androidx.lifecycle.viewmodel.compose.viewModel
 import coil.compose.AsyncImage
 import coil.request.ImageRequest
-import android.util.Log
 import androidx.compose.foundation.background
 import androidx.compose.ui.graphics.Color
+import com.example.labx.BuildConfig
+import com.example.labx.bitacora.RegistradorAndroid
+import com.example.labx.bitacora.w
 import com.example.labx.data.repository.CarritoRepository
-import com.example.labx.data.repository.ProductoRepositoryImpl
-import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+import com.example.labx.ui.navigation.EtiquetasPrueba
+import com.example.labx.ui.state.ProductoUiState
 import com.example.labx.ui.viewmodel.ProductoViewModel
-import com.example.labx.ui.viewmodel.ProductoViewModelFactory
 
 /**
  * HomeScreen: Pantalla principal de la app
@@ -46,6 +53,7 @@ import com.example.labx.ui.viewmodel.ProductoViewModelFactory
  * Muestra:
  * - Lista de productos disponibles
  * - Buscador y filtros por categoría
+ * - Deslizar la lista hacia abajo para refrescar el catálogo
  * - Botón para ir al carrito
  * - Botón para ir a registro
  * - Botón para volver a portada
@@ -55,32 +63,34 @@ import com.example.labx.ui.viewmodel.ProductoViewModelFactory
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
 fun HomeScreen(
-    productoRepository: ProductoRepositoryImpl,
+    productoViewModel: ProductoViewModel,
     carritoRepository: CarritoRepository,
     onProductoClick: (Int) -> Unit,
     onCarritoClick: () -> Unit,
     onRegistroClick: () -> Unit,
     onVolverPortada: () -> Unit
 ) {
-    // Crear ViewModel con Factory
-    val viewModel: ProductoViewModel = viewModel(
-        factory = ProductoViewModelFactory(productoRepository)
-    )
-    
     // Observar estado
-    val uiState by viewModel.uiState.collectAsState()
+    val uiState by productoViewModel.uiState.collectAsState()
+    
+    // Tarjetas: proyección liviana desde Room (sin descripción)
+    val resumenes = uiState.productos
     
     // NUEVO: Estado de búsqueda y filtros
     var textoBusqueda by remember { mutableStateOf("") }
     var categoriaSeleccionada by remember { mutableStateOf<String?>(null) }
+    var mostrarMetricas by remember { mutableStateOf(false) }
+    
+    // Arranque completo (timeToFullDisplay en :benchmark): hay productos que mostrar
+    ReportDrawnWhen { resumenes.isNotEmpty() }
     
     // NUEVO: Lógica de filtrado
-    val productosFiltrados = remember(uiState.productos, textoBusqueda, categoriaSeleccionada) {
-        uiState.productos.filter { producto ->
-            // Filtro por texto (nombre o descripción)
+    val productosFiltrados = remember(resumenes, textoBusqueda, categoriaSeleccionada) {
+        resumenes.filter { producto ->
+            // Filtro por texto (nombre o categoría; la descripción no se carga en la lista)
             val coincideTexto = textoBusqueda.isBlank() || 
                 producto.nombre.contains(textoBusqueda, ignoreCase = true) ||
-                producto.descripcion.contains(textoBusqueda, ignoreCase = true)
+                producto.categoria.contains(textoBusqueda, ignoreCase = true)
             
             // Filtro por categoría
             val coincideCategoria = categoriaSeleccionada == null || 
@@ -91,14 +101,24 @@ fun HomeScreen(
     }
     
     // Lista de categorías únicas
-    val categorias = remember(uiState.productos) {
-        uiState.productos.map { it.categoria }.distinct().sorted()
+    val categorias = remember(resumenes) {
+        resumenes.map { it.categoria }.distinct().sorted()
     }
 
     Scaffold(
         topBar = {
             TopAppBar(
-                title = { Text("Productos Disponibles") },
+                title = {
+                    // Pulsación larga: panel de métricas (solo debug)
+                    Text(
+                        text = "Productos Disponibles",
+                        modifier = Modifier.pointerInput(Unit) {
+                            detectTapGestures(onLongPress = {
+                                if (BuildConfig.DEBUG) mostrarMetricas = true
+                            })
+                        }
+                    )
+                },
                 colors = TopAppBarDefaults.topAppBarColors(
                     containerColor = Color(0xFF1A1A2E), // azul
                     titleContentColor = Color.White,    // color del título
@@ -140,15 +160,15 @@ fun HomeScreen(
                 .background(Color(0xFF0F0F1A))
         ) {
             when {
-                // Estado: Cargando
-                uiState.estaCargando -> {
+                // Estado: Cargando (sin productos en cache que mostrar)
+                uiState.estaCargando && resumenes.isEmpty() -> {
                     CircularProgressIndicator(
                         modifier = Modifier.align(Alignment.Center)
                     )
                 }
 
-                // Estado: Error
-                uiState.error != null -> {
+                // Estado: Error (sin cache; con cache se avisa sobre la lista)
+                uiState.error != null && resumenes.isEmpty() -> {
                     Column(
                         modifier = Modifier.align(Alignment.Center),
                         horizontalAlignment = Alignment.CenterHorizontally
@@ -158,14 +178,14 @@ fun HomeScreen(
                             color = MaterialTheme.colorScheme.error
                         )
                         Spacer(modifier = Modifier.height(8.dp))
-                        Button(onClick = { viewModel.cargarProductos() }) {
+                        Button(onClick = { productoViewModel.refrescar() }) {
                             Text("Reintentar")
                         }
                     }
                 }
 
                 // Estado: Lista vacía
-                uiState.productos.isEmpty() -> {
+                resumenes.isEmpty() -> {
                     Text(
                         text = "No hay productos disponibles",
                         modifier = Modifier.align(Alignment.Center)
@@ -175,6 +195,9 @@ fun HomeScreen(
                 // Estado: Éxito - mostrar lista
                 else -> {
                     Column(modifier = Modifier.fillMaxSize()) {
+                        // Aviso de error: la cache ya está en pantalla
+                        LineaEstadoRefresco(uiState)
+
                         // Campo de búsqueda
                         OutlinedTextField(
                             value = textoBusqueda,
@@ -265,22 +288,38 @@ fun HomeScreen(
                             )
                         }
 
-                        // Lista de productos filtrados
-                        LazyColumn(
-                            modifier = Modifier.fillMaxSize(),
-                            contentPadding = PaddingValues(16.dp),
-                            verticalArrangement = Arrangement.spacedBy(12.dp)
+                        // Lista de productos filtrados (deslizar hacia abajo = refrescar)
+                        PullToRefreshBox(
+                            isRefreshing = uiState.estaRefrescando,
+                            onRefresh = { productoViewModel.refrescar() },
+                            modifier = Modifier.fillMaxSize()
                         ) {
-                            items(productosFiltrados) { producto ->
-                                ProductoCard(
-                                    producto = producto,
-                                    onClick = { onProductoClick(producto.id) }
-                                )
+                            LazyColumn(
+                                modifier = Modifier
+                                    .fillMaxSize()
+                                    .testTag(EtiquetasPrueba.LISTA_PRODUCTOS),
+                                contentPadding = PaddingValues(16.dp),
+                                verticalArrangement = Arrangement.spacedBy(12.dp)
+                            ) {
+                                items(productosFiltrados, key = { it.id }) { producto ->
+                                    ProductoCard(
+                                        producto = producto,
+                                        onClick = { onProductoClick(producto.id) }
+                                    )
+                                }
                             }
                         }
                     }
                 }
             }
+
+            // Panel de métricas (oculto, solo debug)
+            if (mostrarMetricas) {
+                PanelMetricasDebug(
+                    onCerrar = { mostrarMetricas = false },
+                    modifier = Modifier.align(Alignment.TopCenter)
+                )
+            }
         }
     }
 }
@@ -290,12 +329,13 @@ fun HomeScreen(
  */
 @Composable
 fun ProductoCard(
-    producto: Producto,
+    producto: ProductoResumen,
     onClick: () -> Unit
 ) {
     Card(
         modifier = Modifier
             .fillMaxWidth()
+            .testTag(EtiquetasPrueba.TARJETA_PRODUCTO)
             .clickable(onClick = onClick),
         elevation = CardDefaults.cardElevation(defaultElevation = 4.dp),
         colors = CardDefaults.cardColors(
@@ -320,9 +360,6 @@ fun ProductoCard(
                 context.packageName
             )
 
-            // Debug log
-            Log.d("HomeScreen", "Producto: ${producto.nombre}, imagenUrl: ${producto.imagenUrl}, resId: $imageResId")
-
             AsyncImage(
                 model = ImageRequest.Builder(context)
                     .data(if (imageResId != 0) imageResId else producto.imagenUrl)
@@ -334,7 +371,7 @@ fun ProductoCard(
                     .clip(RoundedCornerShape(8.dp)),
                 contentScale = ContentScale.Crop,
                 onError = { error ->
-                    Log.e("HomeScreen", "Error cargando imagen: ${error.result.throwable.message}")
+                    RegistradorAndroid.w("HomeScreen", error.result.throwable) { "Error cargando imagen: ${producto.imagenUrl}" }
                 }
             )
 
@@ -382,4 +419,24 @@ fun ProductoCard(
             }
         }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Línea de estado sobre la lista: error al actualizar y hora de los datos
+ * El refresco en curso lo muestra el indicador de PullToRefreshBox;
+ * no ocupa espacio cuando los datos están al día
+ */
+@Composable
+private fun LineaEstadoRefresco(uiState: ProductoUiState) {
+    val error = uiState.error ?: return
+    val context = LocalContext.current
+    val actualizado = uiState.actualizadoEnMs?.let {
+        " (actualizado ${DateUtils.formatDateTime(context, it, DateUtils.FORMAT_SHOW_TIME)})"
+    } ?: ""
+    Text(
+        text = "Mostrando datos guardados$actualizado: $error",
+        fontSize = 12.sp,
+        color = Color.White.copy(alpha = 0.7f),
+        modifier = Modifier.padding(horizontal = 16.dp, vertical = 4.dp)
+    )
+}
@@ -0,0 +1,97 @@
+package com.example.labx.ui.screen
+
+import androidx.compose.foundation.background
+import androidx.compose.foundation.layout.*
+import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.items
+import androidx.compose.foundation.shape.RoundedCornerShape
+import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
+import androidx.compose.runtime.*
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.platform.LocalClipboardManager
+import androidx.compose.ui.text.AnnotatedString
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+import com.example.labx.metricas.InstantaneaMetricas
+import com.example.labx.metricas.RegistroMetricas
+import kotlinx.coroutines.delay
+
+/**
+ * PanelMetricasDebug: Overlay con las métricas de RegistroMetricas
+ *
+ * Oculto: solo en builds debug, con pulsación larga en el título de
+ * HomeScreen. Se actualiza cada segundo mientras está visible.
+ *
+ * - Contadores: valor total
+ * - Temporizadores: cantidad, p50, p90 y máximo (µs)
+ * - "Copiar JSON": instantánea completa al portapapeles para reportes de bugs
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+@Composable
+fun PanelMetricasDebug(
+    onCerrar: () -> Unit,
+    modifier: Modifier = Modifier
+) {
+    val portapapeles = LocalClipboardManager.current
+    var instantanea by remember { mutableStateOf(RegistroMetricas.instantanea()) }
+
+    LaunchedEffect(Unit) {
+        while (true) {
+            delay(1_000)
+            instantanea = RegistroMetricas.instantanea()
+        }
+    }
+
+    Column(
+        modifier = modifier
+            .fillMaxWidth()
+            .heightIn(max = 420.dp)
+            .padding(8.dp)
+            .background(Color(0xE6000000), RoundedCornerShape(8.dp))
+            .padding(8.dp)
+    ) {
+        Row(horizontalArrangement = Arrangement.spacedBy(8.dp)) {
+            TextButton(onClick = {
+                portapapeles.setText(AnnotatedString(RegistroMetricas.aJson()))
+            }) {
+                Text("Copiar JSON", color = Color(0xFF39FF14))
+            }
+            TextButton(onClick = { RegistroMetricas.reiniciar() }) {
+                Text("Reiniciar", color = Color.White)
+            }
+            TextButton(onClick = onCerrar) {
+                Text("Cerrar", color = Color.White)
+            }
+        }
+
+        LazyColumn {
+            items(lineasMetricas(instantanea)) { linea ->
+                Text(
+                    text = linea,
+                    color = Color.White,
+                    fontSize = 11.sp,
+                    fontFamily = FontFamily.Monospace
+                )
+            }
+        }
+    }
+}
+
+/**
+ * Una línea de texto por métrica (se arma solo al actualizar el panel)
+ */
+private fun lineasMetricas(instantanea: InstantaneaMetricas): List<String> {
+    val contadores = instantanea.contadores
+        .filterValues { it != 0L }
+        .map { (nombre, valor) -> "$nombre = $valor" }
+    val histogramas = instantanea.histogramas
+        .filterValues { it.cantidad > 0 }
+        .map { (nombre, resumen) ->
+            "$nombre n=${resumen.cantidad} p50=${resumen.p50} p90=${resumen.p90} max=${resumen.maximo} µs"
+        }
+    return contadores + histogramas
+}
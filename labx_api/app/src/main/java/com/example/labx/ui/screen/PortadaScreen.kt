@@ -10,11 +10,13 @@ import androidx.compose.runtime.Composable
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.res.painterResource
 import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
+import com.example.labx.ui.navigation.EtiquetasPrueba
 import com.example.labx.R
 
 /**
@@ -107,7 +109,8 @@ fun PortadaScreen(
                 onClick = onEntrarClick,
                 modifier = Modifier
                     .fillMaxWidth()
-                    .height(56.dp),
+                    .height(56.dp)
+                    .testTag(EtiquetasPrueba.PORTADA_ENTRAR),
                 colors = ButtonDefaults.buttonColors(
                     containerColor = Color(0xFF5A067E)
                 )
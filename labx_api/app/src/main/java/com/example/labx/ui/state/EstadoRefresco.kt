@@ -0,0 +1,44 @@
+package com.example.labx.ui.state
+
+import com.example.labx.data.remote.MetadatosRespuesta
+
+/**
+ * Estado del refresco del catálogo (independiente de la lista, que viene de Room)
+ *
+ * - Inactivo: no hay refresco en curso; los datos están al día o nunca se pidieron
+ * - Refrescando: hay una sola petición a la API en curso
+ * - Fallido: el último refresco falló; la cache sigue en pantalla
+ *
+ * Todos conservan los metadatos del último refresco exitoso, así la
+ * pantalla puede decir "actualizado a las ..." incluso durante un error.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+sealed class EstadoRefresco {
+
+    /**
+     * Metadatos del último refresco exitoso (null si nunca hubo uno)
+     */
+    abstract val ultimoExito: MetadatosRespuesta?
+
+    /**
+     * Hora (ms) de la última sincronización exitosa del catálogo
+     */
+    val ultimoExitoMs: Long?
+        get() = ultimoExito?.marcaTiempoMs
+
+    data class Inactivo(
+        override val ultimoExito: MetadatosRespuesta? = null
+    ) : EstadoRefresco()
+
+    data class Refrescando(
+        override val ultimoExito: MetadatosRespuesta? = null
+    ) : EstadoRefresco()
+
+    data class Fallido(
+        val mensajeError: String,
+        val codigoHttp: Int? = null,
+        val latenciaMs: Long? = null,
+        override val ultimoExito: MetadatosRespuesta? = null
+    ) : EstadoRefresco()
+}
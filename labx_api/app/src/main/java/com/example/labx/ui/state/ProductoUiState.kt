@@ -1,19 +1,38 @@
 package com.example.labx.ui.state
 
-import com.example.labx.domain.model.Producto
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.domain.model.ProductoResumen
 
 /**
  * Estado de la UI de productos
  * Usa data class simple (sin sealed class como en StingCommerce)
  * 
+ * productos: las tarjetas del catálogo (sin descripción); las filas
+ * completas están en ProductoViewModel.productosCompletos
+ * 
+ * Cache y refresco:
+ * - estaCargando: no hay nada que mostrar todavía (pantalla de carga)
+ * - estaRefrescando: ya se muestran productos y la API está en curso
+ * - error: la última consulta falló; si hay productos se siguen mostrando
+ * - origen / actualizadoEnMs: de dónde vienen los productos y de cuándo son
+ * 
  * Autor: Prof. Sting Adams Parra Silva
  */
 data class ProductoUiState(
     val estaCargando: Boolean = false,
-    val productos: List<Producto> = emptyList(),
-    val error: String? = null
+    val estaRefrescando: Boolean = false,
+    val productos: List<ProductoResumen> = emptyList(),
+    val error: String? = null,
+    val origen: OrigenDatos? = null,
+    val actualizadoEnMs: Long? = null,
+    val codigoHttp: Int? = null,
+    val latenciaMs: Long? = null
 ) {
     // Helper: verifica si hay productos
     val hayProductos: Boolean
         get() = productos.isNotEmpty()
+    
+    // Helper: los productos mostrados son de la cache local
+    val mostrandoCache: Boolean
+        get() = origen == OrigenDatos.CACHE
 }
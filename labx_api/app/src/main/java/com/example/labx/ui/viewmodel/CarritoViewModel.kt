@@ -1,10 +1,12 @@
 package com.example.labx.ui.viewmodel
 
 import android.app.Application
-import android.util.Log
 import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.viewModelScope
+import com.example.labx.bitacora.RegistradorAndroid
+import com.example.labx.bitacora.d
 import com.example.labx.data.local.AppDatabase
+import com.example.labx.data.local.dao.CarritoDaoMedido
 import com.example.labx.data.repository.CarritoRepository
 import com.example.labx.domain.model.ItemCarrito
 import com.example.labx.domain.model.Producto
@@ -19,12 +21,16 @@ import kotlinx.coroutines.launch
  */
 class CarritoViewModel(application: Application) : AndroidViewModel(application) {
 
+    companion object {
+        private const val TAG = "CARRITO_DB"
+    }
+
     // Repository
     private val repository: CarritoRepository
 
     init {
         val database = AppDatabase.getDatabase(application)
-        val dao = database.carritoDao()
+        val dao = CarritoDaoMedido(database.carritoDao())
         repository = CarritoRepository(dao)
     }
 
@@ -67,20 +73,6 @@ class CarritoViewModel(application: Application) : AndroidViewModel(application)
             initialValue = emptyList()
         )
 
-    init {
-        // Observer para logear cambios en el carrito
-        viewModelScope.launch {
-            itemsCarrito.collect { items ->
-                Log.d("CARRITO_DB", "═══════════════════════════════")
-                Log.d("CARRITO_DB", "Items en carrito: ${items.size}")
-                items.forEachIndexed { index, item ->
-                    Log.d("CARRITO_DB", "${index + 1}. ${item.producto.nombre} x${item.cantidad} - Subtotal: \$${item.subtotal.toInt()}")
-                }
-                Log.d("CARRITO_DB", "═══════════════════════════════")
-            }
-        }
-    }
-
     // StateFlow para total del carrito
     val totalCarrito: StateFlow<Double> = repository.obtenerTotal()
         .stateIn(
@@ -94,7 +86,7 @@ class CarritoViewModel(application: Application) : AndroidViewModel(application)
      */
     fun agregarAlCarrito(producto: Producto) {
         viewModelScope.launch {
-            Log.d("CARRITO_DB", "➕ Agregando: ${producto.nombre}")
+            RegistradorAndroid.d(TAG) { "➕ Agregando: ${producto.nombre}" }
             repository.agregarProducto(producto)
         }
     }
@@ -104,7 +96,7 @@ class CarritoViewModel(application: Application) : AndroidViewModel(application)
      */
     fun vaciarCarrito() {
         viewModelScope.launch {
-            Log.d(" CARRITO_DB", " Vaciando carrito completo")
+            RegistradorAndroid.d(TAG) { "Vaciando carrito completo" }
             repository.vaciarCarrito()
         }
     }
@@ -3,96 +3,227 @@ package com.example.labx.ui.viewmodel
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.ViewModelProvider
 import androidx.lifecycle.viewModelScope
-import com.example.labx.data.repository.ProductoRepositoryImpl
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.esConflictoDeVersion
+import com.example.labx.data.remote.esDeCache
+import com.example.labx.domain.model.ConflictoEdicion
+import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+import com.example.labx.domain.model.camposDistintos
+import com.example.labx.domain.repository.RepositorioProductos
+import com.example.labx.ui.state.EstadoRefresco
 import com.example.labx.ui.state.ProductoUiState
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
-import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.combine
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 
 /**
  * ProductoViewModel: Gestiona el estado de los productos
  * 
  * ¿Qué hace?
- * - Carga productos desde el repositorio
- * - Maneja estados (cargando, éxito, error)
+ * - Observa los productos en Room: la lista liviana para el catálogo
+ *   (uiState) y las filas completas solo para el panel admin
+ * - Refresca el catálogo desde la API bajo demanda (refrescar())
+ * - Publica el estado del refresco (estadoRefresco) y el de la pantalla (uiState)
  * - Sobrevive a rotaciones de pantalla
  * 
  * Autor: Prof. Sting Adams Parra Silva
  */
 class ProductoViewModel(
-    private val repositorio: ProductoRepositoryImpl
+    private val repositorio: RepositorioProductos
 ) : ViewModel() {
     
-    // _uiState: privado, solo este ViewModel puede modificarlo
-    private val _uiState = MutableStateFlow(ProductoUiState())
+    // Estado del refresco: lo único que no viene de Room
+    private val _estadoRefresco = MutableStateFlow<EstadoRefresco>(EstadoRefresco.Inactivo())
+    
+    // estadoRefresco: inactivo, refrescando, último éxito o error
+    val estadoRefresco: StateFlow<EstadoRefresco> = _estadoRefresco.asStateFlow()
     
     // uiState: público pero solo lectura, las pantallas observan cambios
-    val uiState: StateFlow<ProductoUiState> = _uiState.asStateFlow()
+    // Tarjetas desde la proyección liviana de Room (sin descripción): un solo
+    // observador, activo mientras alguna pantalla lo recolecta; refrescar()
+    // no crea observadores nuevos
+    val uiState: StateFlow<ProductoUiState> = combine(
+        repositorio.obtenerResumenes(),
+        _estadoRefresco
+    ) { resumenes, refresco ->
+        construirUiState(resumenes, refresco)
+    }.stateIn(
+        scope = viewModelScope,
+        started = SharingStarted.WhileSubscribed(5000),
+        initialValue = ProductoUiState(estaCargando = true)
+    )
+    
+    // Filas completas (con descripción y estado de sincronización) para el
+    // panel admin y el formulario; el catálogo no las observa
+    val productosCompletos: StateFlow<List<Producto>> = repositorio.observarProductos()
+        .stateIn(
+            scope = viewModelScope,
+            started = SharingStarted.WhileSubscribed(5000),
+            initialValue = emptyList()
+        )
+    
+    // Aviso para el panel admin sobre el último cambio (pendiente o deshecho)
+    private val _aviso = MutableStateFlow<String?>(null)
+    val aviso: StateFlow<String?> = _aviso.asStateFlow()
+    
+    // Ediciones que chocaron con las de otro admin (el panel pide elegir)
+    val conflictos: StateFlow<List<ConflictoEdicion>> = repositorio.observarConflictos()
+        .stateIn(
+            scope = viewModelScope,
+            started = SharingStarted.WhileSubscribed(5000),
+            initialValue = emptyList()
+        )
+    
+    // Refresco en curso: uno a la vez
+    private var trabajoRefresco: Job? = null
     
     init {
-        // Cargar productos al crear el ViewModel
-        cargarProductos()
+        // Refrescar el catálogo al crear el ViewModel
+        refrescar()
     }
     
     /**
-     * Carga la lista de productos desde el repositorio
+     * Pide el catálogo a la API (pull-to-refresh, botón Reintentar, init)
+     * 
+     * Cancela el refresco anterior y espera a que termine antes de
+     * llamar de nuevo: varios gestos seguidos dejan como máximo una
+     * petición HTTP en curso. Los productos llegan por Room; el
+     * resultado se informa en estadoRefresco
+     * 
+     * @return El trabajo del refresco (para esperar con join() si hace falta)
      */
-    fun cargarProductos() {
-        viewModelScope.launch {
-            // Indicar que está cargando
-            _uiState.value = _uiState.value.copy(estaCargando = true)
-            
-            // Observar cambios en productos (Flow)
-            repositorio.obtenerProductos()
-                .catch { exception ->
-                    // Si hay error, actualizar estado
-                    _uiState.value = _uiState.value.copy(
-                        estaCargando = false,
-                        error = exception.message ?: "Error desconocido"
-                    )
-                }
-                .collect { productos ->
-                    // Actualizar con los productos obtenidos
-                    _uiState.value = _uiState.value.copy(
-                        estaCargando = false,
-                        productos = productos,
-                        error = null
-                    )
-                }
-        }
+    fun refrescar(): Job {
+        val anterior = trabajoRefresco
+        _estadoRefresco.update { EstadoRefresco.Refrescando(it.ultimoExito) }
+        return viewModelScope.launch {
+            anterior?.cancelAndJoin()
+            val resultado = repositorio.refrescarProductos()
+            // Un refresco reemplazado no pisa el estado del siguiente
+            ensureActive()
+            _estadoRefresco.update { estado -> aplicarResultado(estado, resultado) }
+        }.also { trabajoRefresco = it }
+    }
+    
+    /**
+     * Traduce el resultado del refresco a un EstadoRefresco
+     */
+    private fun aplicarResultado(
+        estado: EstadoRefresco,
+        resultado: ResultadoApi<Int>
+    ): EstadoRefresco = when (resultado) {
+        is ResultadoApi.Cargando -> estado
+        is ResultadoApi.Exito -> EstadoRefresco.Inactivo(
+            ultimoExito = resultado.metadatos.copy(
+                marcaTiempoMs = resultado.metadatos.marcaTiempoMs ?: estado.ultimoExitoMs
+            )
+        )
+        is ResultadoApi.Error -> EstadoRefresco.Fallido(
+            mensajeError = resultado.mensajeError,
+            codigoHttp = resultado.codigoHttp,
+            latenciaMs = resultado.latenciaMs,
+            ultimoExito = estado.ultimoExito
+        )
+    }
+    
+    /**
+     * Combina la lista de Room con el estado del refresco
+     * Sin productos en pantalla un refresco es carga inicial; con productos
+     * es un refresco sobre la cache
+     */
+    private fun construirUiState(
+        productos: List<ProductoResumen>,
+        refresco: EstadoRefresco
+    ): ProductoUiState {
+        val enCurso = refresco is EstadoRefresco.Refrescando
+        val fallido = refresco as? EstadoRefresco.Fallido
+        return ProductoUiState(
+            estaCargando = enCurso && productos.isEmpty(),
+            estaRefrescando = enCurso && productos.isNotEmpty(),
+            productos = productos,
+            error = fallido?.mensajeError,
+            origen = refresco.ultimoExito?.origen ?: fallido?.let { OrigenDatos.CACHE },
+            actualizadoEnMs = refresco.ultimoExitoMs,
+            codigoHttp = fallido?.codigoHttp ?: refresco.ultimoExito?.codigoHttp,
+            latenciaMs = fallido?.latenciaMs ?: refresco.ultimoExito?.latenciaMs
+        )
     }
     
     /**
-     * Busca un producto por ID
+     * Busca un producto por ID (API, o cache si la API falla)
      */
     suspend fun obtenerProductoPorId(id: Int) = repositorio.obtenerProductoPorId(id)
     
     /**
      * Agrega un nuevo producto
+     * Aparece en la lista al instante (Room); el aviso informa si quedó
+     * pendiente o si el servidor lo rechazó
      */
-    fun agregarProducto(producto: com.example.labx.domain.model.Producto) {
+    fun agregarProducto(producto: Producto) {
         viewModelScope.launch {
-            repositorio.insertarProducto(producto)
+            avisarResultado(producto.nombre, repositorio.insertarProducto(producto))
         }
     }
     
     /**
      * Actualiza un producto existente
+     * Con el original solo viajan los campos que cambiaron (ej: el stock)
      */
-    fun actualizarProducto(producto: com.example.labx.domain.model.Producto) {
+    fun actualizarProducto(producto: Producto, original: Producto? = null) {
+        if (original != null && producto.camposDistintos(original).isEmpty()) {
+            _aviso.value = "\"${producto.nombre}\" no tiene cambios"
+            return
+        }
         viewModelScope.launch {
-            repositorio.actualizarProducto(producto)
+            avisarResultado(producto.nombre, repositorio.actualizarProducto(producto, original))
         }
     }
     
     /**
      * Elimina un producto
      */
-    fun eliminarProducto(producto: com.example.labx.domain.model.Producto) {
+    fun eliminarProducto(producto: Producto) {
+        viewModelScope.launch {
+            avisarResultado(producto.nombre, repositorio.eliminarProducto(producto))
+        }
+    }
+    
+    /**
+     * Cierra un conflicto con la versión que eligió el admin
+     * (conflicto.local: conservar los míos; conflicto.servidor: descartarlos)
+     */
+    fun resolverConflicto(conflicto: ConflictoEdicion, elegido: Producto) {
         viewModelScope.launch {
-            repositorio.eliminarProducto(producto)
+            avisarResultado(elegido.nombre, repositorio.resolverConflicto(conflicto, elegido))
+        }
+    }
+    
+    /**
+     * El panel admin ya mostró el aviso
+     */
+    fun avisoMostrado() {
+        _aviso.value = null
+    }
+    
+    // Confirmado por el servidor: sin aviso, la lista ya muestra el cambio
+    // Conflicto: sin aviso, el panel muestra el diálogo para elegir
+    private fun avisarResultado(nombre: String, resultado: ResultadoApi<*>) {
+        _aviso.value = when {
+            resultado is ResultadoApi.Error && resultado.esConflictoDeVersion -> null
+            resultado is ResultadoApi.Error ->
+                "No se pudo guardar \"$nombre\": ${resultado.mensajeError}. Se deshizo el cambio"
+            resultado.esDeCache() ->
+                "\"$nombre\" se guardó en el teléfono; se enviará al servidor al refrescar"
+            else -> null
         }
     }
 }
@@ -108,7 +239,7 @@ class ProductoViewModel(
  * Con Factory:    ✅ ProductoViewModel(repositorio) // Funciona!
  */
 class ProductoViewModelFactory(
-    private val repositorio: ProductoRepositoryImpl
+    private val repositorio: RepositorioProductos
 ) : ViewModelProvider.Factory {
     
     @Suppress("UNCHECKED_CAST")
@@ -0,0 +1,62 @@
+package com.example.labx.data.local
+
+import android.app.Application
+import android.content.Context
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.example.labx.domain.model.EstadoSincronizacion
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Carga del catálogo semilla desde el asset real sobre Room en memoria
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ProductoInicializadorTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+
+    private val database = Room.inMemoryDatabaseBuilder(context, AppDatabase::class.java)
+        .allowMainThreadQueries()
+        .build()
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun semilla_seInsertaConLosValoresPorDefectoDeLaEntidad() = runBlocking {
+        ProductoInicializador.cargarSemilla(context, database)
+
+        val productos = database.productoDao().obtenerTodosLosProductos().first()
+        assertTrue(productos.isNotEmpty())
+        assertEquals("Catan", database.productoDao().obtenerProductoPorId(1)!!.nombre)
+        // Columnas que el JSON no trae: las del constructor, no null
+        productos.forEach { producto ->
+            assertEquals(EstadoSincronizacion.SINCRONIZADO, producto.estadoSincronizacion)
+            assertNull(producto.version)
+            assertNull(producto.actualizadoEn)
+        }
+    }
+
+    @Test
+    fun semilla_noPisaProductosExistentes() = runBlocking {
+        ProductoInicializador.cargarSemilla(context, database)
+        val dao = database.productoDao()
+        dao.actualizarStock(1, 0, EstadoSincronizacion.SINCRONIZADO, null)
+
+        ProductoInicializador.cargarSemilla(context, database)
+
+        assertEquals(0, dao.obtenerProductoPorId(1)!!.stock)
+    }
+}
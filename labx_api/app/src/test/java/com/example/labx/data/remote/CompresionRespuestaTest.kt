@@ -0,0 +1,140 @@
+package com.example.labx.data.remote
+
+import com.aayushatharva.brotli4j.Brotli4jLoader
+import com.aayushatharva.brotli4j.encoder.Encoder
+import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.data.remote.metricas.MetricasEventListener
+import com.example.labx.data.remote.metricas.RegistroMetricasRed
+import com.google.gson.Gson
+import kotlinx.coroutines.runBlocking
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import okio.GzipSink
+import okio.GzipSource
+import okio.buffer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+
+/**
+ * Compara gzip y Brotli en la descarga del catálogo contra un MockWebServer
+ *
+ * - Ambas codificaciones se decodifican al mismo catálogo
+ * - Se imprimen bytes en el cable y tiempo de decodificación de cada una
+ * - Los cuerpos marcados con @ComprimirCuerpo llegan con gzip al servidor
+ */
+class CompresionRespuestaTest {
+
+    private lateinit var servidor: MockWebServer
+    private lateinit var api: ProductoApiService
+
+    private val gson = Gson()
+    private val catalogo = List(2_000) { indice ->
+        ProductoDto(
+            identificador = indice,
+            titulo = "Producto $indice",
+            descripcion = "Descripción de ejemplo del producto $indice, elaborado a diario",
+            precio = "${1_000 + indice}.00",
+            urlImagen = "https://ejemplo.cl/imagenes/producto_$indice.jpg",
+            categoria = if (indice % 2 == 0) "Pasteles" else "Panes",
+            stock = indice % 50
+        )
+    }
+    private val catalogoJson = gson.toJson(catalogo).toByteArray()
+
+    @Before
+    fun setUp() {
+        servidor = MockWebServer()
+        servidor.start()
+
+        // Mismo perfil y listener que RetrofitClient, sin logging
+        val cliente = PerfilClienteHttp.PREDETERMINADO
+            .aplicar(OkHttpClient.Builder())
+            .eventListenerFactory(MetricasEventListener.FABRICA)
+            .addInterceptor(InterceptorCompresionCuerpo())
+            .build()
+
+        api = Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .client(cliente)
+            .addConverterFactory(GsonConverterFactory.create())
+            .build()
+            .create(ProductoApiService::class.java)
+
+        RegistroMetricasRed.reiniciar()
+    }
+
+    @After
+    fun tearDown() {
+        servidor.shutdown()
+    }
+
+    @Test
+    fun catalogo_gzipYBrotli_decodificanIgual() = runBlocking {
+        val gzip = Buffer().also { destino ->
+            GzipSink(destino).buffer().use { it.write(catalogoJson) }
+        }
+        Brotli4jLoader.ensureAvailability()
+        val brotli = Buffer().write(Encoder.compress(catalogoJson))
+
+        val resultadoGzip = descargar("gzip", gzip)
+        val resultadoBrotli = descargar("br", brotli)
+
+        assertEquals(catalogo, resultadoGzip.productos)
+        assertEquals(catalogo, resultadoBrotli.productos)
+        assertTrue(
+            "El cliente debe anunciar br",
+            servidor.takeRequest().getHeader("Accept-Encoding")!!.contains("br")
+        )
+
+        // Por el cable viaja menos que el JSON sin comprimir
+        assertTrue(
+            "gzip: ${resultadoGzip.bytesCable} de ${catalogoJson.size} bytes",
+            resultadoGzip.bytesCable < catalogoJson.size
+        )
+        assertTrue(
+            "br: ${resultadoBrotli.bytesCable} de ${catalogoJson.size} bytes",
+            resultadoBrotli.bytesCable < catalogoJson.size
+        )
+    }
+
+    @Test
+    fun cuerpoMarcado_seEnviaConGzip() = runBlocking {
+        servidor.enqueue(MockResponse().setBody(gson.toJson(catalogo.first())))
+
+        api.agregarProducto(catalogo.first())
+
+        val peticion = servidor.takeRequest()
+        assertEquals("gzip", peticion.getHeader("Content-Encoding"))
+        val enviado = GzipSource(peticion.body).buffer().readByteArray()
+        assertEquals(catalogo.first(), gson.fromJson(String(enviado), ProductoDto::class.java))
+        assertTrue(peticion.bodySize < enviado.size)
+    }
+
+    private suspend fun descargar(codificacion: String, cuerpo: Buffer): Descarga {
+        RegistroMetricasRed.reiniciar()
+        servidor.enqueue(
+            MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", codificacion)
+                .setBody(cuerpo)
+        )
+
+        val productos = api.obtenerTodosLosProductos().body().orEmpty()
+
+        val resumen = RegistroMetricasRed.instantanea().getValue("obtenerTodosLosProductos")
+        return Descarga(productos, resumen.bytesRecibidos)
+    }
+
+    private data class Descarga(
+        val productos: List<ProductoDto>,
+        val bytesCable: Long
+    )
+}
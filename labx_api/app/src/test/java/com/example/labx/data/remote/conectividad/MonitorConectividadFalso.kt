@@ -0,0 +1,20 @@
+package com.example.labx.data.remote.conectividad
+
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+
+/**
+ * Monitor de conectividad para tests: el estado se fija a mano
+ */
+class MonitorConectividadFalso(
+    inicial: EstadoConectividad = EstadoConectividad.WIFI
+) : MonitorConectividad {
+
+    private val _estado = MutableStateFlow(inicial)
+    override val estado: StateFlow<EstadoConectividad> = _estado.asStateFlow()
+
+    fun cambiar(nuevo: EstadoConectividad) {
+        _estado.value = nuevo
+    }
+}
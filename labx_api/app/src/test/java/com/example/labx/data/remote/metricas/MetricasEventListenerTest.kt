@@ -0,0 +1,48 @@
+package com.example.labx.data.remote.metricas
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Las llamadas sin Retrofit (imágenes de Coil en el cliente compartido)
+ * no crean un endpoint por URL
+ */
+class MetricasEventListenerTest {
+
+    private val servidor = MockWebServer()
+
+    private val cliente = OkHttpClient.Builder()
+        .eventListenerFactory(MetricasEventListener.FABRICA)
+        .build()
+
+    @Before
+    fun setUp() {
+        servidor.start()
+        RegistroMetricasRed.reiniciar()
+    }
+
+    @After
+    fun tearDown() {
+        servidor.shutdown()
+        RegistroMetricasRed.reiniciar()
+    }
+
+    @Test
+    fun imagenesConDistintaUrl_seAgrupanEnUnSoloEndpoint() {
+        repeat(3) { indice ->
+            servidor.enqueue(MockResponse().setBody("imagen $indice"))
+            val request = Request.Builder().url(servidor.url("/img/producto_$indice.jpg")).build()
+            cliente.newCall(request).execute().use { it.body!!.string() }
+        }
+
+        val instantanea = RegistroMetricasRed.instantanea()
+        assertEquals(setOf(MetricasEventListener.ENDPOINT_IMAGENES), instantanea.keys)
+        assertEquals(3L, instantanea.getValue(MetricasEventListener.ENDPOINT_IMAGENES).llamadas)
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.labx.data.remote.resiliencia
+
+import okhttp3.Call
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+import java.net.SocketTimeoutException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Reintentos y circuit breaker contra un MockWebServer que responde 503
+ * y respuestas lentas
+ *
+ * El reloj y las esperas son falsos: los tests no duermen de verdad.
+ */
+class ResilienciaTest {
+
+    private lateinit var servidor: MockWebServer
+    private var ahoraMs = 1_000_000L
+    private val esperas = mutableListOf<Long>()
+
+    @Before
+    fun setUp() {
+        servidor = MockWebServer()
+        servidor.start()
+    }
+
+    @After
+    fun tearDown() {
+        servidor.shutdown()
+    }
+
+    private fun crearCliente(
+        circuito: InterceptorCircuito = InterceptorCircuito(reloj = { ahoraMs })
+    ): OkHttpClient {
+        return OkHttpClient.Builder()
+            .addInterceptor(circuito)
+            .addInterceptor(InterceptorReintentos(reloj = { ahoraMs }, dormir = { esperas.add(it) }))
+            .readTimeout(200, TimeUnit.MILLISECONDS)
+            .build()
+    }
+
+    private fun get(cliente: OkHttpClient): Int {
+        val request = Request.Builder().url(servidor.url("/api/productos")).build()
+        return cliente.newCall(request).execute().use { it.code }
+    }
+
+    @Test
+    fun get_con503_reintentaConBackoffHastaExito() {
+        servidor.enqueue(MockResponse().setResponseCode(503))
+        servidor.enqueue(MockResponse().setResponseCode(503))
+        servidor.enqueue(MockResponse().setBody("[]"))
+
+        assertEquals(200, get(crearCliente()))
+        assertEquals(3, servidor.requestCount)
+        assertEquals(2, esperas.size)
+        // Jitter acotado por base * 2^intento
+        assertTrue(esperas[0] in 0..300)
+        assertTrue(esperas[1] in 0..600)
+    }
+
+    @Test
+    fun get_con503_respetaRetryAfter() {
+        servidor.enqueue(MockResponse().setResponseCode(503).setHeader("Retry-After", "2"))
+        servidor.enqueue(MockResponse().setBody("[]"))
+
+        assertEquals(200, get(crearCliente()))
+        assertEquals(listOf(2_000L), esperas)
+    }
+
+    @Test
+    fun get_retryAfterMuyLargo_noReintenta() {
+        servidor.enqueue(MockResponse().setResponseCode(503).setHeader("Retry-After", "120"))
+
+        assertEquals(503, get(crearCliente()))
+        assertEquals(1, servidor.requestCount)
+        assertTrue(esperas.isEmpty())
+    }
+
+    @Test
+    fun get_esperaMayorQueElTimeoutRestante_noReintenta() {
+        servidor.enqueue(MockResponse().setResponseCode(503).setHeader("Retry-After", "2"))
+        val cliente = crearCliente().newBuilder().callTimeout(1, TimeUnit.SECONDS).build()
+
+        assertEquals(503, get(cliente))
+        assertEquals(1, servidor.requestCount)
+        assertTrue(esperas.isEmpty())
+    }
+
+    @Test
+    fun get_canceladaDuranteLaEspera_noVuelveAPedir() {
+        servidor.enqueue(MockResponse().setResponseCode(503))
+        servidor.enqueue(MockResponse().setBody("[]"))
+        lateinit var llamada: Call
+        val cliente = OkHttpClient.Builder()
+            .addInterceptor(InterceptorReintentos(dormir = { llamada.cancel() }))
+            .build()
+        llamada = cliente.newCall(Request.Builder().url(servidor.url("/api/productos")).build())
+
+        try {
+            llamada.execute()
+            fail("Se esperaba la cancelación")
+        } catch (excepcion: IOException) {
+            assertEquals(1, servidor.requestCount)
+        }
+    }
+
+    @Test
+    fun post_con503_noSeReintenta() {
+        servidor.enqueue(MockResponse().setResponseCode(503))
+
+        val request = Request.Builder()
+            .url(servidor.url("/api/productos"))
+            .post("{}".toRequestBody())
+            .build()
+        val codigo = crearCliente().newCall(request).execute().use { it.code }
+
+        assertEquals(503, codigo)
+        assertEquals(1, servidor.requestCount)
+    }
+
+    @Test
+    fun respuestaLenta_noSeReintentaTrasTimeout() {
+        servidor.enqueue(MockResponse().setBody("[]").setHeadersDelay(1, TimeUnit.SECONDS))
+
+        try {
+            get(crearCliente())
+            fail("Se esperaba timeout")
+        } catch (excepcion: SocketTimeoutException) {
+            assertEquals(1, servidor.requestCount)
+        }
+    }
+
+    @Test
+    fun circuito_seAbreTrasFallosYCortaSinIrALaRed() {
+        val circuito = InterceptorCircuito(umbralFallos = 2, enfriamientoMs = 30_000, reloj = { ahoraMs })
+        val cliente = crearCliente(circuito)
+        repeat(6) { servidor.enqueue(MockResponse().setResponseCode(503)) }
+
+        // Cada llamada agota 3 intentos y cuenta como un fallo
+        get(cliente)
+        get(cliente)
+        assertEquals(InterceptorCircuito.Estado.ABIERTO, circuito.estado(servidor.hostName))
+        val llamadasAlServidor = servidor.requestCount
+
+        try {
+            get(cliente)
+            fail("Se esperaba CircuitoAbiertoException")
+        } catch (excepcion: CircuitoAbiertoException) {
+            assertEquals(llamadasAlServidor, servidor.requestCount)
+        }
+
+        // Pasado el enfriamiento, una llamada de prueba exitosa cierra el circuito
+        ahoraMs += 30_000
+        servidor.enqueue(MockResponse().setBody("[]"))
+        assertEquals(200, get(cliente))
+        assertEquals(InterceptorCircuito.Estado.CERRADO, circuito.estado(servidor.hostName))
+    }
+
+    @Test
+    fun circuito_pruebaFallida_vuelveAAbrirse() {
+        val circuito = InterceptorCircuito(umbralFallos = 1, enfriamientoMs = 10_000, reloj = { ahoraMs })
+        val cliente = crearCliente(circuito)
+        repeat(6) { servidor.enqueue(MockResponse().setResponseCode(503)) }
+
+        get(cliente)
+        ahoraMs += 10_000
+        get(cliente)
+
+        assertEquals(InterceptorCircuito.Estado.ABIERTO, circuito.estado(servidor.hostName))
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.labx.data.repository
+
+import androidx.room.Room
+import androidx.test.core.app.ApplicationProvider
+import com.example.labx.data.local.AppDatabase
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.conectividad.EstadoConectividad
+import com.example.labx.data.remote.conectividad.MonitorConectividadFalso
+import com.example.labx.data.remote.metricas.MetricasEventListener
+import com.example.labx.data.remote.metricas.RegistroMetricasRed
+import com.example.labx.data.remote.metricas.ResumenEndpoint
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.toList
+import okhttp3.Dns
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.QueueDispatcher
+import okhttp3.mockwebserver.SocketPolicy
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+import java.io.Closeable
+import java.net.UnknownHostException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Arnés para probar ProductoRepositoryImpl de punta a punta en la JVM
+ *
+ * - AppDatabase en memoria (Room real, SQLite de Robolectric)
+ * - MockWebServer en lugar del backend de Railway, con latencia y
+ *   ancho de banda configurables por respuesta
+ * - OkHttp con MetricasEventListener: bytes y tiempos por endpoint
+ *   quedan en RegistroMetricasRed, igual que en la app
+ * - sinDns = true simula un teléfono sin DNS (UnknownHostException)
+ *
+ * Los tests que lo usan necesitan @RunWith(RobolectricTestRunner::class)
+ */
+class ArnesRepositorio(
+    estadoRed: EstadoConectividad = EstadoConectividad.WIFI
+) : Closeable {
+
+    // Una petición de más recibe 404 al instante (en vez de colgar el test)
+    // y queda contada en llamadas
+    val servidor = MockWebServer().apply {
+        (dispatcher as QueueDispatcher).setFailFast(true)
+        start()
+    }
+
+    val database: AppDatabase = Room.inMemoryDatabaseBuilder(
+        ApplicationProvider.getApplicationContext(),
+        AppDatabase::class.java
+    ).allowMainThreadQueries().build()
+
+    val monitor = MonitorConectividadFalso(estadoRed)
+
+    @Volatile
+    var sinDns = false
+
+    private val cliente = OkHttpClient.Builder()
+        .dns { host -> if (sinDns) throw UnknownHostException(host) else Dns.SYSTEM.lookup(host) }
+        .eventListenerFactory(MetricasEventListener.FABRICA)
+        .readTimeout(5, TimeUnit.SECONDS)
+        .build()
+
+    val api: ProductoApiService = Retrofit.Builder()
+        .baseUrl(servidor.url("/"))
+        .client(cliente)
+        .addConverterFactory(GsonConverterFactory.create())
+        .build()
+        .create(ProductoApiService::class.java)
+
+    val repositorio = ProductoRepositoryImpl(
+        productoDao = database.productoDao(),
+        apiService = api,
+        monitorConectividad = monitor
+    )
+
+    init {
+        RegistroMetricasRed.reiniciar()
+    }
+
+    /**
+     * Peticiones que llegaron al servidor
+     */
+    val llamadas: Int
+        get() = servidor.requestCount
+
+    suspend fun sembrar(vararg productos: ProductoEntity) {
+        database.productoDao().insertarProductos(productos.toList())
+    }
+
+    suspend fun filasEnRoom(): List<ProductoEntity> =
+        database.productoDao().obtenerTodosLosProductos().first().sortedBy { it.id }
+
+    fun metricas(endpoint: String): ResumenEndpoint? = RegistroMetricasRed.instantanea()[endpoint]
+
+    /**
+     * Encola una respuesta 200
+     *
+     * @param latenciaMs Espera antes de enviar los headers (tiempo al primer byte)
+     * @param bytesPorSegundo Limita la velocidad del cuerpo (null: sin límite)
+     */
+    fun responder(cuerpo: String, latenciaMs: Long = 0, bytesPorSegundo: Long? = null) {
+        val respuesta = MockResponse()
+            .setBody(cuerpo)
+            .setHeadersDelay(latenciaMs, TimeUnit.MILLISECONDS)
+        if (bytesPorSegundo != null) {
+            // En bloques de 100 ms para que el límite sea parejo
+            respuesta.throttleBody(bytesPorSegundo / 10, 100, TimeUnit.MILLISECONDS)
+        }
+        servidor.enqueue(respuesta)
+    }
+
+    fun responderCodigo(codigo: Int) {
+        servidor.enqueue(MockResponse().setResponseCode(codigo))
+    }
+
+    /**
+     * El servidor corta la conexión después de leer la petición (IOException)
+     *
+     * Se encola dos veces: OkHttp reintenta una vez por su cuenta
+     * (retryOnConnectionFailure) antes de entregar la excepción
+     */
+    fun cortarConexion() {
+        repeat(2) {
+            servidor.enqueue(MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST))
+        }
+    }
+
+    override fun close() {
+        database.close()
+        servidor.shutdown()
+    }
+
+    companion object {
+        /**
+         * Catálogo liviano como lo devuelve api/productos?fields=...
+         */
+        fun catalogoJson(cantidad: Int, desde: Int = 1): String =
+            (desde until desde + cantidad).joinToString(prefix = "[", postfix = "]") { id ->
+                """{"id":$id,"nombre":"Producto $id","precio":"${1000 + id}.00","imagen":"img$id","categoria_nombre":"Cat","stock":${id % 7}}"""
+            }
+
+        fun productoJson(id: Int, descripcion: String): String =
+            """{"id":$id,"nombre":"Producto $id","descripcion":"$descripcion","precio":"${1000 + id}.00","imagen":"img$id","categoria_nombre":"Cat","stock":3}"""
+    }
+}
+
+/**
+ * Emisiones con el tiempo (ms) desde que empezó la recolección
+ */
+suspend fun <T> Flow<T>.conTiempos(): List<Pair<Long, T>> {
+    val inicio = System.nanoTime()
+    return map { (System.nanoTime() - inicio) / 1_000_000 to it }.toList()
+}
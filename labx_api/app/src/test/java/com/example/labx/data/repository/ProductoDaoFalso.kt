@@ -0,0 +1,133 @@
+package com.example.labx.data.repository
+
+import com.example.labx.data.local.dao.NombreProducto
+import com.example.labx.data.local.dao.ProductoDao
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.ProductoResumen
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.map
+
+/**
+ * ProductoDao en memoria para tests JVM del repositorio
+ */
+class ProductoDaoFalso(iniciales: List<ProductoEntity> = emptyList()) : ProductoDao {
+
+    private val filas = MutableStateFlow(iniciales.associateBy { it.id })
+
+    private fun ordenadas() = filas.value.values.sortedBy { it.nombre }
+
+    override fun obtenerTodosLosProductos(): Flow<List<ProductoEntity>> =
+        filas.map { mapa ->
+            mapa.values
+                .filter { it.estadoSincronizacion != EstadoSincronizacion.ELIMINACION_PENDIENTE }
+                .sortedBy { it.nombre }
+        }
+
+    override fun obtenerResumenes(): Flow<List<ProductoResumen>> =
+        obtenerTodosLosProductos().map { lista ->
+            lista.map { ProductoResumen(it.id, it.nombre, it.precio, it.imagenUrl, it.categoria, it.stock) }
+        }
+
+    override suspend fun contarProductos(): Int = filas.value.size
+
+    override suspend fun obtenerProductoPorId(id: Int): ProductoEntity? = filas.value[id]
+
+    override fun observarProductoPorId(id: Int): Flow<ProductoEntity?> = filas.map { it[id] }
+
+    override suspend fun insertarProductos(productos: List<ProductoEntity>) {
+        filas.value = filas.value + productos.associateBy { it.id }
+    }
+
+    override suspend fun insertarProductosSiNoExisten(productos: List<ProductoEntity>) {
+        filas.value = productos.associateBy { it.id } + filas.value
+    }
+
+    // id = 0: autogenerado como en Room (máximo + 1)
+    override suspend fun insertarProducto(producto: ProductoEntity): Long {
+        val id = if (producto.id == 0) (filas.value.keys.maxOrNull() ?: 0) + 1 else producto.id
+        insertarProductos(listOf(producto.copy(id = id)))
+        return id.toLong()
+    }
+
+    override suspend fun actualizarResumenes(resumenes: List<ProductoResumen>) {
+        filas.value = filas.value.mapValues { (id, fila) ->
+            resumenes.find { it.id == id }?.let { resumen ->
+                fila.copy(
+                    nombre = resumen.nombre,
+                    precio = resumen.precio,
+                    imagenUrl = resumen.imagenUrl,
+                    categoria = resumen.categoria,
+                    stock = resumen.stock
+                )
+            } ?: fila
+        }
+    }
+
+    override suspend fun actualizarStock(id: Int, stock: Int, estado: EstadoSincronizacion, campos: String?) {
+        filas.value[id]?.let { actualizarProducto(it.copy(stock = stock, estadoSincronizacion = estado, camposPendientes = campos)) }
+    }
+
+    override suspend fun actualizarPrecio(id: Int, precio: Double, estado: EstadoSincronizacion, campos: String?) {
+        filas.value[id]?.let { actualizarProducto(it.copy(precio = precio, estadoSincronizacion = estado, camposPendientes = campos)) }
+    }
+
+    override suspend fun confirmarVersion(id: Int, version: Int?, actualizadoEn: String?) {
+        filas.value[id]?.let {
+            actualizarProducto(
+                it.copy(
+                    version = version,
+                    actualizadoEn = actualizadoEn,
+                    estadoSincronizacion = EstadoSincronizacion.SINCRONIZADO,
+                    camposPendientes = null
+                )
+            )
+        }
+    }
+
+    override suspend fun actualizarProducto(producto: ProductoEntity) {
+        if (producto.id in filas.value) insertarProductos(listOf(producto))
+    }
+
+    override suspend fun eliminarProducto(producto: ProductoEntity) {
+        filas.value = filas.value - producto.id
+    }
+
+    override suspend fun obtenerPendientes(): List<ProductoEntity> =
+        filas.value.values.filter { it.estadoSincronizacion.pendiente }
+
+    override suspend fun obtenerIdsPendientes(): List<Int> = obtenerPendientes().map { it.id }
+
+    override suspend fun marcarEstado(id: Int, estado: EstadoSincronizacion) {
+        filas.value[id]?.let { insertarProductos(listOf(it.copy(estadoSincronizacion = estado))) }
+    }
+
+    override suspend fun eliminarPorId(id: Int) {
+        filas.value = filas.value - id
+    }
+
+    override suspend fun obtenerNombresSincronizados(): List<NombreProducto> =
+        filas.value.values
+            .filter { it.estadoSincronizacion == EstadoSincronizacion.SINCRONIZADO }
+            .map { NombreProducto(it.id, it.nombre) }
+
+    override suspend fun eliminarPorIds(ids: List<Int>) {
+        filas.value = filas.value - ids.toSet()
+    }
+
+    override suspend fun vaciarDescripciones(ids: List<Int>) {
+        filas.value = filas.value.mapValues { (id, fila) -> if (id in ids) fila.copy(descripcion = "") else fila }
+    }
+
+    override suspend fun obtenerIdMinimo(): Int? = filas.value.keys.minOrNull()
+
+    // Sin tabla carrito
+    override suspend fun reasignarEnCarrito(idLocal: Int, idServidor: Int) = Unit
+
+    override suspend fun eliminarTodosLosProductos() {
+        filas.value = emptyMap()
+    }
+
+    fun todas(): List<ProductoEntity> = ordenadas()
+}
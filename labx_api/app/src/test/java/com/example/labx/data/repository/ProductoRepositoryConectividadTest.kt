@@ -0,0 +1,109 @@
+package com.example.labx.data.repository
+
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.conectividad.EstadoConectividad
+import com.example.labx.data.remote.conectividad.MonitorConectividadFalso
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.obtenerDatosONull
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+
+/**
+ * El repositorio decide si intenta la red según MonitorConectividad
+ */
+class ProductoRepositoryConectividadTest {
+
+    private lateinit var servidor: MockWebServer
+    private lateinit var api: ProductoApiService
+
+    private val enCache = ProductoEntity(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15)
+    private val catalogoJson = """
+        [{"id":1,"nombre":"Catan","precio":"27990.00","imagen":"catan","categoria_nombre":"Juegos de Mesa","stock":12},
+         {"id":2,"nombre":"Dixit","precio":"24990.00","imagen":"dixit","categoria_nombre":"Juegos de Mesa","stock":4}]
+    """.trimIndent()
+
+    @Before
+    fun setUp() {
+        servidor = MockWebServer()
+        servidor.start()
+        api = Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create())
+            .build()
+            .create(ProductoApiService::class.java)
+    }
+
+    @After
+    fun tearDown() {
+        servidor.shutdown()
+    }
+
+    private fun repositorio(dao: ProductoDaoFalso, estado: EstadoConectividad) =
+        ProductoRepositoryImpl(dao, api, MonitorConectividadFalso(estado))
+
+    @Test
+    fun sinConexion_usaCacheSinLlamarALaApi() = runBlocking {
+        val repositorio = repositorio(ProductoDaoFalso(listOf(enCache)), EstadoConectividad.SIN_CONEXION)
+
+        val resultado = repositorio.refrescarProductos()
+
+        assertEquals(OrigenDatos.CACHE, (resultado as ResultadoApi.Exito).metadatos.origen)
+        assertEquals(listOf("Catan"), repositorio.observarProductos().first().map { it.nombre })
+        assertEquals(0, servidor.requestCount)
+    }
+
+    @Test
+    fun sinConexion_detalleSaleDeCache() = runBlocking {
+        val producto = repositorio(ProductoDaoFalso(listOf(enCache)), EstadoConectividad.SIN_CONEXION)
+            .obtenerProductoPorId(1)
+            .obtenerDatosONull()
+
+        assertEquals("Juego de mesa", producto?.descripcion)
+        assertEquals(0, servidor.requestCount)
+    }
+
+    @Test
+    fun redMedidaConCache_difiereLaDescargaDelCatalogo() = runBlocking {
+        repositorio(ProductoDaoFalso(listOf(enCache)), EstadoConectividad.DATOS_MOVILES)
+            .refrescarProductos()
+
+        assertEquals(0, servidor.requestCount)
+    }
+
+    @Test
+    fun redMedidaSinCache_descargaIgual() = runBlocking {
+        servidor.enqueue(MockResponse().setBody(catalogoJson))
+
+        val dao = ProductoDaoFalso()
+
+        val recibidos = repositorio(dao, EstadoConectividad.DATOS_MOVILES)
+            .refrescarProductos().obtenerDatosONull()
+
+        assertEquals(1, servidor.requestCount)
+        assertEquals(2, recibidos)
+        assertEquals(2, dao.todas().size)
+    }
+
+    @Test
+    fun wifi_descargaYConservaDescripcionEnCache() = runBlocking {
+        servidor.enqueue(MockResponse().setBody(catalogoJson))
+        val dao = ProductoDaoFalso(listOf(enCache))
+
+        repositorio(dao, EstadoConectividad.WIFI).refrescarProductos()
+
+        val catan = dao.todas().first { it.id == 1 }
+        assertEquals(12, catan.stock)
+        assertEquals("Juego de mesa", catan.descripcion)
+        assertEquals(2, dao.todas().size)
+    }
+}
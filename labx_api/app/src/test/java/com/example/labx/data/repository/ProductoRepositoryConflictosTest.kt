@@ -0,0 +1,128 @@
+package com.example.labx.data.repository
+
+import android.app.Application
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.domain.model.CampoProducto
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.Producto
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Dos admins, cada uno con su teléfono (Room propio), editando el mismo
+ * producto contra un solo backend con versiones (ServidorProductosFalso)
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ProductoRepositoryConflictosTest {
+
+    private val servidor = ServidorProductosFalso(
+        ProductoDto(1, "Catan", "Juego de mesa", "29990.0", "catan", "Juegos de Mesa", 15, version = 1)
+    )
+
+    private val adminA = ArnesRepositorio().also { it.servidor.dispatcher = servidor }
+    private val adminB = ArnesRepositorio().also { it.servidor.dispatcher = servidor }
+
+    @After
+    fun tearDown() {
+        adminA.close()
+        adminB.close()
+    }
+
+    @Test
+    fun camposDistintos_seFusionanSinPreguntar() = runBlocking {
+        val catanA = abrir(adminA)
+        val catanB = abrir(adminB)
+
+        adminB.repositorio.actualizarProducto(catanB.copy(precio = 24990.0)) as ResultadoApi.Exito
+        val resultado = adminA.repositorio.actualizarProducto(catanA.copy(stock = 3)) as ResultadoApi.Exito
+
+        assertEquals(OrigenDatos.RED, resultado.metadatos.origen)
+        assertEquals(1, servidor.rechazosPorVersion.get())
+        val final = servidor.producto(1)!!
+        assertEquals(3, final.stock)
+        assertEquals("24990.0", final.precio)
+        assertEquals(3, final.version)
+        // El teléfono de A queda con la versión fusionada del servidor
+        val filaA = adminA.database.productoDao().obtenerProductoPorId(1)!!
+        assertEquals(24990.0, filaA.precio, 0.0)
+        assertEquals(3, filaA.version)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, filaA.estadoSincronizacion)
+        assertTrue(adminA.repositorio.observarConflictos().first().isEmpty())
+    }
+
+    @Test
+    fun mismoCampo_quedaEnConflictoYSeConservanLosPropios() = runBlocking {
+        val catanA = abrir(adminA)
+        val catanB = abrir(adminB)
+
+        adminB.repositorio.actualizarProducto(catanB.copy(stock = 7))
+        val resultado = adminA.repositorio.actualizarProducto(catanA.copy(stock = 3))
+
+        assertEquals(412, (resultado as ResultadoApi.Error).codigoHttp)
+        assertEquals(7, servidor.producto(1)!!.stock)
+        val conflicto = adminA.repositorio.observarConflictos().first().single()
+        assertEquals(setOf(CampoProducto.STOCK), conflicto.campos)
+        assertEquals(7, conflicto.servidor.stock)
+        val filaA = adminA.database.productoDao().obtenerProductoPorId(1)!!
+        assertEquals(3, filaA.stock)
+        assertEquals(EstadoSincronizacion.CONFLICTO, filaA.estadoSincronizacion)
+
+        adminA.repositorio.resolverConflicto(conflicto, conflicto.local) as ResultadoApi.Exito
+
+        assertEquals(3, servidor.producto(1)!!.stock)
+        assertEquals(3, servidor.producto(1)!!.version)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, adminA.database.productoDao().obtenerProductoPorId(1)!!.estadoSincronizacion)
+        assertTrue(adminA.repositorio.observarConflictos().first().isEmpty())
+    }
+
+    @Test
+    fun usarLosDelServidor_descartaElCambioSinLlamarALaApi() = runBlocking {
+        val catanA = abrir(adminA)
+        adminB.repositorio.actualizarProducto(abrir(adminB).copy(stock = 7))
+        adminA.repositorio.actualizarProducto(catanA.copy(stock = 3))
+        val conflicto = adminA.repositorio.observarConflictos().first().single()
+        val llamadas = adminA.llamadas
+
+        adminA.repositorio.resolverConflicto(conflicto, conflicto.servidor)
+
+        assertEquals(llamadas, adminA.llamadas)
+        val filaA = adminA.database.productoDao().obtenerProductoPorId(1)!!
+        assertEquals(7, filaA.stock)
+        assertEquals(2, filaA.version)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, filaA.estadoSincronizacion)
+    }
+
+    @Test
+    fun escriturasSimultaneas_ningunCambioSePierde() = runBlocking {
+        val catanA = abrir(adminA)
+        val catanB = abrir(adminB)
+
+        val a = async(Dispatchers.IO) { adminA.repositorio.actualizarProducto(catanA.copy(stock = 3)) }
+        val b = async(Dispatchers.IO) { adminB.repositorio.actualizarProducto(catanB.copy(nombre = "Catan 2")) }
+
+        assertTrue(a.await() is ResultadoApi.Exito)
+        assertTrue(b.await() is ResultadoApi.Exito)
+        val final = servidor.producto(1)!!
+        assertEquals(3, final.stock)
+        assertEquals("Catan 2", final.titulo)
+        assertEquals(3, final.version)
+    }
+
+    /**
+     * El admin abre el producto (detalle o formulario): queda en su Room con la versión
+     */
+    private suspend fun abrir(admin: ArnesRepositorio): Producto =
+        (admin.repositorio.obtenerProductoPorId(1) as ResultadoApi.Exito).datos
+}
@@ -0,0 +1,189 @@
+package com.example.labx.data.repository
+
+import android.app.Application
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.conectividad.EstadoConectividad
+import com.example.labx.domain.model.EstadoSincronizacion
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Contrato de ProductoRepositoryImpl contra Room en memoria y un
+ * servidor HTTP falso (ver ArnesRepositorio)
+ *
+ * Además del resultado se verifica el costo: cantidad de llamadas,
+ * bytes recibidos, tiempo hasta la primera emisión de Room y lo que
+ * quedó en Room (write-through).
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ProductoRepositoryContratoTest {
+
+    private val arnes = ArnesRepositorio()
+
+    private val catan = ProductoEntity(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15)
+
+    @After
+    fun tearDown() {
+        arnes.close()
+    }
+
+    @Test
+    fun apiExitosa_unaLlamadaYFusionEnRoom() = runBlocking {
+        arnes.sembrar(catan.copy(nombre = "Producto 1"))
+        val json = ArnesRepositorio.catalogoJson(3)
+        arnes.responder(json)
+
+        val red = arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(1, arnes.llamadas)
+        assertEquals(OrigenDatos.RED, red.metadatos.origen)
+        assertEquals(3, red.datos)
+
+        // Write-through: la fila existente conserva la descripción, el resto llega sin ella
+        val filas = arnes.filasEnRoom()
+        assertEquals(listOf(1, 2, 3), filas.map { it.id })
+        assertEquals("Juego de mesa", filas[0].descripcion)
+        assertEquals(1001.0, filas[0].precio, 0.0)
+
+        val metricas = arnes.metricas("obtenerCatalogoResumido")!!
+        assertEquals(1L, metricas.llamadas)
+        assertTrue(metricas.bytesRecibidos >= json.length)
+    }
+
+    @Test
+    fun refresco_eliminaLoQueElServidorYaNoTieneSalvoLosPendientes() = runBlocking {
+        val pendiente = catan.copy(
+            id = 3,
+            nombre = "Dixit",
+            estadoSincronizacion = EstadoSincronizacion.ACTUALIZACION_PENDIENTE,
+            camposPendientes = "STOCK"
+        )
+        arnes.sembrar(catan.copy(nombre = "Producto 1"), catan.copy(id = 2, nombre = "Carcassonne"), pendiente)
+        // El PATCH del pendiente falla: sigue pendiente durante la fusión
+        arnes.responderCodigo(503)
+        arnes.responder(ArnesRepositorio.catalogoJson(1))
+
+        arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        val filas = arnes.filasEnRoom()
+        assertEquals(listOf(1, 3), filas.map { it.id })
+        assertEquals(pendiente, filas[1])
+    }
+
+    @Test
+    fun refresco_otroProductoConElMismoId_descartaLaDescripcionVieja() = runBlocking {
+        // Fila del catálogo semilla; el servidor usa el ID 1 para otro producto
+        arnes.sembrar(catan)
+        arnes.responder(ArnesRepositorio.catalogoJson(1))
+
+        arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        val fila = arnes.filasEnRoom().single()
+        assertEquals("Producto 1", fila.nombre)
+        assertEquals("", fila.descripcion)
+    }
+
+    @Test
+    fun cache_seEmiteSinEsperarALaRed() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.responder(ArnesRepositorio.catalogoJson(1), latenciaMs = 800)
+
+        val refresco = async(Dispatchers.IO) { arnes.repositorio.refrescarProductos() }
+        val emisiones = arnes.repositorio.observarProductos().take(2).conTiempos()
+        refresco.await()
+
+        val (msCache, cache) = emisiones.first()
+        assertEquals(listOf("Catan"), cache.map { it.nombre })
+        assertTrue("La cache tardó $msCache ms", msCache < 400)
+        assertTrue(emisiones.last().first >= 700)
+        assertEquals(listOf("Producto 1"), emisiones.last().second.map { it.nombre })
+    }
+
+    @Test
+    fun respuestaLenta_laLatenciaReportadaIncluyeElCuerpo() = runBlocking {
+        val json = ArnesRepositorio.catalogoJson(50)
+        // ~0,5 s para transferir el cuerpo completo
+        arnes.responder(json, bytesPorSegundo = json.length * 2L)
+
+        val red = arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(50, red.datos)
+        assertTrue("latencia ${red.metadatos.latenciaMs} ms", red.metadatos.latenciaMs!! >= 400)
+        assertEquals(50, arnes.filasEnRoom().size)
+    }
+
+    @Test
+    fun errorHttp_conservaRoomYNoReintenta() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.responderCodigo(503)
+
+        val error = arnes.repositorio.refrescarProductos() as ResultadoApi.Error
+
+        assertEquals(503, error.codigoHttp)
+        assertEquals(1, arnes.llamadas)
+        assertEquals(listOf(catan), arnes.filasEnRoom())
+    }
+
+    @Test
+    fun sinDns_errorSinConexionYNingunaPeticion() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.sinDns = true
+
+        val error = arnes.repositorio.refrescarProductos() as ResultadoApi.Error
+
+        assertEquals("Sin conexión a internet", error.mensajeError)
+        assertEquals(0, arnes.llamadas)
+        assertEquals(listOf(catan), arnes.filasEnRoom())
+    }
+
+    @Test
+    fun conexionCortada_errorDeRedYRoomIntacto() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.cortarConexion()
+
+        val error = arnes.repositorio.refrescarProductos() as ResultadoApi.Error
+
+        assertTrue(error.mensajeError, error.mensajeError.startsWith("Error de red"))
+        assertEquals(listOf(catan), arnes.filasEnRoom())
+    }
+
+    @Test
+    fun sinConexion_noTocaElServidor() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.monitor.cambiar(EstadoConectividad.SIN_CONEXION)
+
+        val resultado = arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(0, arnes.llamadas)
+        assertEquals(OrigenDatos.CACHE, resultado.metadatos.origen)
+        assertEquals(listOf("Catan"), arnes.repositorio.observarProductos().first().map { it.nombre })
+    }
+
+    @Test
+    fun detalle_guardaLaDescripcionYLuegoSirveDesdeCache() = runBlocking {
+        arnes.responder(ArnesRepositorio.productoJson(7, "Descripción completa"))
+        arnes.responderCodigo(500)
+
+        val desdeRed = arnes.repositorio.obtenerProductoPorId(7) as ResultadoApi.Exito
+        assertEquals(OrigenDatos.RED, desdeRed.metadatos.origen)
+        assertEquals("Descripción completa", arnes.filasEnRoom().single().descripcion)
+
+        val desdeCache = arnes.repositorio.obtenerProductoPorId(7) as ResultadoApi.Exito
+        assertEquals(OrigenDatos.CACHE, desdeCache.metadatos.origen)
+        assertEquals("Descripción completa", desdeCache.datos.descripcion)
+        assertEquals(2, arnes.llamadas)
+    }
+}
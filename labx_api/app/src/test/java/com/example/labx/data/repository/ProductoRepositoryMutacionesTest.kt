@@ -0,0 +1,339 @@
+package com.example.labx.data.repository
+
+import android.app.Application
+import com.example.labx.data.local.entity.CarritoEntity
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.local.entity.toProducto
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.conectividad.EstadoConectividad
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.data.remote.esDeCache
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.Producto
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Cambios optimistas del admin: Room cambia antes que la API y se
+ * deshace solo si el servidor rechaza el cambio (ver RepositorioProductos)
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class ProductoRepositoryMutacionesTest {
+
+    private val arnes = ArnesRepositorio()
+
+    private val dao = arnes.database.productoDao()
+
+    private val catan = ProductoEntity(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15)
+
+    private val nuevo = Producto(0, "Producto 500", "Nuevo", 1500.0, "img500", "Cat", 3)
+
+    private val catanDto = ProductoDto(1, "Catan", "Juego de mesa", "29990.0", "catan", "Juegos de Mesa", 15, version = 1)
+
+    @After
+    fun tearDown() {
+        arnes.close()
+    }
+
+    @Test
+    fun crear_reemplazaElIdLocalPorElDelServidor() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.responder(ArnesRepositorio.productoJson(500, "Nuevo"))
+
+        val resultado = arnes.repositorio.insertarProducto(nuevo) as ResultadoApi.Exito
+
+        assertEquals(OrigenDatos.RED, resultado.metadatos.origen)
+        assertEquals(500, resultado.datos.id)
+        assertEquals("POST", arnes.servidor.takeRequest().method)
+        // Sin copia con el ID local: una sola fila nueva, ya sincronizada
+        val filas = arnes.filasEnRoom()
+        assertEquals(listOf(1, 500), filas.map { it.id })
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, filas[1].estadoSincronizacion)
+    }
+
+    @Test
+    fun crear_sinRed_quedaPendienteYSeEnviaAlRefrescar() = runBlocking {
+        arnes.monitor.cambiar(EstadoConectividad.SIN_CONEXION)
+
+        val resultado = arnes.repositorio.insertarProducto(nuevo)
+
+        assertTrue(resultado.esDeCache())
+        assertEquals(0, arnes.llamadas)
+        val pendiente = arnes.filasEnRoom().single()
+        assertEquals(EstadoSincronizacion.CREACION_PENDIENTE, pendiente.estadoSincronizacion)
+        assertEquals(-1, pendiente.id)
+
+        arnes.monitor.cambiar(EstadoConectividad.WIFI)
+        arnes.responder(ArnesRepositorio.productoJson(500, "Nuevo"))
+        arnes.responder(ArnesRepositorio.catalogoJson(1, desde = 500))
+
+        arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(2, arnes.llamadas)
+        val filas = arnes.filasEnRoom()
+        assertEquals(listOf(500), filas.map { it.id })
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, filas[0].estadoSincronizacion)
+    }
+
+    @Test
+    fun refrescarConUnaCreacionEnCurso_noRepiteElPost() = runBlocking {
+        arnes.responder(ArnesRepositorio.productoJson(500, "Nuevo"), latenciaMs = 500)
+        arnes.responder(ArnesRepositorio.catalogoJson(1, desde = 500))
+
+        val creacion = async(Dispatchers.IO) { arnes.repositorio.insertarProducto(nuevo) }
+        // El POST ya salió y espera la respuesta; la fila sigue pendiente
+        assertEquals("POST", arnes.servidor.takeRequest().method)
+        arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(500, (creacion.await() as ResultadoApi.Exito).datos.id)
+        assertEquals("GET", arnes.servidor.takeRequest().method)
+        assertEquals(2, arnes.llamadas)
+        val filas = arnes.filasEnRoom()
+        assertEquals(listOf(500), filas.map { it.id })
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, filas[0].estadoSincronizacion)
+    }
+
+    @Test
+    fun refrescoCanceladoConElReenvioEnCurso_igualConfirmaLaCreacion() = runBlocking {
+        arnes.monitor.cambiar(EstadoConectividad.SIN_CONEXION)
+        arnes.repositorio.insertarProducto(nuevo)
+        arnes.monitor.cambiar(EstadoConectividad.WIFI)
+        arnes.responder(ArnesRepositorio.productoJson(500, "Nuevo"), latenciaMs = 500)
+
+        val refresco = launch(Dispatchers.IO) { arnes.repositorio.refrescarProductos() }
+        assertEquals("POST", arnes.servidor.takeRequest().method)
+        refresco.cancelAndJoin()
+
+        // Se aplicó la respuesta del POST y no se pidió el catálogo
+        assertEquals(1, arnes.llamadas)
+        val fila = arnes.filasEnRoom().single()
+        assertEquals(500, fila.id)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, fila.estadoSincronizacion)
+    }
+
+    @Test
+    fun idTemporal_seReescribeEnElCarritoYEnLasEdicionesPosteriores() = runBlocking {
+        arnes.monitor.cambiar(EstadoConectividad.SIN_CONEXION)
+        val idTemporal = (arnes.repositorio.insertarProducto(nuevo) as ResultadoApi.Exito).datos.id
+        arnes.database.carritoDao().insertar(
+            CarritoEntity(
+                productoId = idTemporal,
+                nombre = nuevo.nombre,
+                descripcion = nuevo.descripcion,
+                precio = nuevo.precio,
+                imagenUrl = nuevo.imagenUrl,
+                categoria = nuevo.categoria,
+                stock = nuevo.stock
+            )
+        )
+
+        arnes.monitor.cambiar(EstadoConectividad.WIFI)
+        arnes.responder(ArnesRepositorio.productoJson(500, "Nuevo"))
+        arnes.responder(ArnesRepositorio.catalogoJson(1, desde = 500))
+        arnes.repositorio.refrescarProductos()
+
+        val carrito = arnes.database.carritoDao()
+        assertNull(carrito.obtenerPorProductoId(idTemporal))
+        assertEquals(1, carrito.obtenerPorProductoId(500)!!.cantidad)
+
+        // El formulario abierto antes de la confirmación aún tiene el ID temporal
+        arnes.responder(ArnesRepositorio.productoJson(500, "Editado"))
+        val editado = arnes.repositorio.actualizarProducto(nuevo.copy(id = idTemporal, descripcion = "Editado"))
+
+        assertEquals(500, (editado as ResultadoApi.Exito).datos.id)
+        arnes.servidor.takeRequest()
+        arnes.servidor.takeRequest()
+        val patch = arnes.servidor.takeRequest()
+        assertEquals("PATCH", patch.method)
+        assertEquals("/api/productos/500", patch.path)
+        // Sin descargar el catálogo de nuevo: POST + catálogo + PATCH
+        assertEquals(3, arnes.llamadas)
+        assertEquals(listOf(500), arnes.filasEnRoom().map { it.id })
+    }
+
+    @Test
+    fun actualizarSoloStock_viajaEnUnPatchDeUnCampo() = runBlocking {
+        arnes.servidor.dispatcher = ServidorProductosFalso(catanDto)
+        val catan = abrirCatan()
+
+        arnes.repositorio.actualizarProducto(catan.copy(stock = 3), original = catan) as ResultadoApi.Exito
+
+        val patch = arnes.servidor.takeRequest()
+        assertEquals("PATCH", patch.method)
+        assertEquals("""{"stock":3}""", patch.body.readUtf8())
+        assertEquals("\"1\"", patch.getHeader("If-Match"))
+        // La fila conserva la descripción y toma la versión nueva
+        val fila = dao.obtenerProductoPorId(1)!!
+        assertEquals(3, fila.stock)
+        assertEquals("Juego de mesa", fila.descripcion)
+        assertEquals(2, fila.version)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, fila.estadoSincronizacion)
+    }
+
+    @Test
+    fun backendSinPatch_vuelveAPutYNoInsiste() = runBlocking {
+        arnes.servidor.dispatcher = ServidorProductosFalso(catanDto).apply { aceptaPatch = false }
+        val catan = abrirCatan()
+
+        arnes.repositorio.actualizarProducto(catan.copy(stock = 3), original = catan) as ResultadoApi.Exito
+        val editado = dao.obtenerProductoPorId(1)!!.toProducto()
+        arnes.repositorio.actualizarProducto(editado.copy(precio = 24990.0), original = editado) as ResultadoApi.Exito
+
+        val metodos = List(3) { arnes.servidor.takeRequest().method }
+        assertEquals(listOf("PATCH", "PUT", "PUT"), metodos)
+        assertEquals(24990.0, dao.obtenerProductoPorId(1)!!.precio, 0.0)
+    }
+
+    @Test
+    fun backendSinRutaPatch_404_vuelveAPutYNoInsiste() = runBlocking {
+        arnes.servidor.dispatcher = ServidorProductosFalso(catanDto).apply {
+            aceptaPatch = false
+            codigoSinPatch = 404
+        }
+        val catan = abrirCatan()
+
+        arnes.repositorio.actualizarProducto(catan.copy(stock = 3), original = catan) as ResultadoApi.Exito
+        val editado = dao.obtenerProductoPorId(1)!!.toProducto()
+        arnes.repositorio.actualizarProducto(editado.copy(precio = 24990.0), original = editado) as ResultadoApi.Exito
+
+        val metodos = List(3) { arnes.servidor.takeRequest().method }
+        assertEquals(listOf("PATCH", "PUT", "PUT"), metodos)
+        assertEquals(3, dao.obtenerProductoPorId(1)!!.stock)
+        assertEquals(24990.0, dao.obtenerProductoPorId(1)!!.precio, 0.0)
+    }
+
+    @Test
+    fun patch404PorProductoBorrado_deshaceYSigueUsandoPatch() = runBlocking {
+        val servidor = ServidorProductosFalso(catanDto)
+        arnes.servidor.dispatcher = servidor
+        val catan = abrirCatan()
+        servidor.eliminar(1)
+
+        val primero = arnes.repositorio.actualizarProducto(catan.copy(stock = 3), original = catan)
+        val segundo = arnes.repositorio.actualizarProducto(catan.copy(stock = 2), original = catan)
+
+        assertEquals(404, (primero as ResultadoApi.Error).codigoHttp)
+        assertEquals(404, (segundo as ResultadoApi.Error).codigoHttp)
+        // El PUT también dio 404: la ruta PATCH existe, faltaba el producto
+        val metodos = List(4) { arnes.servidor.takeRequest().method }
+        assertEquals(listOf("PATCH", "PUT", "PATCH", "PUT"), metodos)
+        assertEquals(15, dao.obtenerProductoPorId(1)!!.stock)
+    }
+
+    @Test
+    fun edicionSinRed_seReenviaPorPatchSinPisarLaDescripcion() = runBlocking {
+        val servidor = ServidorProductosFalso(catanDto)
+        arnes.servidor.dispatcher = servidor
+        // Llegó solo en el catálogo: sin descripción
+        arnes.sembrar(catan.copy(descripcion = "", version = 1))
+        arnes.monitor.cambiar(EstadoConectividad.SIN_CONEXION)
+        val fila = dao.obtenerProductoPorId(1)!!.toProducto()
+
+        arnes.repositorio.actualizarProducto(fila.copy(stock = 3), original = fila)
+        assertEquals("STOCK", dao.obtenerProductoPorId(1)!!.camposPendientes)
+
+        arnes.monitor.cambiar(EstadoConectividad.WIFI)
+        arnes.repositorio.refrescarProductos()
+
+        val patch = arnes.servidor.takeRequest()
+        assertEquals("PATCH", patch.method)
+        assertEquals("""{"stock":3}""", patch.body.readUtf8())
+        assertEquals("Juego de mesa", servidor.producto(1)!!.descripcion)
+        val confirmada = dao.obtenerProductoPorId(1)!!
+        assertEquals(3, confirmada.stock)
+        assertEquals("Juego de mesa", confirmada.descripcion)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, confirmada.estadoSincronizacion)
+    }
+
+    @Test
+    fun backendSinPatch_filaSinDescripcion_completaConElServidorAntesDelPut() = runBlocking {
+        val servidor = ServidorProductosFalso(catanDto).apply { aceptaPatch = false }
+        arnes.servidor.dispatcher = servidor
+        arnes.sembrar(catan.copy(descripcion = "", version = 1))
+        val fila = dao.obtenerProductoPorId(1)!!.toProducto()
+
+        arnes.repositorio.actualizarProducto(fila.copy(stock = 3), original = fila) as ResultadoApi.Exito
+
+        val metodos = List(3) { arnes.servidor.takeRequest().method }
+        assertEquals(listOf("PATCH", "GET", "PUT"), metodos)
+        assertEquals(3, servidor.producto(1)!!.stock)
+        assertEquals("Juego de mesa", servidor.producto(1)!!.descripcion)
+    }
+
+    @Test
+    fun edicionPendienteSinCampos_noBorraLaDescripcionDelServidor() = runBlocking {
+        val servidor = ServidorProductosFalso(catanDto)
+        arnes.servidor.dispatcher = servidor
+        // Guardada antes de la versión 7 de la BD: no se sabe qué cambió
+        arnes.sembrar(
+            catan.copy(
+                descripcion = "",
+                stock = 3,
+                version = 1,
+                estadoSincronizacion = EstadoSincronizacion.ACTUALIZACION_PENDIENTE
+            )
+        )
+
+        arnes.repositorio.refrescarProductos()
+
+        val metodos = List(2) { arnes.servidor.takeRequest().method }
+        assertEquals(listOf("GET", "PUT"), metodos)
+        assertEquals(3, servidor.producto(1)!!.stock)
+        assertEquals("Juego de mesa", servidor.producto(1)!!.descripcion)
+        assertEquals(EstadoSincronizacion.SINCRONIZADO, dao.obtenerProductoPorId(1)!!.estadoSincronizacion)
+    }
+
+    @Test
+    fun actualizar_rechazadoPorElServidor_restauraLaFilaAnterior() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.responderCodigo(400)
+
+        val resultado = arnes.repositorio.actualizarProducto(catan.toProducto().copy(stock = 0))
+
+        assertEquals(400, (resultado as ResultadoApi.Error).codigoHttp)
+        assertEquals(catan, dao.obtenerProductoPorId(1))
+    }
+
+    @Test
+    fun eliminar_errorTransitorio_ocultaYSeReenviaAlRefrescar() = runBlocking {
+        arnes.sembrar(catan)
+        arnes.responderCodigo(503)
+
+        val resultado = arnes.repositorio.eliminarProducto(catan.toProducto())
+
+        assertTrue(resultado.esDeCache())
+        // Oculto para la UI, pero la fila sigue esperando la confirmación
+        assertTrue(arnes.filasEnRoom().isEmpty())
+        assertEquals(EstadoSincronizacion.ELIMINACION_PENDIENTE, dao.obtenerProductoPorId(1)!!.estadoSincronizacion)
+
+        arnes.responderCodigo(204)
+        arnes.responder("[]")
+
+        arnes.repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(3, arnes.llamadas)
+        assertNull(dao.obtenerProductoPorId(1))
+    }
+
+    /**
+     * El admin abre Catan (GET con versión) antes de editarlo
+     */
+    private suspend fun abrirCatan(): Producto {
+        val catan = (arnes.repositorio.obtenerProductoPorId(1) as ResultadoApi.Exito).datos
+        arnes.servidor.takeRequest()
+        return catan
+    }
+}
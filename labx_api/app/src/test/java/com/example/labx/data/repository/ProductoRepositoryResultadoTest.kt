@@ -0,0 +1,102 @@
+package com.example.labx.data.repository
+
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.data.remote.api.ProductoApiService
+import com.example.labx.data.remote.conectividad.MonitorConectividadFalso
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+
+/**
+ * Metadatos de refrescarProductos() y el flujo de Room de observarProductos()
+ */
+class ProductoRepositoryResultadoTest {
+
+    private lateinit var servidor: MockWebServer
+    private lateinit var repositorio: ProductoRepositoryImpl
+
+    private val enCache = ProductoEntity(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15)
+
+    @Before
+    fun setUp() {
+        servidor = MockWebServer()
+        servidor.start()
+        val api = Retrofit.Builder()
+            .baseUrl(servidor.url("/"))
+            .addConverterFactory(GsonConverterFactory.create())
+            .build()
+            .create(ProductoApiService::class.java)
+        repositorio = ProductoRepositoryImpl(
+            productoDao = ProductoDaoFalso(listOf(enCache)),
+            apiService = api,
+            monitorConectividad = MonitorConectividadFalso(),
+            reloj = { 42_000L }
+        )
+    }
+
+    @After
+    fun tearDown() {
+        servidor.shutdown()
+    }
+
+    @Test
+    fun refrescoExitoso_metadatosDeRedYDatosPorRoom() = runBlocking {
+        servidor.enqueue(
+            MockResponse().setBody(
+                """[{"id":1,"nombre":"Catan","precio":"27990.00","imagen":"catan","categoria_nombre":"Juegos de Mesa","stock":12}]"""
+            )
+        )
+        assertEquals(15, repositorio.observarProductos().first().single().stock)
+
+        val red = repositorio.refrescarProductos() as ResultadoApi.Exito
+
+        assertEquals(OrigenDatos.RED, red.metadatos.origen)
+        assertEquals(200, red.metadatos.codigoHttp)
+        assertEquals(42_000L, red.metadatos.marcaTiempoMs)
+        assertTrue(red.metadatos.latenciaMs!! >= 0)
+        assertEquals(1, red.datos)
+        assertEquals(12, repositorio.observarProductos().first().single().stock)
+    }
+
+    @Test
+    fun errorDelServidor_conservaLaCacheYTraeCodigo() = runBlocking {
+        servidor.enqueue(MockResponse().setResponseCode(500))
+
+        val error = repositorio.refrescarProductos() as ResultadoApi.Error
+
+        assertEquals(500, error.codigoHttp)
+        assertEquals(15, repositorio.observarProductos().first().single().stock)
+    }
+
+    @Test
+    fun observarProductos_noTerminaYEmiteCadaCambio() = runBlocking {
+        servidor.enqueue(
+            MockResponse().setBody(
+                """[{"id":1,"nombre":"Catan","precio":"29990.00","imagen":"catan","categoria_nombre":"Juegos de Mesa","stock":15},
+                   {"id":2,"nombre":"Dixit","precio":"24990.00","imagen":"dixit","categoria_nombre":"Juegos de Mesa","stock":4}]"""
+            )
+        )
+        val emisiones = mutableListOf<List<String>>()
+        val observador = launch(Dispatchers.Unconfined) {
+            repositorio.observarProductos().collect { lista -> emisiones += lista.map { it.nombre } }
+        }
+
+        repositorio.refrescarProductos()
+
+        assertTrue(observador.isActive)
+        assertEquals(listOf(listOf("Catan"), listOf("Catan", "Dixit")), emisiones)
+        observador.cancel()
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.labx.data.repository
+
+import com.example.labx.data.remote.dto.ProductoDto
+import com.google.gson.Gson
+import com.google.gson.JsonParser
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.RecordedRequest
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Backend de productos en memoria con versiones, para MockWebServer
+ *
+ * A diferencia de la cola de respuestas de ArnesRepositorio, guarda el
+ * estado: varios ArnesRepositorio pueden compartirlo (un teléfono por
+ * admin, un solo servidor) y escribir a la vez.
+ *
+ * - GET api/productos/{id}: el producto con su versión
+ * - PUT api/productos/{id}: con If-Match distinto de la versión actual
+ *   responde 412; si no, aplica el cuerpo y sube la versión
+ * - PATCH api/productos/{id}: igual que PUT, con solo algunos campos
+ *   (codigoSinPatch si aceptaPatch = false, como un backend sin PATCH:
+ *   405, o 404 como Express con una ruta sin handler)
+ */
+class ServidorProductosFalso(vararg iniciales: ProductoDto) : Dispatcher() {
+
+    @Volatile
+    var aceptaPatch = true
+
+    @Volatile
+    var codigoSinPatch = 405
+
+    private val gson = Gson()
+
+    private val productos = iniciales.associateBy { it.identificador }.toMutableMap()
+
+    private val escrituras = AtomicInteger()
+
+    /**
+     * PUT rechazados por versión (412)
+     */
+    val rechazosPorVersion = AtomicInteger()
+
+    @Synchronized
+    fun producto(id: Int): ProductoDto? = productos[id]
+
+    /**
+     * Otro admin borró el producto
+     */
+    @Synchronized
+    fun eliminar(id: Int) {
+        productos.remove(id)
+    }
+
+    override fun dispatch(request: RecordedRequest): MockResponse {
+        val id = request.requestUrl?.pathSegments?.lastOrNull()?.toIntOrNull()
+            ?: return MockResponse().setResponseCode(404)
+        return when (request.method) {
+            "GET" -> producto(id)?.let { responder(it) } ?: MockResponse().setResponseCode(404)
+            "PUT" -> modificar(id, request)
+            "PATCH" -> if (aceptaPatch) modificar(id, request) else MockResponse().setResponseCode(codigoSinPatch)
+            else -> MockResponse().setResponseCode(405)
+        }
+    }
+
+    @Synchronized
+    private fun modificar(id: Int, request: RecordedRequest): MockResponse {
+        val actual = productos[id] ?: return MockResponse().setResponseCode(404)
+        val siCoincide = request.getHeader("If-Match")
+        if (siCoincide != null && siCoincide != "\"${actual.version}\"") {
+            rechazosPorVersion.incrementAndGet()
+            return MockResponse().setResponseCode(412)
+        }
+        // PATCH: los campos del cuerpo sobre el producto actual
+        val json = gson.toJsonTree(actual).asJsonObject
+        JsonParser.parseString(request.body.readUtf8()).asJsonObject.entrySet().forEach { (campo, valor) ->
+            json.add(campo, valor)
+        }
+        val cuerpo = gson.fromJson(json, ProductoDto::class.java)
+        val nuevo = cuerpo.copy(
+            identificador = id,
+            version = (actual.version ?: 0) + 1,
+            actualizadoEn = "2026-01-01T00:00:%02dZ".format(escrituras.incrementAndGet())
+        )
+        productos[id] = nuevo
+        return responder(nuevo)
+    }
+
+    private fun responder(producto: ProductoDto): MockResponse =
+        MockResponse().setBody(gson.toJson(producto))
+}
@@ -0,0 +1,147 @@
+package com.example.labx.data.sincronizacion
+
+import android.app.Application
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.work.Configuration
+import androidx.work.NetworkType
+import androidx.work.WorkInfo
+import androidx.work.WorkManager
+import androidx.work.testing.SynchronousExecutor
+import androidx.work.testing.WorkManagerTestInitHelper
+import com.example.labx.data.repository.ArnesRepositorio
+import com.example.labx.metricas.RegistroMetricas
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sincronización periódica del catálogo con WorkManager de prueba
+ *
+ * El TestDriver decide cuándo se cumplen las restricciones; el worker
+ * usa el repositorio real contra Room en memoria y MockWebServer
+ * (ArnesRepositorio) y un precargador que solo anota las URLs.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34], application = Application::class)
+class SincronizacionCatalogoWorkerTest {
+
+    private val contexto: Context = ApplicationProvider.getApplicationContext()
+    private val arnes = ArnesRepositorio()
+    private val precargador = PrecargadorFalso()
+    private lateinit var workManager: WorkManager
+
+    @Before
+    fun setUp() {
+        RegistroMetricas.reiniciar("sincronizacion.")
+        val configuracion = Configuration.Builder()
+            .setExecutor(SynchronousExecutor())
+            .setWorkerFactory(FabricaWorkersLabx({ arnes.repositorio }, { precargador }))
+            .build()
+        WorkManagerTestInitHelper.initializeTestWorkManager(contexto, configuracion)
+        workManager = WorkManager.getInstance(contexto)
+    }
+
+    @After
+    fun tearDown() {
+        arnes.close()
+    }
+
+    @Test
+    fun programar_periodicoSoloConRedNoMedidaYCargando() {
+        ProgramadorSincronizacion.programar(contexto).result.get()
+        // Un segundo arranque no duplica el trabajo
+        ProgramadorSincronizacion.programar(contexto).result.get()
+
+        val infos = workManager.getWorkInfosForUniqueWork(ProgramadorSincronizacion.NOMBRE_TRABAJO).get()
+        assertEquals(1, infos.size)
+        val info = infos.single()
+        assertEquals(WorkInfo.State.ENQUEUED, info.state)
+        assertEquals(NetworkType.UNMETERED, info.constraints.requiredNetworkType)
+        assertTrue(info.constraints.requiresCharging())
+        assertEquals(TimeUnit.HOURS.toMillis(6), info.periodicityInfo!!.repeatIntervalMillis)
+
+        // Restricciones sin cumplir: no sale ninguna petición
+        assertEquals(0, arnes.llamadas)
+    }
+
+    @Test
+    fun restriccionesCumplidas_sincronizaCatalogoYPrecargaMiniaturas() = runBlocking {
+        arnes.responder(ArnesRepositorio.catalogoJson(30))
+
+        ejecutarPeriodo()
+
+        assertEquals(1, arnes.llamadas)
+        assertEquals(30, arnes.filasEnRoom().size)
+
+        // Las primeras miniaturas en el orden de HomeScreen (por nombre)
+        val esperadas = arnes.filasEnRoom()
+            .sortedBy { it.nombre }
+            .take(SincronizacionCatalogoWorker.CANTIDAD_MINIATURAS)
+            .map { it.imagenUrl }
+        assertEquals(esperadas, precargador.urls)
+
+        val metricas = RegistroMetricas.instantanea()
+        assertEquals(1L, metricas.contadores["sincronizacion.exitosas"])
+        assertEquals(20L, metricas.contadores["sincronizacion.miniaturas_precargadas"])
+        assertEquals(1L, metricas.histogramas["sincronizacion.catalogo"]!!.cantidad)
+        assertEquals(1L, metricas.histogramas["sincronizacion.miniaturas"]!!.cantidad)
+
+        // Periódico: vuelve a quedar en espera del siguiente período
+        assertEquals(WorkInfo.State.ENQUEUED, trabajo().state)
+    }
+
+    @Test
+    fun errorDelServidor_reintentaSinPrecargar() = runBlocking {
+        arnes.responderCodigo(503)
+
+        ejecutarPeriodo()
+
+        assertEquals(1, arnes.llamadas)
+        assertTrue(precargador.urls.isEmpty())
+        assertEquals(1L, RegistroMetricas.instantanea().contadores["sincronizacion.fallidas"])
+        val info = trabajo()
+        assertEquals(WorkInfo.State.ENQUEUED, info.state)
+        assertEquals(1, info.runAttemptCount)
+    }
+
+    private fun trabajo(): WorkInfo =
+        workManager.getWorkInfosForUniqueWork(ProgramadorSincronizacion.NOMBRE_TRABAJO).get().single()
+
+    /**
+     * Programa el trabajo, cumple sus restricciones y espera a que termine
+     * (CoroutineWorker corre fuera del executor síncrono)
+     */
+    private fun ejecutarPeriodo() {
+        ProgramadorSincronizacion.programar(contexto).result.get()
+        WorkManagerTestInitHelper.getTestDriver(contexto)!!.setAllConstraintsMet(trabajo().id)
+
+        esperarHasta { RegistroMetricas.instantanea().histogramas["sincronizacion.total"]?.cantidad == 1L }
+        // El total se mide dentro de doWork(): falta que WorkManager guarde el resultado
+        esperarHasta { trabajo().state != WorkInfo.State.RUNNING }
+    }
+
+    private fun esperarHasta(condicion: () -> Boolean) {
+        val limite = System.currentTimeMillis() + 5_000
+        while (!condicion()) {
+            check(System.currentTimeMillis() < limite) { "La sincronización no terminó" }
+            Thread.sleep(10)
+        }
+    }
+
+    private class PrecargadorFalso : PrecargadorImagenes {
+        val urls = mutableListOf<String>()
+
+        override suspend fun precargar(urls: List<String>): Int {
+            this.urls += urls
+            return urls.size
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.labx.ui.viewmodel
+
+import com.example.labx.data.remote.MetadatosRespuesta
+import com.example.labx.data.remote.OrigenDatos
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.domain.model.ConflictoEdicion
+import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+import com.example.labx.domain.repository.RepositorioProductos
+import com.example.labx.ui.state.EstadoRefresco
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * refrescar(): cancelación del refresco anterior, estadoRefresco
+ * y un solo observador de Room (el de la lista liviana)
+ *
+ * La "red" es un delay en tiempo virtual, así que el conteo de
+ * llamadas en curso es exacto (sin hilos de OkHttp de por medio)
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class ProductoViewModelRefrescoTest {
+
+    private val despachador = StandardTestDispatcher()
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(despachador)
+    }
+
+    @After
+    fun tearDown() {
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun veinteRefrescosSeguidosDejanComoMaximoUnaLlamadaEnCurso() = runTest(despachador) {
+        val repositorio = RepositorioFalso(latenciaMs = 500)
+        val viewModel = ProductoViewModel(repositorio)
+
+        repeat(20) {
+            viewModel.refrescar()
+            advanceTimeBy(10)
+        }
+        advanceUntilIdle()
+
+        assertEquals(1, repositorio.maximoEnCurso)
+        assertEquals(0, repositorio.enCurso)
+        assertEquals("solo el último refresco llega al final", 1, repositorio.completadas)
+        assertTrue(viewModel.estadoRefresco.value is EstadoRefresco.Inactivo)
+        assertEquals(RepositorioFalso.MARCA_TIEMPO_MS, viewModel.estadoRefresco.value.ultimoExitoMs)
+    }
+
+    @Test
+    fun refrescarNoDuplicaElObservadorDeRoom() = runTest(despachador) {
+        val repositorio = RepositorioFalso(latenciaMs = 100)
+        val viewModel = ProductoViewModel(repositorio)
+
+        // Dos recolectores del mismo uiState (ej: HomeScreen antes y después de rotar)
+        backgroundScope.launch { viewModel.uiState.collect {} }
+        backgroundScope.launch { viewModel.uiState.collect {} }
+        repeat(20) {
+            viewModel.refrescar()
+            runCurrent()
+        }
+        advanceUntilIdle()
+
+        assertEquals(1, repositorio.llamadasResumenes)
+        assertEquals(1, repositorio.resumenes.subscriptionCount.value)
+        // El catálogo no decodifica las filas completas (con descripción)
+        assertEquals(0, repositorio.productos.subscriptionCount.value)
+        assertEquals(listOf("Catan"), viewModel.uiState.value.productos.map { it.nombre })
+    }
+
+    @Test
+    fun refrescoFallidoConservaElUltimoExito() = runTest(despachador) {
+        val repositorio = RepositorioFalso(latenciaMs = 100)
+        val viewModel = ProductoViewModel(repositorio)
+        advanceUntilIdle()
+
+        repositorio.siguiente = ResultadoApi.Error("Error del servidor (HTTP 503)", codigoHttp = 503)
+        viewModel.refrescar()
+        runCurrent()
+        assertTrue(viewModel.estadoRefresco.value is EstadoRefresco.Refrescando)
+        advanceUntilIdle()
+
+        val estado = viewModel.estadoRefresco.value as EstadoRefresco.Fallido
+        assertEquals(503, estado.codigoHttp)
+        assertEquals(RepositorioFalso.MARCA_TIEMPO_MS, estado.ultimoExitoMs)
+    }
+
+    /**
+     * Repositorio cuya descarga tarda latenciaMs y cuenta las llamadas en curso
+     */
+    private class RepositorioFalso(private val latenciaMs: Long) : RepositorioProductos {
+
+        val productos = MutableStateFlow(
+            listOf(Producto(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15))
+        )
+        val resumenes = MutableStateFlow(
+            listOf(ProductoResumen(1, "Catan", 29990.0, "catan", "Juegos de Mesa", 15))
+        )
+        var siguiente: ResultadoApi<Int> = ResultadoApi.Exito(
+            datos = 1,
+            metadatos = MetadatosRespuesta(OrigenDatos.RED, MARCA_TIEMPO_MS, codigoHttp = 200)
+        )
+        var llamadasResumenes = 0
+        var enCurso = 0
+        var maximoEnCurso = 0
+        var completadas = 0
+
+        override fun observarProductos(): Flow<List<Producto>> = productos
+
+        override fun obtenerResumenes(): Flow<List<ProductoResumen>> {
+            llamadasResumenes++
+            return resumenes
+        }
+
+        override suspend fun refrescarProductos(): ResultadoApi<Int> {
+            enCurso++
+            maximoEnCurso = maxOf(maximoEnCurso, enCurso)
+            try {
+                delay(latenciaMs)
+                completadas++
+                return siguiente
+            } finally {
+                enCurso--
+            }
+        }
+
+        override fun observarProducto(id: Int): Flow<Producto?> = emptyFlow()
+        override suspend fun obtenerProductoPorId(id: Int): ResultadoApi<Producto> = error("no usado")
+        override suspend fun insertarProductos(productos: List<Producto>) = Unit
+        override suspend fun insertarProducto(producto: Producto): ResultadoApi<Producto> = error("no usado")
+        override suspend fun actualizarProducto(producto: Producto, original: Producto?): ResultadoApi<Producto> =
+            error("no usado")
+        override suspend fun eliminarProducto(producto: Producto): ResultadoApi<Unit> = error("no usado")
+        override fun observarConflictos(): Flow<List<ConflictoEdicion>> = emptyFlow()
+        override suspend fun resolverConflicto(conflicto: ConflictoEdicion, elegido: Producto): ResultadoApi<Producto> =
+            error("no usado")
+        override suspend fun eliminarTodosLosProductos() = Unit
+
+        companion object {
+            const val MARCA_TIEMPO_MS = 1_700_000_000_000L
+        }
+    }
+}
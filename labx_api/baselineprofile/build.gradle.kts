@@ -0,0 +1,44 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.kotlin.android)
+    alias(libs.plugins.androidx.baselineprofile)
+}
+
+android {
+    namespace = "com.example.labx.baselineprofile"
+    compileSdk = 36
+
+    defaultConfig {
+        // BaselineProfileRule necesita API 28+ (o un dispositivo con root)
+        minSdk = 28
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+    kotlinOptions {
+        jvmTarget = "11"
+    }
+
+    sourceSets {
+        // Recorridos de UiAutomator (AccionesLabx), compartidos con :benchmark
+        getByName("main").java.srcDir("$rootDir/recorridos/src/main/java")
+    }
+
+    targetProjectPath = ":app"
+}
+
+baselineProfile {
+    // Usa el emulador o dispositivo conectado (adb devices)
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.androidx.junit)
+    implementation(libs.androidx.espresso.core)
+    implementation(libs.androidx.uiautomator)
+    implementation(libs.androidx.benchmark.macro.junit4)
+}
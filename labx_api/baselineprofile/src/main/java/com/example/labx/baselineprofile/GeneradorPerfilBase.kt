@@ -0,0 +1,50 @@
+package com.example.labx.baselineprofile
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.example.labx.recorridos.PAQUETE_LABX
+import com.example.labx.recorridos.abrirPrimerProducto
+import com.example.labx.recorridos.agregarAlCarrito
+import com.example.labx.recorridos.desplazarCatalogo
+import com.example.labx.recorridos.entrarATienda
+import com.example.labx.recorridos.esperarCatalogo
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Genera el Baseline Profile de :app recorriendo las rutas calientes:
+ * arranque → HomeScreen → desplazar lista → detalle → agregar al carrito
+ *
+ * Las clases y métodos usados aquí se compilan AOT al instalar la app
+ * (ProfileInstaller), sin esperar a que ART los detecte en uso.
+ *
+ * Generar: ./gradlew :app:generateBaselineProfile
+ * (deja baseline-prof.txt y startup-prof.txt en app/src/release/generated/baselineProfiles)
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class GeneradorPerfilBase {
+
+    @get:Rule
+    val reglaPerfil = BaselineProfileRule()
+
+    @Test
+    fun generar() = reglaPerfil.collect(
+        packageName = PAQUETE_LABX,
+        // También genera el perfil de arranque (orden de clases en el DEX)
+        includeInStartupProfile = true
+    ) {
+        pressHome()
+        startActivityAndWait()
+        entrarATienda()
+        desplazarCatalogo()
+        abrirPrimerProducto()
+        agregarAlCarrito()
+        device.pressBack()
+        esperarCatalogo()
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.labx.benchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.example.labx.recorridos.PAQUETE_LABX
+import com.example.labx.recorridos.entrarATienda
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Arranque en frío y en tibio hasta HomeScreen con productos
+ *
+ * - timeToInitialDisplay: primer frame (Portada)
+ * - timeToFullDisplay: HomeScreen llama ReportDrawnWhen al tener tarjetas
+ *
+ * Cada caso se mide sin compilar (CompilationMode.None) y con el
+ * Baseline Profile (Partial) para ver cuánto aporta. UseIfAvailable:
+ * mientras no exista el perfil en app/src/release/generated/baselineProfiles
+ * (./gradlew :app:generateBaselineProfile con un dispositivo conectado)
+ * los casos "ConPerfil" miden lo mismo que "SinCompilar" en vez de fallar.
+ *
+ * Ejecutar: ./gradlew :benchmark:connectedBenchmarkAndroidTest
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class ArranqueBenchmark {
+
+    companion object {
+        private const val ITERACIONES = 10
+    }
+
+    @get:Rule
+    val reglaBenchmark = MacrobenchmarkRule()
+
+    @Test
+    fun arranqueFrioSinCompilar() = arrancar(StartupMode.COLD, CompilationMode.None())
+
+    @Test
+    fun arranqueFrioConPerfil() = arrancar(
+        StartupMode.COLD,
+        CompilationMode.Partial(BaselineProfileMode.UseIfAvailable)
+    )
+
+    @Test
+    fun arranqueTibioSinCompilar() = arrancar(StartupMode.WARM, CompilationMode.None())
+
+    @Test
+    fun arranqueTibioConPerfil() = arrancar(
+        StartupMode.WARM,
+        CompilationMode.Partial(BaselineProfileMode.UseIfAvailable)
+    )
+
+    private fun arrancar(modo: StartupMode, compilacion: CompilationMode) =
+        reglaBenchmark.measureRepeated(
+            packageName = PAQUETE_LABX,
+            metrics = listOf(StartupTimingMetric()),
+            compilationMode = compilacion,
+            startupMode = modo,
+            iterations = ITERACIONES,
+            setupBlock = { pressHome() }
+        ) {
+            startActivityAndWait()
+            entrarATienda()
+        }
+}
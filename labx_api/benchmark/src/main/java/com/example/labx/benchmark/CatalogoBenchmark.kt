@@ -0,0 +1,77 @@
+package com.example.labx.benchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.example.labx.recorridos.PAQUETE_LABX
+import com.example.labx.recorridos.abrirPrimerProducto
+import com.example.labx.recorridos.agregarAlCarrito
+import com.example.labx.recorridos.desplazarCatalogo
+import com.example.labx.recorridos.entrarATienda
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Frames (duración y jank) de los recorridos principales del catálogo:
+ * - desplazar la lista de productos
+ * - abrir DetalleProductoScreen
+ * - agregar al carrito desde el detalle
+ *
+ * El arranque y la entrada a HomeScreen quedan en setupBlock: solo se
+ * mide la interacción.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class CatalogoBenchmark {
+
+    companion object {
+        private const val ITERACIONES = 5
+    }
+
+    @get:Rule
+    val reglaBenchmark = MacrobenchmarkRule()
+
+    @Test
+    fun desplazarLista() = medirEnCatalogo {
+        desplazarCatalogo()
+    }
+
+    @Test
+    fun abrirDetalle() = medirEnCatalogo {
+        abrirPrimerProducto()
+    }
+
+    @Test
+    fun agregarProductoAlCarrito() = medirEnCatalogo(
+        antes = { abrirPrimerProducto() }
+    ) {
+        agregarAlCarrito()
+    }
+
+    private fun medirEnCatalogo(
+        antes: MacrobenchmarkScope.() -> Unit = {},
+        recorrido: MacrobenchmarkScope.() -> Unit
+    ) = reglaBenchmark.measureRepeated(
+        packageName = PAQUETE_LABX,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.Partial(BaselineProfileMode.UseIfAvailable),
+        startupMode = StartupMode.WARM,
+        iterations = ITERACIONES,
+        setupBlock = {
+            pressHome()
+            startActivityAndWait()
+            entrarATienda()
+            antes()
+        }
+    ) {
+        recorrido()
+    }
+}
@@ -0,0 +1,31 @@
+import org.jetbrains.kotlin.gradle.dsl.JvmTarget
+
+plugins {
+    `java-library`
+    alias(libs.plugins.kotlin.jvm)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+kotlin {
+    compilerOptions {
+        jvmTarget.set(JvmTarget.JVM_11)
+    }
+}
+
+dependencies {
+    // Anotaciones de las entidades (@Entity, @Index): artefacto JVM, sin Android
+    // El compilador de Room (KSP) sigue en :app, junto a AppDatabase y los DAO
+    api(libs.androidx.room.common)
+
+    // Flow en Temporizador.medirPrimeraEmision
+    api(libs.kotlinx.coroutines.core)
+
+    // @SerializedName en los DTOs y RegistroMetricas.aJson()
+    api(libs.gson)
+
+    testImplementation(libs.junit)
+}
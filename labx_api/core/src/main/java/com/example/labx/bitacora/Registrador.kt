@@ -0,0 +1,59 @@
+package com.example.labx.bitacora
+
+/**
+ * Registrador: Abstracción de logging para el código sin Android (:core)
+ *
+ * Las clases de datos reciben un Registrador en el constructor en vez de
+ * llamar a android.util.Log: en :app se usa RegistradorAndroid y en los
+ * tests JVM Registrador.NINGUNO (o uno que acumule los mensajes).
+ *
+ * Los mensajes son lambdas inline: el String (con su interpolación) solo
+ * se construye si el nivel está activo, y la lambda no se convierte en
+ * objeto. Con depuracionActiva = false el String de d() nunca se construye.
+ *
+ * Ejemplo:
+ * ```
+ * registrador.d(TAG) { "Productos obtenidos: ${lista.size}" }
+ * registrador.e(TAG, excepcion) { "Error al sincronizar" }
+ * ```
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+interface Registrador {
+
+    /**
+     * false → d() no construye ni escribe el mensaje
+     */
+    val depuracionActiva: Boolean
+
+    fun escribir(nivel: NivelRegistro, tag: String, mensaje: String, error: Throwable?)
+
+    companion object {
+        /**
+         * Descarta todo (tests y herramientas JVM)
+         */
+        val NINGUNO: Registrador = object : Registrador {
+            override val depuracionActiva = false
+            override fun escribir(nivel: NivelRegistro, tag: String, mensaje: String, error: Throwable?) = Unit
+        }
+    }
+}
+
+enum class NivelRegistro {
+    DEPURACION,
+    ADVERTENCIA,
+    ERROR
+}
+
+inline fun Registrador.d(tag: String, mensaje: () -> String) {
+    if (depuracionActiva) escribir(NivelRegistro.DEPURACION, tag, mensaje(), null)
+}
+
+inline fun Registrador.w(tag: String, error: Throwable? = null, mensaje: () -> String) {
+    escribir(NivelRegistro.ADVERTENCIA, tag, mensaje(), error)
+}
+
+inline fun Registrador.e(tag: String, error: Throwable? = null, mensaje: () -> String) {
+    escribir(NivelRegistro.ERROR, tag, mensaje(), error)
+}
@@ -1,6 +1,7 @@
 package com.example.labx.data.local.entity
 
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import com.example.labx.domain.model.Producto
 
@@ -11,7 +12,11 @@ import com.example.labx.domain.model.Producto
  * 
  * Autor: Prof. Sting Adams Parra Silva
  */
-@Entity(tableName = "carrito")
+@Entity(
+    tableName = "carrito",
+    // Todas las operaciones por producto filtran por productoId
+    indices = [Index("productoId")]
+)
 data class CarritoEntity(
     @PrimaryKey(autoGenerate = true)
     val id: Long = 0,
@@ -0,0 +1,119 @@
+package com.example.labx.data.local.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import androidx.room.PrimaryKey
+import com.example.labx.domain.model.CampoProducto
+import com.example.labx.domain.model.EstadoSincronizacion
+import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+
+/**
+ * Entidad Room para productos
+ * Se guarda en la tabla "productos"
+ * 
+ * Índices:
+ * - index_productos_resumen: ordena por nombre e incluye las columnas de
+ *   ProductoResumen y el estado, así la lista de tarjetas (que oculta las
+ *   eliminaciones pendientes) se lee solo desde el índice, sin ordenar en
+ *   memoria ni tocar las páginas de 'descripcion'
+ * - categoria: filtros por categoría
+ * - estadoSincronizacion: buscar los cambios pendientes de enviar
+ * 
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+@Entity(
+    tableName = "productos",
+    indices = [
+        Index(
+            value = ["nombre", "precio", "imagenUrl", "categoria", "stock", "estadoSincronizacion"],
+            name = "index_productos_resumen"
+        ),
+        Index("categoria"),
+        Index("estadoSincronizacion")
+    ]
+)
+data class ProductoEntity(
+    @PrimaryKey(autoGenerate = true)
+    val id: Int = 0,
+    val nombre: String,
+    val descripcion: String,
+    val precio: Double,
+    val imagenUrl: String,
+    val categoria: String,
+    val stock: Int,
+    @ColumnInfo(defaultValue = "SINCRONIZADO")
+    val estadoSincronizacion: EstadoSincronizacion = EstadoSincronizacion.SINCRONIZADO,
+    // Versión del servidor (null: desconocida, la edición no es condicional)
+    val version: Int? = null,
+    val actualizadoEn: String? = null,
+    // Campos de la edición pendiente, separados por coma (ver camposEditados)
+    val camposPendientes: String? = null
+)
+
+/**
+ * Campos que cambió el admin en una edición pendiente (ACTUALIZACION_PENDIENTE
+ * o CONFLICTO): se reenvían por PATCH sin tocar los demás
+ *
+ * null: desconocidos (ediciones guardadas antes de la versión 7 de la BD)
+ */
+val ProductoEntity.camposEditados: Set<CampoProducto>?
+    get() = camposPendientes?.let { columna ->
+        columna.split(',').filter { it.isNotEmpty() }.mapTo(mutableSetOf()) { CampoProducto.valueOf(it) }
+    }
+
+/**
+ * Valor de la columna camposPendientes
+ */
+fun Set<CampoProducto>.comoColumna(): String = joinToString(",") { it.name }
+
+/**
+ * Convierte la entidad de base de datos al modelo del dominio
+ */
+fun ProductoEntity.toProducto() = Producto(
+    id = id,
+    nombre = nombre,
+    descripcion = descripcion,
+    precio = precio,
+    imagenUrl = imagenUrl,
+    categoria = categoria,
+    stock = stock,
+    sincronizacion = estadoSincronizacion,
+    version = version,
+    actualizadoEn = actualizadoEn
+)
+
+/**
+ * Convierte el modelo del dominio a entidad de base de datos
+ *
+ * @param camposPendientes Campos de la edición pendiente (solo para
+ *   filas ACTUALIZACION_PENDIENTE o CONFLICTO)
+ */
+fun Producto.toEntity(camposPendientes: Set<CampoProducto>? = null) = ProductoEntity(
+    id = id,
+    nombre = nombre,
+    descripcion = descripcion,
+    precio = precio,
+    imagenUrl = imagenUrl,
+    categoria = categoria,
+    stock = stock,
+    estadoSincronizacion = sincronizacion,
+    version = version,
+    actualizadoEn = actualizadoEn,
+    camposPendientes = camposPendientes?.comoColumna()
+)
+
+/**
+ * Entidad nueva creada desde la lista del catálogo
+ * La descripción queda vacía hasta que se abra el detalle
+ */
+fun ProductoResumen.toEntitySinDescripcion() = ProductoEntity(
+    id = id,
+    nombre = nombre,
+    descripcion = "",
+    precio = precio,
+    imagenUrl = imagenUrl,
+    categoria = categoria,
+    stock = stock
+)
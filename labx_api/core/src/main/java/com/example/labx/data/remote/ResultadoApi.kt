@@ -22,9 +22,11 @@ sealed class ResultadoApi<out T> {
      * Estado de éxito con datos
      *
      * Se usa cuando la petición HTTP fue exitosa (código 2xx)
-     * y se recibieron datos válidos del servidor.
+     * y se recibieron datos válidos del servidor, o cuando se
+     * entregan datos de la cache local (ver metadatos.origen).
      *
-     * @property datos Información obtenida de la API
+     * @property datos Información obtenida de la API o de la cache
+     * @property metadatos Origen, fecha, código HTTP y latencia
      *
      * Ejemplo de uso:
      * ```
@@ -36,7 +38,10 @@ sealed class ResultadoApi<out T> {
      * }
      * ```
      */
-    data class Exito<T>(val datos: T) : ResultadoApi<T>()
+    data class Exito<T>(
+        val datos: T,
+        val metadatos: MetadatosRespuesta = MetadatosRespuesta.cache(null)
+    ) : ResultadoApi<T>()
 
     /**
      * Estado de error con información del fallo
@@ -51,12 +56,13 @@ sealed class ResultadoApi<out T> {
      * @property mensajeError Descripción del error para mostrar al usuario
      * @property codigoHttp Código de estado HTTP (opcional), ej: 404, 500
      * @property excepcion Excepción original (opcional) para debugging
+     * @property latenciaMs Tiempo hasta el fallo (null si no se llegó a llamar)
      *
      * Ejemplo de uso:
      * ```
      * when (resultado) {
      *     is ResultadoApi.Error -> {
-     *         Log.e("API", resultado.mensajeError)
+     *         registrador.e("API") { resultado.mensajeError }
      *         mostrarMensajeError(resultado.mensajeError)
      *         if (resultado.codigoHttp == 404) {
      *             // Producto no encontrado
@@ -68,7 +74,8 @@ sealed class ResultadoApi<out T> {
     data class Error(
         val mensajeError: String,
         val codigoHttp: Int? = null,
-        val excepcion: Throwable? = null
+        val excepcion: Throwable? = null,
+        val latenciaMs: Long? = null
     ) : ResultadoApi<Nothing>()
 
     /**
@@ -92,6 +99,48 @@ sealed class ResultadoApi<out T> {
     object Cargando : ResultadoApi<Nothing>()
 }
 
+/**
+ * De dónde vienen los datos de un ResultadoApi.Exito
+ */
+enum class OrigenDatos {
+    /** Base de datos local (Room) */
+    CACHE,
+
+    /** Respuesta recién recibida de la API */
+    RED
+}
+
+/**
+ * Información de una respuesta exitosa
+ *
+ * Permite a la UI mostrar la cache al instante ("datos de hace 5 min")
+ * mientras llega la respuesta de la red, y agregar métricas de latencia
+ * sin leer Logcat.
+ *
+ * @property origen CACHE o RED
+ * @property marcaTiempoMs Cuándo se obtuvieron los datos de la API
+ *   (para la cache: la última sincronización; null si no se sabe)
+ * @property codigoHttp Código de la respuesta (solo RED)
+ * @property latenciaMs Duración de la llamada (solo RED)
+ */
+data class MetadatosRespuesta(
+    val origen: OrigenDatos,
+    val marcaTiempoMs: Long?,
+    val codigoHttp: Int? = null,
+    val latenciaMs: Long? = null
+) {
+    companion object {
+        fun cache(sincronizadoEnMs: Long?) = MetadatosRespuesta(OrigenDatos.CACHE, sincronizadoEnMs)
+    }
+}
+
+/**
+ * Verifica si los datos son de la cache local
+ */
+fun <T> ResultadoApi<T>.esDeCache(): Boolean {
+    return this is ResultadoApi.Exito && this.metadatos.origen == OrigenDatos.CACHE
+}
+
 /**
  * Función de extensión para obtener los datos o null
  *
@@ -222,8 +271,8 @@ inline fun <T> ResultadoApi<T>.alSerError(bloque: (String) -> Unit) {
  */
 inline fun <T, R> ResultadoApi<T>.mapear(transformacion: (T) -> R): ResultadoApi<R> {
     return when (this) {
-        is ResultadoApi.Exito -> ResultadoApi.Exito(transformacion(this.datos))
-        is ResultadoApi.Error -> ResultadoApi.Error(this.mensajeError, this.codigoHttp, this.excepcion)
+        is ResultadoApi.Exito -> ResultadoApi.Exito(transformacion(this.datos), this.metadatos)
+        is ResultadoApi.Error -> this
         is ResultadoApi.Cargando -> ResultadoApi.Cargando
     }
 }
@@ -1,6 +1,8 @@
 package com.example.labx.data.remote.dto
 
+import com.example.labx.domain.model.CampoProducto
 import com.example.labx.domain.model.Producto
+import com.example.labx.metricas.RegistroMetricas
 import com.google.gson.annotations.SerializedName
 
 /**
@@ -12,6 +14,8 @@ import com.google.gson.annotations.SerializedName
  * 1. 'precio' viene como String en esta API ("15000.00"), se convierte en el mapper.
  * 2. 'categoria_nombre' puede ser null.
  * 3. 'stock' ahora viene real desde el servidor.
+ * 4. 'version' y 'updated_at' pueden no venir (backend anterior): quedan
+ *    null y las ediciones se envían sin If-Match.
  */
 data class ProductoDto(
     @SerializedName("id")
@@ -42,14 +46,26 @@ data class ProductoDto(
     val categoria: String?,
 
     @SerializedName("stock")
-    val stock: Int
+    val stock: Int,
+
+    /**
+     * Sube con cada cambio en el servidor; se envía en If-Match al editar
+     */
+    @SerializedName("version")
+    val version: Int? = null,
+
+    @SerializedName("updated_at")
+    val actualizadoEn: String? = null
 )
 
+// Duración de cada conversión DTO -> modelo (panel de métricas: mapeo.*)
+private val tiempoAModelo = RegistroMetricas.temporizador("mapeo.ProductoDto.aModelo")
+
 /**
  * Convierte el DTO de la API Railway al Modelo de Dominio de la App.
  */
-fun ProductoDto.aModelo(): Producto {
-    return Producto(
+fun ProductoDto.aModelo(): Producto = tiempoAModelo.medir {
+    Producto(
         id = this.identificador,
         nombre = this.titulo,
         descripcion = this.descripcion,
@@ -59,7 +75,9 @@ fun ProductoDto.aModelo(): Producto {
         // Si la categoría es null, mostramos "Sin Categoría" u "Otros"
         categoria = this.categoria ?: "General",
         // Ahora usamos el stock real de la API
-        stock = this.stock
+        stock = this.stock,
+        version = this.version,
+        actualizadoEn = this.actualizadoEn
     )
 }
 
@@ -91,10 +109,29 @@ fun Producto.aDto(): ProductoDto {
         precio = this.precio.toString(),
         urlImagen = this.imagenUrl,
         categoria = this.categoria,
-        stock = this.stock
+        stock = this.stock,
+        version = this.version
     )
 }
 
+/**
+ * Solo los campos indicados, con los nombres y formatos de la API
+ * Cuerpo de PATCH api/productos/{id}: una corrección de stock pesa
+ * unos bytes en vez del producto con su descripción
+ */
+fun Producto.aCambiosDto(campos: Set<CampoProducto>): Map<String, Any> {
+    return campos.associate { campo ->
+        when (campo) {
+            CampoProducto.NOMBRE -> "nombre" to nombre
+            CampoProducto.DESCRIPCION -> "descripcion" to descripcion
+            CampoProducto.PRECIO -> "precio" to precio.toString()
+            CampoProducto.IMAGEN -> "imagen" to imagenUrl
+            CampoProducto.CATEGORIA -> "categoria_nombre" to categoria
+            CampoProducto.STOCK -> "stock" to stock
+        }
+    }
+}
+
 fun List<ProductoDto>.aModelos(): List<Producto> {
     return this.map { it.aModelo() }
 }
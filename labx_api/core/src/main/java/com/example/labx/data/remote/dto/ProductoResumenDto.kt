@@ -0,0 +1,56 @@
+package com.example.labx.data.remote.dto
+
+import com.example.labx.domain.model.ProductoResumen
+import com.google.gson.annotations.SerializedName
+
+/**
+ * DTO liviano para la lista del catálogo (sin 'descripcion')
+ *
+ * Se pide con ?fields=CAMPOS (ver ProductoApiService.obtenerCatalogoResumido).
+ * La descripción es el campo más largo de cada producto y solo se
+ * muestra en el detalle, donde se carga con obtenerProductoPorId().
+ *
+ * Si el backend ignora 'fields' y envía el producto completo, Gson
+ * descarta 'descripcion' sin crear el String.
+ */
+data class ProductoResumenDto(
+    @SerializedName("id")
+    val identificador: Int,
+
+    @SerializedName("nombre")
+    val titulo: String,
+
+    // Igual que en ProductoDto: llega como String ("15000.00")
+    @SerializedName("precio")
+    val precio: String,
+
+    @SerializedName("imagen")
+    val urlImagen: String,
+
+    @SerializedName("categoria_nombre")
+    val categoria: String?,
+
+    @SerializedName("stock")
+    val stock: Int
+) {
+    companion object {
+        /**
+         * Valor del parámetro 'fields': los campos de este DTO
+         */
+        const val CAMPOS = "id,nombre,precio,imagen,categoria_nombre,stock"
+    }
+}
+
+/**
+ * Convierte el DTO liviano al resumen usado por las tarjetas
+ */
+fun ProductoResumenDto.aResumen(): ProductoResumen {
+    return ProductoResumen(
+        id = this.identificador,
+        nombre = this.titulo,
+        precio = this.precio.toDoubleOrNull() ?: 0.0,
+        imagenUrl = this.urlImagen,
+        categoria = this.categoria ?: "General",
+        stock = this.stock
+    )
+}
@@ -0,0 +1,89 @@
+package com.example.labx.domain.model
+
+/**
+ * Campos de Producto que el admin edita en el formulario
+ *
+ * @property etiqueta Nombre para mostrar en la pantalla de conflicto
+ */
+enum class CampoProducto(val etiqueta: String) {
+    NOMBRE("Nombre"),
+    DESCRIPCION("Descripción"),
+    PRECIO("Precio"),
+    IMAGEN("Imagen"),
+    CATEGORIA("Categoría"),
+    STOCK("Stock");
+
+    fun valor(producto: Producto): Any = when (this) {
+        NOMBRE -> producto.nombre
+        DESCRIPCION -> producto.descripcion
+        PRECIO -> producto.precio
+        IMAGEN -> producto.imagenUrl
+        CATEGORIA -> producto.categoria
+        STOCK -> producto.stock
+    }
+
+    /**
+     * Copia de destino con el valor de este campo tomado de origen
+     */
+    fun copiar(origen: Producto, destino: Producto): Producto = when (this) {
+        NOMBRE -> destino.copy(nombre = origen.nombre)
+        DESCRIPCION -> destino.copy(descripcion = origen.descripcion)
+        PRECIO -> destino.copy(precio = origen.precio)
+        IMAGEN -> destino.copy(imagenUrl = origen.imagenUrl)
+        CATEGORIA -> destino.copy(categoria = origen.categoria)
+        STOCK -> destino.copy(stock = origen.stock)
+    }
+}
+
+/**
+ * Campos editables con distinto valor en otro producto
+ */
+fun Producto.camposDistintos(otro: Producto): Set<CampoProducto> =
+    CampoProducto.entries.filterTo(mutableSetOf()) { it.valor(this) != it.valor(otro) }
+
+/**
+ * Edición del admin que chocó con la de otro admin en el servidor
+ *
+ * @property local Los cambios del admin, con los cambios del otro admin
+ *   que no chocan ya incorporados ("conservar los míos")
+ * @property servidor Versión actual del servidor ("usar los del servidor")
+ * @property campos Campos que ambos cambiaron con valores distintos
+ */
+data class ConflictoEdicion(
+    val local: Producto,
+    val servidor: Producto,
+    val campos: Set<CampoProducto>
+) {
+    val id: Int
+        get() = servidor.id
+
+    companion object {
+        /**
+         * Fusión de tres vías campo por campo
+         *
+         * Cada campo que el admin cambió respecto de base se aplica sobre
+         * la versión del servidor; si el otro admin también lo cambió (a
+         * otro valor) queda en conflicto con el valor del admin.
+         *
+         * Sin base (cambio reenviado después de reiniciar la app) no se
+         * sabe quién cambió qué: todo campo distinto queda en conflicto.
+         *
+         * @param base Lo que el admin veía al editar (null: desconocido)
+         * @return Conflicto con campos vacío si la fusión no necesita al admin
+         */
+        fun fusionar(base: Producto?, local: Producto, servidor: Producto): ConflictoEdicion {
+            val cambiadosLocal = if (base != null) local.camposDistintos(base) else local.camposDistintos(servidor)
+            val cambiadosServidor = if (base != null) servidor.camposDistintos(base) else cambiadosLocal
+
+            var fusionado = servidor.copy(sincronizacion = local.sincronizacion)
+            val enConflicto = mutableSetOf<CampoProducto>()
+            for (campo in cambiadosLocal) {
+                fusionado = campo.copiar(local, fusionado)
+                if (campo in cambiadosServidor && campo.valor(servidor) != campo.valor(local)) {
+                    enConflicto += campo
+                }
+            }
+            return ConflictoEdicion(fusionado, servidor, enConflicto)
+        }
+    }
+}
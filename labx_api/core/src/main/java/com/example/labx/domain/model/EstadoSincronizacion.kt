@@ -0,0 +1,33 @@
+package com.example.labx.domain.model
+
+/**
+ * Estado de un producto local respecto del servidor
+ *
+ * Los cambios del admin se aplican primero en Room (la UI los ve al
+ * instante) y quedan marcados hasta que la API los confirma:
+ * - SINCRONIZADO: igual que en el servidor (o lo último que se supo)
+ * - CREACION_PENDIENTE: creado en el teléfono, el servidor aún no lo tiene
+ * - ACTUALIZACION_PENDIENTE: editado en el teléfono, falta enviar el cambio
+ * - ELIMINACION_PENDIENTE: borrado en el teléfono (ya no se muestra),
+ *   falta confirmar el DELETE
+ * - CONFLICTO: editado en el teléfono y también por otro admin en el
+ *   servidor, en los mismos campos; espera que el admin elija
+ *   (ver ConflictoEdicion)
+ *
+ * Room lo guarda por nombre (TEXT): no renombrar los valores.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+enum class EstadoSincronizacion {
+    SINCRONIZADO,
+    CREACION_PENDIENTE,
+    ACTUALIZACION_PENDIENTE,
+    ELIMINACION_PENDIENTE,
+    CONFLICTO;
+
+    /**
+     * Hay un cambio local que el servidor todavía no confirmó
+     */
+    val pendiente: Boolean
+        get() = this != SINCRONIZADO
+}
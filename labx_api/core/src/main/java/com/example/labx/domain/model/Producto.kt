@@ -0,0 +1,48 @@
+package com.example.labx.domain.model
+
+/**
+ * Modelo de dominio para Producto
+ * Versión extendida con todos los campos del e-commerce
+ * NO tiene anotaciones de Room (eso es en ProductoEntity)
+ * 
+ * sincronizacion: si hay un cambio del admin que el servidor aún no
+ * confirmó (ver EstadoSincronizacion); no se envía a la API
+ * 
+ * version / actualizadoEn: versión del servidor sobre la que se hizo el
+ * último cambio conocido (null si el backend no la envía). Las ediciones
+ * la mandan en If-Match para no pisar la de otro admin
+ * 
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+data class Producto(
+    val id: Int = 0,
+    val nombre: String,
+    val descripcion: String,
+    val precio: Double,
+    val imagenUrl: String,
+    val categoria: String,
+    val stock: Int,
+    val sincronizacion: EstadoSincronizacion = EstadoSincronizacion.SINCRONIZADO,
+    val version: Int? = null,
+    val actualizadoEn: String? = null
+) {
+    /**
+     * Formatea el precio con separador de miles
+     * Ejemplo: 25000.0 -> "$25.000"
+     */
+    fun precioFormateado(): String = formatearPrecioConMiles(precio)
+    
+    /**
+     * Verifica si hay stock disponible
+     */
+    val hayStock: Boolean
+        get() = stock > 0
+}
+
+/**
+ * Formato de precio compartido por Producto y ProductoResumen
+ */
+internal fun formatearPrecioConMiles(precio: Double): String {
+    val precioEntero = precio.toInt()
+    return "$${precioEntero.toString().reversed().chunked(3).joinToString(".").reversed()}"
+}
@@ -0,0 +1,40 @@
+package com.example.labx.domain.model
+
+/**
+ * Versión liviana de Producto para las tarjetas de la lista
+ * No incluye 'descripcion' (solo se carga en el detalle)
+ * 
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+data class ProductoResumen(
+    val id: Int,
+    val nombre: String,
+    val precio: Double,
+    val imagenUrl: String,
+    val categoria: String,
+    val stock: Int
+) {
+    /**
+     * Formatea el precio con separador de miles
+     * Ejemplo: 25000.0 -> "$25.000"
+     */
+    fun precioFormateado(): String = formatearPrecioConMiles(precio)
+    
+    /**
+     * Verifica si hay stock disponible
+     */
+    val hayStock: Boolean
+        get() = stock > 0
+}
+
+/**
+ * Convierte un producto completo a su resumen
+ */
+fun Producto.aResumen() = ProductoResumen(
+    id = id,
+    nombre = nombre,
+    precio = precio,
+    imagenUrl = imagenUrl,
+    categoria = categoria,
+    stock = stock
+)
@@ -0,0 +1,102 @@
+package com.example.labx.domain.repository
+
+import com.example.labx.data.remote.ResultadoApi
+import com.example.labx.domain.model.ConflictoEdicion
+import com.example.labx.domain.model.Producto
+import com.example.labx.domain.model.ProductoResumen
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Contrato del repositorio de productos
+ * Define las operaciones sin implementación concreta
+ * 
+ * Cambios del admin (insertar/actualizar/eliminarProducto) son optimistas:
+ * se aplican en la cache local al instante y después se envían a la API
+ * - Exito(RED): el servidor confirmó (con sus datos, ej: el ID asignado)
+ * - Exito(CACHE): quedó pendiente en el teléfono (sin red o error
+ *   transitorio); se reenvía en el próximo refrescarProductos()
+ * - Error: el servidor lo rechazó y el cambio local se deshizo
+ * 
+ * Las ediciones se envían sobre la versión que vio el admin: si otro
+ * admin cambió los mismos campos, la edición queda en observarConflictos()
+ * (Error 412) hasta que se llame a resolverConflicto()
+ * 
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+interface RepositorioProductos {
+    
+    /**
+     * Observa el catálogo en la cache local (no termina)
+     * Emite de nuevo cada vez que cambian los productos guardados
+     */
+    fun observarProductos(): Flow<List<Producto>>
+    
+    /**
+     * Descarga el catálogo y lo guarda en la cache local
+     * Los datos llegan por observarProductos(); el resultado solo
+     * informa cómo terminó (origen, código HTTP, latencia, cantidad)
+     */
+    suspend fun refrescarProductos(): ResultadoApi<Int>
+    
+    /**
+     * Lista liviana para tarjetas, leída desde la cache local
+     * Se actualiza cuando refrescarProductos() guarda datos nuevos
+     */
+    fun obtenerResumenes(): Flow<List<ProductoResumen>>
+    
+    /**
+     * Obtiene un producto por su ID (API, o cache si la API falla)
+     */
+    suspend fun obtenerProductoPorId(id: Int): ResultadoApi<Producto>
+    
+    /**
+     * Observa un producto de la cache local
+     * Solo emite cuando cambia esa fila
+     */
+    fun observarProducto(id: Int): Flow<Producto?>
+    
+    /**
+     * Inserta varios productos en la base de datos
+     * Útil para cargar datos iniciales
+     */
+    suspend fun insertarProductos(productos: List<Producto>)
+    
+    /**
+     * Crea un producto (el ID definitivo lo asigna el servidor)
+     *
+     * Mientras la creación está pendiente el producto tiene un ID
+     * temporal negativo; actualizarProducto y eliminarProducto lo
+     * siguen aceptando después de que el servidor asigna el suyo
+     */
+    suspend fun insertarProducto(producto: Producto): ResultadoApi<Producto>
+    
+    /**
+     * Actualiza un producto existente
+     *
+     * @param original El producto como lo vio el admin antes de editarlo;
+     *   solo se envían los campos que cambiaron respecto de él (null: se
+     *   compara con la cache local)
+     */
+    suspend fun actualizarProducto(producto: Producto, original: Producto? = null): ResultadoApi<Producto>
+    
+    /**
+     * Elimina un producto específico
+     */
+    suspend fun eliminarProducto(producto: Producto): ResultadoApi<Unit>
+    
+    /**
+     * Ediciones que chocaron con las de otro admin, esperando decisión
+     */
+    fun observarConflictos(): Flow<List<ConflictoEdicion>>
+    
+    /**
+     * Cierra un conflicto con la versión elegida por el admin
+     * (conflicto.local, conflicto.servidor o una mezcla)
+     */
+    suspend fun resolverConflicto(conflicto: ConflictoEdicion, elegido: Producto): ResultadoApi<Producto>
+    
+    /**
+     * Elimina todos los productos
+     */
+    suspend fun eliminarTodosLosProductos()
+}
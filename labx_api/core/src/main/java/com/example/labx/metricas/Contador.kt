@@ -0,0 +1,22 @@
+package com.example.labx.metricas
+
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Contador monótono (llamadas, errores, frames con jank...)
+ *
+ * LongAdder reparte las sumas entre celdas por hilo: incrementar no
+ * toma locks ni crea objetos, aunque varios hilos cuenten a la vez.
+ */
+class Contador internal constructor(val nombre: String) {
+
+    private val valor = LongAdder()
+
+    fun incrementar() = valor.increment()
+
+    fun sumar(cantidad: Long) = valor.add(cantidad)
+
+    fun valor(): Long = valor.sum()
+
+    internal fun reiniciar() = valor.reset()
+}
@@ -0,0 +1,103 @@
+package com.example.labx.metricas
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Histograma de cubetas fijas
+ *
+ * registrar() solo busca la cubeta y hace incrementos atómicos: no hay
+ * locks ni objetos nuevos, así puede llamarse en cada frame o consulta.
+ * Los percentiles son aproximados: se informa el límite superior de la
+ * cubeta donde cae el percentil.
+ *
+ * @param limites Límite superior (inclusive) de cada cubeta, creciente;
+ *   los valores mayores al último caen en una cubeta de desborde
+ */
+class Histograma internal constructor(
+    val nombre: String,
+    private val limites: LongArray
+) {
+    private val cubetas = AtomicLongArray(limites.size + 1)
+    private val cantidad = LongAdder()
+    private val suma = LongAdder()
+    private val maximo = AtomicLong()
+
+    fun registrar(valor: Long) {
+        var indice = 0
+        while (indice < limites.size && valor > limites[indice]) indice++
+        cubetas.incrementAndGet(indice)
+        cantidad.increment()
+        suma.add(valor)
+
+        var actual = maximo.get()
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get()
+        }
+    }
+
+    /**
+     * Copia de los valores actuales
+     */
+    fun resumen(): ResumenHistograma {
+        val conteos = LongArray(cubetas.length()) { cubetas.get(it) }
+        val total = conteos.sum()
+        return ResumenHistograma(
+            cantidad = total,
+            suma = suma.sum(),
+            maximo = maximo.get(),
+            p50 = percentil(conteos, total, 0.50),
+            p90 = percentil(conteos, total, 0.90),
+            p99 = percentil(conteos, total, 0.99)
+        )
+    }
+
+    private fun percentil(conteos: LongArray, total: Long, fraccion: Double): Long {
+        if (total == 0L) return 0
+        val objetivo = kotlin.math.ceil(total * fraccion).toLong()
+        var acumulado = 0L
+        conteos.forEachIndexed { indice, conteo ->
+            acumulado += conteo
+            if (acumulado >= objetivo) {
+                // Desborde: el mejor dato disponible es el máximo observado
+                return if (indice < limites.size) limites[indice] else maximo.get()
+            }
+        }
+        return maximo.get()
+    }
+
+    internal fun reiniciar() {
+        for (indice in 0 until cubetas.length()) cubetas.set(indice, 0)
+        cantidad.reset()
+        suma.reset()
+        maximo.set(0)
+    }
+
+    companion object {
+        /**
+         * Límites exponenciales: inicio, inicio*factor, ... (cantidad cubetas)
+         */
+        fun limitesExponenciales(inicio: Long, factor: Double, cantidad: Int): LongArray {
+            var limite = inicio.toDouble()
+            return LongArray(cantidad) {
+                limite.toLong().also { limite *= factor }
+            }
+        }
+    }
+}
+
+/**
+ * Valores de un histograma en un instante (misma unidad que registrar())
+ */
+data class ResumenHistograma(
+    val cantidad: Long,
+    val suma: Long,
+    val maximo: Long,
+    val p50: Long,
+    val p90: Long,
+    val p99: Long
+) {
+    val promedio: Long
+        get() = if (cantidad == 0L) 0 else suma / cantidad
+}
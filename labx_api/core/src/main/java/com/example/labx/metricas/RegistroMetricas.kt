@@ -0,0 +1,77 @@
+package com.example.labx.metricas
+
+import com.google.gson.GsonBuilder
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * RegistroMetricas: Contadores, temporizadores e histogramas de la app
+ *
+ * Uso:
+ * - Obtener la métrica una sola vez y guardarla en un campo
+ *   (la búsqueda por nombre no es parte del camino caliente)
+ * - Registrar con incrementar()/registrar()/medir(): sin locks y sin
+ *   crear objetos
+ * - instantanea() / aJson() para el panel de debug y reportes de bugs
+ *
+ * Convención de nombres: "area.detalle" (red.*, dao.*, mapeo.*, ui.*, sincronizacion.*).
+ * Los temporizadores registran microsegundos.
+ *
+ * @author Sting Parra Silva
+ * @version 1.0
+ */
+object RegistroMetricas {
+
+    /**
+     * Cubetas de los temporizadores: de 1 µs a ~34 s, duplicando
+     */
+    private val LIMITES_MICROS = Histograma.limitesExponenciales(inicio = 1, factor = 2.0, cantidad = 26)
+
+    private val contadores = ConcurrentHashMap<String, Contador>()
+    private val histogramas = ConcurrentHashMap<String, Histograma>()
+    private val temporizadores = ConcurrentHashMap<String, Temporizador>()
+
+    private val gson = GsonBuilder().setPrettyPrinting().create()
+
+    fun contador(nombre: String): Contador =
+        contadores.getOrPut(nombre) { Contador(nombre) }
+
+    fun histograma(nombre: String, limites: LongArray): Histograma =
+        histogramas.getOrPut(nombre) { Histograma(nombre, limites) }
+
+    fun temporizador(nombre: String): Temporizador =
+        temporizadores.getOrPut(nombre) { Temporizador(histograma(nombre, LIMITES_MICROS)) }
+
+    /**
+     * Copia de todas las métricas, ordenadas por nombre
+     */
+    fun instantanea(): InstantaneaMetricas {
+        return InstantaneaMetricas(
+            tomadaEnMs = System.currentTimeMillis(),
+            contadores = contadores.mapValues { (_, contador) -> contador.valor() }.toSortedMap(),
+            histogramas = histogramas.mapValues { (_, histograma) -> histograma.resumen() }.toSortedMap()
+        )
+    }
+
+    /**
+     * Instantánea en JSON, para adjuntar a un reporte de bug
+     */
+    fun aJson(): String = gson.toJson(instantanea())
+
+    /**
+     * Vuelve a cero las métricas cuyo nombre empieza con el prefijo
+     * (las referencias guardadas en campos siguen siendo válidas)
+     */
+    fun reiniciar(prefijo: String = "") {
+        contadores.forEach { (nombre, contador) -> if (nombre.startsWith(prefijo)) contador.reiniciar() }
+        histogramas.forEach { (nombre, histograma) -> if (nombre.startsWith(prefijo)) histograma.reiniciar() }
+    }
+}
+
+/**
+ * Valores de todas las métricas en un instante
+ */
+data class InstantaneaMetricas(
+    val tomadaEnMs: Long,
+    val contadores: Map<String, Long>,
+    val histogramas: Map<String, ResumenHistograma>
+)
@@ -0,0 +1,50 @@
+package com.example.labx.metricas
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+
+/**
+ * Mide duraciones y las registra en un histograma en microsegundos
+ *
+ * medir() es inline: el bloque no se convierte en un objeto lambda y
+ * puede contener llamadas suspend si quien llama es suspend.
+ *
+ * Ejemplo:
+ * ```
+ * private val tiempoConsulta = RegistroMetricas.temporizador("dao.productos.porId")
+ * suspend fun obtener(id: Int) = tiempoConsulta.medir { dao.obtenerProductoPorId(id) }
+ * ```
+ */
+class Temporizador internal constructor(val histograma: Histograma) {
+
+    fun registrarNanos(nanos: Long) {
+        histograma.registrar(nanos / 1_000)
+    }
+
+    inline fun <T> medir(bloque: () -> T): T {
+        val inicio = System.nanoTime()
+        try {
+            return bloque()
+        } finally {
+            registrarNanos(System.nanoTime() - inicio)
+        }
+    }
+}
+
+/**
+ * Mide el tiempo hasta la primera emisión de un Flow (ej: consulta de Room)
+ *
+ * Las emisiones siguientes (invalidaciones) no se miden: no se sabe
+ * cuándo empezó la re-consulta.
+ */
+fun <T> Flow<T>.medirPrimeraEmision(temporizador: Temporizador): Flow<T> = flow {
+    val inicio = System.nanoTime()
+    var esPrimera = true
+    collect { valor ->
+        if (esPrimera) {
+            temporizador.registrarNanos(System.nanoTime() - inicio)
+            esPrimera = false
+        }
+        emit(valor)
+    }
+}
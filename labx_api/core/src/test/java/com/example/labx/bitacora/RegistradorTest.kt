@@ -0,0 +1,41 @@
+package com.example.labx.bitacora
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class RegistradorTest {
+
+    private class RegistradorEnMemoria(override val depuracionActiva: Boolean) : Registrador {
+        val mensajes = mutableListOf<Triple<NivelRegistro, String, Throwable?>>()
+
+        override fun escribir(nivel: NivelRegistro, tag: String, mensaje: String, error: Throwable?) {
+            mensajes += Triple(nivel, mensaje, error)
+        }
+    }
+
+    @Test
+    fun depuracionInactiva_noConstruyeElMensaje() {
+        val registrador = RegistradorEnMemoria(depuracionActiva = false)
+        var construido = false
+
+        registrador.d("TEST") { construido = true; "no se usa" }
+
+        assertFalse(construido)
+        assertEquals(0, registrador.mensajes.size)
+    }
+
+    @Test
+    fun advertenciasYErrores_seEscribenSiempre() {
+        val registrador = RegistradorEnMemoria(depuracionActiva = false)
+        val error = IllegalStateException("falla")
+
+        registrador.w("TEST") { "advertencia" }
+        registrador.e("TEST", error) { "error" }
+
+        assertEquals(NivelRegistro.ADVERTENCIA, registrador.mensajes[0].first)
+        assertEquals("error", registrador.mensajes[1].second)
+        assertSame(error, registrador.mensajes[1].third)
+    }
+}
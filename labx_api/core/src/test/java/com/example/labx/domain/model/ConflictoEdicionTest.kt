@@ -0,0 +1,49 @@
+package com.example.labx.domain.model
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ConflictoEdicionTest {
+
+    private val base = Producto(1, "Catan", "Juego de mesa", 29990.0, "catan", "Juegos de Mesa", 15, version = 1)
+
+    @Test
+    fun camposDistintos_seFusionanSobreLaVersionDelServidor() {
+        val local = base.copy(stock = 3)
+        val servidor = base.copy(precio = 24990.0, version = 2)
+
+        val fusion = ConflictoEdicion.fusionar(base, local, servidor)
+
+        assertTrue(fusion.campos.isEmpty())
+        assertEquals(3, fusion.local.stock)
+        assertEquals(24990.0, fusion.local.precio, 0.0)
+        assertEquals(2, fusion.local.version)
+    }
+
+    @Test
+    fun mismoCampoConDistintoValor_quedaEnConflictoConElValorLocal() {
+        val local = base.copy(stock = 3, nombre = "Catan 2")
+        val servidor = base.copy(stock = 7, version = 2)
+
+        val fusion = ConflictoEdicion.fusionar(base, local, servidor)
+
+        assertEquals(setOf(CampoProducto.STOCK), fusion.campos)
+        assertEquals(3, fusion.local.stock)
+        assertEquals("Catan 2", fusion.local.nombre)
+    }
+
+    @Test
+    fun mismoCampoConElMismoValor_noEsConflicto() {
+        val fusion = ConflictoEdicion.fusionar(base, base.copy(stock = 0), base.copy(stock = 0, version = 2))
+
+        assertTrue(fusion.campos.isEmpty())
+    }
+
+    @Test
+    fun sinBase_todoCampoDistintoEsConflicto() {
+        val fusion = ConflictoEdicion.fusionar(null, base.copy(stock = 3), base.copy(precio = 1.0, version = 2))
+
+        assertEquals(setOf(CampoProducto.STOCK, CampoProducto.PRECIO), fusion.campos)
+    }
+}
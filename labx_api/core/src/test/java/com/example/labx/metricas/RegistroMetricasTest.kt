@@ -0,0 +1,65 @@
+package com.example.labx.metricas
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import java.lang.management.ManagementFactory
+import kotlin.concurrent.thread
+
+class RegistroMetricasTest {
+
+    @Test
+    fun histograma_percentilesPorCubeta() {
+        val histograma = RegistroMetricas.histograma("test.percentiles", longArrayOf(10, 100, 1_000))
+        repeat(90) { histograma.registrar(5) }
+        repeat(9) { histograma.registrar(50) }
+        histograma.registrar(5_000)
+
+        val resumen = histograma.resumen()
+        assertEquals(100, resumen.cantidad)
+        assertEquals(10, resumen.p50)
+        assertEquals(10, resumen.p90)
+        assertEquals(100, resumen.p99)
+        assertEquals(5_000, resumen.maximo)
+    }
+
+    @Test
+    fun contador_variosHilosNoPierdenIncrementos() {
+        val contador = RegistroMetricas.contador("test.hilos")
+        val hilos = List(8) { thread { repeat(10_000) { contador.incrementar() } } }
+        hilos.forEach { it.join() }
+
+        assertEquals(80_000, contador.valor())
+    }
+
+    @Test
+    fun registrar_noCreaObjetos() {
+        val bean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(bean != null && bean.isThreadAllocatedMemorySupported)
+        bean!!.isThreadAllocatedMemoryEnabled = true
+
+        val temporizador = RegistroMetricas.temporizador("test.asignaciones")
+        val contador = RegistroMetricas.contador("test.asignaciones")
+        // Calentamiento: carga de clases y compilación JIT
+        repeat(10_000) { temporizador.registrarNanos(it * 1_000L); contador.incrementar() }
+
+        val hilo = Thread.currentThread().id
+        val antes = bean.getThreadAllocatedBytes(hilo)
+        repeat(100_000) { temporizador.registrarNanos(it * 1_000L); contador.incrementar() }
+        val asignados = bean.getThreadAllocatedBytes(hilo) - antes
+
+        assertTrue("Se asignaron $asignados bytes", asignados < 1_024)
+    }
+
+    @Test
+    fun json_incluyeContadoresYHistogramas() {
+        RegistroMetricas.contador("test.json").incrementar()
+        RegistroMetricas.temporizador("test.json.tiempo").medir { Thread.sleep(1) }
+
+        val json = RegistroMetricas.aJson()
+
+        assertTrue(json.contains("\"test.json\""))
+        assertTrue(json.contains("\"test.json.tiempo\""))
+    }
+}
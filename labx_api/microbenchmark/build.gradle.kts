@@ -0,0 +1,54 @@
+import org.jetbrains.kotlin.gradle.dsl.JvmTarget
+
+plugins {
+    alias(libs.plugins.kotlin.jvm)
+    // JMH genera subclases de las clases @State: tienen que ser open
+    alias(libs.plugins.kotlin.allopen)
+    alias(libs.plugins.kotlinx.benchmark)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+kotlin {
+    compilerOptions {
+        jvmTarget.set(JvmTarget.JVM_11)
+    }
+}
+
+allOpen {
+    annotation("org.openjdk.jmh.annotations.State")
+}
+
+dependencies {
+    implementation(project(":core"))
+    implementation(libs.kotlinx.benchmark.runtime)
+}
+
+benchmark {
+    targets {
+        register("main")
+    }
+    configurations {
+        // ./gradlew :microbenchmark:benchmark
+        named("main") {
+            warmups = 3
+            iterations = 5
+            iterationTime = 1
+            iterationTimeUnit = "s"
+            mode = "avgt"
+            outputTimeUnit = "us"
+        }
+        // ./gradlew :microbenchmark:rapidoBenchmark (comprobar que todo corre)
+        register("rapido") {
+            warmups = 1
+            iterations = 1
+            iterationTime = 200
+            iterationTimeUnit = "ms"
+            mode = "avgt"
+            outputTimeUnit = "us"
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.labx.microbenchmark
+
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.domain.model.Producto
+
+/**
+ * Catálogos sintéticos con la forma de la respuesta de api/productos
+ *
+ * Mismos datos para cada tamaño en cada corrida (sin Random), así los
+ * resultados son comparables entre versiones.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+object DatosSinteticos {
+
+    private val CATEGORIAS = listOf("Audio", "Periféricos", "Monitores", "Gaming", null)
+
+    fun dtos(cantidad: Int): List<ProductoDto> = (1..cantidad).map { id ->
+        ProductoDto(
+            identificador = id,
+            titulo = "Producto $id",
+            descripcion = "Descripción del producto $id con algo de texto de relleno para el detalle",
+            precio = "${10_000 + id * 37}.00",
+            urlImagen = "https://cdn.ejemplo.cl/productos/$id.webp",
+            categoria = CATEGORIAS[id % CATEGORIAS.size],
+            stock = id % 25
+        )
+    }
+
+    fun productos(cantidad: Int): List<Producto> = (1..cantidad).map { id ->
+        Producto(
+            id = id,
+            nombre = "Producto $id",
+            descripcion = "Descripción del producto $id",
+            precio = 10_000.0 + id * 37,
+            imagenUrl = "https://cdn.ejemplo.cl/productos/$id.webp",
+            categoria = CATEGORIAS[id % CATEGORIAS.size] ?: "Sin categoría",
+            stock = id % 25
+        )
+    }
+
+    /**
+     * JSON de api/productos escrito a mano (precio como String, categoría nullable)
+     */
+    fun json(cantidad: Int): String = buildString {
+        append('[')
+        dtos(cantidad).forEachIndexed { indice, dto ->
+            if (indice > 0) append(',')
+            append("{\"id\":").append(dto.identificador)
+            append(",\"nombre\":\"").append(dto.titulo).append('"')
+            append(",\"descripcion\":\"").append(dto.descripcion).append('"')
+            append(",\"precio\":\"").append(dto.precio).append('"')
+            append(",\"imagen\":\"").append(dto.urlImagen).append('"')
+            append(",\"categoria_nombre\":")
+            if (dto.categoria == null) append("null") else append('"').append(dto.categoria).append('"')
+            append(",\"stock\":").append(dto.stock)
+            append('}')
+        }
+        append(']')
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.labx.microbenchmark
+
+import com.example.labx.domain.model.Carrito
+import com.example.labx.domain.model.ItemCarrito
+import com.example.labx.domain.model.Producto
+import kotlinx.benchmark.Benchmark
+import kotlinx.benchmark.Blackhole
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+
+/**
+ * Cálculos que corren en cada recomposición de la lista y del carrito:
+ * Producto.precioFormateado() y Carrito.precioTotal
+ */
+@State(Scope.Benchmark)
+class FormatoBenchmark {
+
+    @Param("10", "100", "1000")
+    var tamano: Int = 0
+
+    private lateinit var productos: List<Producto>
+    private lateinit var carrito: Carrito
+
+    @Setup
+    fun preparar() {
+        productos = DatosSinteticos.productos(tamano)
+        carrito = Carrito(productos.mapIndexed { indice, producto -> ItemCarrito(producto, indice % 3 + 1) })
+    }
+
+    @Benchmark
+    fun precioFormateado(agujero: Blackhole) {
+        for (producto in productos) {
+            agujero.consume(producto.precioFormateado())
+        }
+    }
+
+    @Benchmark
+    fun precioTotalCarrito(): Double = carrito.precioTotal
+}
@@ -0,0 +1,37 @@
+package com.example.labx.microbenchmark
+
+import com.example.labx.data.remote.dto.ProductoDto
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.reflect.TypeToken
+import kotlinx.benchmark.Benchmark
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+
+/**
+ * Parseo de la respuesta de api/productos como lo hace GsonConverterFactory:
+ * un TypeAdapter<List<ProductoDto>> creado una vez y reutilizado
+ */
+@State(Scope.Benchmark)
+class GsonBenchmark {
+
+    @Param("10", "100", "1000", "10000")
+    var tamano: Int = 0
+
+    private lateinit var json: String
+    private lateinit var adaptador: TypeAdapter<List<ProductoDto>>
+
+    @Setup
+    fun preparar() {
+        json = DatosSinteticos.json(tamano)
+        @Suppress("UNCHECKED_CAST")
+        adaptador = Gson().getAdapter(
+            TypeToken.getParameterized(List::class.java, ProductoDto::class.java)
+        ) as TypeAdapter<List<ProductoDto>>
+    }
+
+    @Benchmark
+    fun parsearCatalogo(): List<ProductoDto> = adaptador.fromJson(json)
+}
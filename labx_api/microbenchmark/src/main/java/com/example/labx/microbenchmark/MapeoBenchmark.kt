@@ -0,0 +1,46 @@
+package com.example.labx.microbenchmark
+
+import com.example.labx.data.local.entity.ProductoEntity
+import com.example.labx.data.local.entity.toEntity
+import com.example.labx.data.local.entity.toProducto
+import com.example.labx.data.remote.dto.ProductoDto
+import com.example.labx.data.remote.dto.aDtos
+import com.example.labx.data.remote.dto.aModelos
+import com.example.labx.domain.model.Producto
+import kotlinx.benchmark.Benchmark
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+
+/**
+ * Conversiones del catálogo completo entre capas:
+ * DTO → modelo (incluye el Temporizador de RegistroMetricas),
+ * modelo → DTO y entidad de Room → modelo
+ */
+@State(Scope.Benchmark)
+class MapeoBenchmark {
+
+    @Param("10", "100", "1000", "10000")
+    var tamano: Int = 0
+
+    private lateinit var dtos: List<ProductoDto>
+    private lateinit var productos: List<Producto>
+    private lateinit var entidades: List<ProductoEntity>
+
+    @Setup
+    fun preparar() {
+        dtos = DatosSinteticos.dtos(tamano)
+        productos = DatosSinteticos.productos(tamano)
+        entidades = productos.map { it.toEntity() }
+    }
+
+    @Benchmark
+    fun dtoAModelo(): List<Producto> = dtos.aModelos()
+
+    @Benchmark
+    fun modeloADto(): List<ProductoDto> = productos.aDtos()
+
+    @Benchmark
+    fun entidadAModelo(): List<Producto> = entidades.map { it.toProducto() }
+}
@@ -0,0 +1,50 @@
+package com.example.labx.microbenchmark
+
+import com.example.labx.domain.model.ErroresFormulario
+import com.example.labx.domain.model.FormularioRegistro
+import com.example.labx.domain.validator.ValidadorFormulario
+import kotlinx.benchmark.Benchmark
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.State
+
+/**
+ * Regex de ValidadorFormulario: se evalúan en cada tecla del registro
+ */
+@State(Scope.Benchmark)
+class ValidadorBenchmark {
+
+    private val formularioValido = FormularioRegistro(
+        nombreCompleto = "María José Fernández",
+        email = "maria.fernandez@correo.cl",
+        telefono = "912345678",
+        direccion = "Av. Siempre Viva 742, Santiago",
+        password = "Secreta123",
+        confirmarPassword = "Secreta123",
+        aceptaTerminos = true
+    )
+
+    private val formularioInvalido = FormularioRegistro(
+        nombreCompleto = "Ma",
+        email = "maria.fernandez@",
+        telefono = "12-34",
+        direccion = "",
+        password = "corta",
+        confirmarPassword = "otra",
+        aceptaTerminos = false
+    )
+
+    @Benchmark
+    fun formularioValido(): ErroresFormulario = ValidadorFormulario.validarFormulario(formularioValido)
+
+    @Benchmark
+    fun formularioInvalido(): ErroresFormulario = ValidadorFormulario.validarFormulario(formularioInvalido)
+
+    @Benchmark
+    fun email(): String? = ValidadorFormulario.validarEmail(formularioValido.email)
+
+    @Benchmark
+    fun telefono(): String? = ValidadorFormulario.validarTelefono(formularioValido.telefono)
+
+    @Benchmark
+    fun password(): String? = ValidadorFormulario.validarPassword(formularioValido.password)
+}
@@ -0,0 +1,77 @@
+package com.example.labx.recorridos
+
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.Until
+
+/**
+ * Recorridos de UiAutomator sobre la app (variante "benchmark" de :app)
+ *
+ * Los nombres coinciden con EtiquetasPrueba en :app (testTag expuestos
+ * como resource-id). Si cambian allá, actualizar aquí.
+ *
+ * Lo compilan :benchmark y :baselineprofile (srcDir en sus
+ * build.gradle.kts): el perfil se genera con los mismos recorridos que
+ * se miden. Es un directorio de fuentes y no un módulo: son unas pocas
+ * funciones y no justifican otra librería Android con su manifest.
+ *
+ * Autor: Prof. Sting Adams Parra Silva
+ */
+const val PAQUETE_LABX = "com.example.labx"
+
+private const val PORTADA_ENTRAR = "portada_entrar"
+private const val LISTA_PRODUCTOS = "lista_productos"
+private const val TARJETA_PRODUCTO = "tarjeta_producto"
+private const val DETALLE_AGREGAR_CARRITO = "detalle_agregar_carrito"
+private const val DETALLE_CONFIRMACION = "detalle_confirmacion"
+
+private const val ESPERA_MS = 10_000L
+
+/**
+ * Portada → HomeScreen, esperando a que la lista tenga tarjetas
+ */
+fun MacrobenchmarkScope.entrarATienda() {
+    device.wait(Until.hasObject(By.res(PORTADA_ENTRAR)), ESPERA_MS)
+    device.findObject(By.res(PORTADA_ENTRAR)).click()
+    esperarCatalogo()
+}
+
+fun MacrobenchmarkScope.esperarCatalogo() {
+    check(device.wait(Until.hasObject(By.res(TARJETA_PRODUCTO)), ESPERA_MS)) {
+        "La lista de productos no se mostró"
+    }
+}
+
+/**
+ * Fling hacia abajo y de vuelta hacia arriba sobre la lista
+ */
+fun MacrobenchmarkScope.desplazarCatalogo() {
+    val lista = device.findObject(By.res(LISTA_PRODUCTOS))
+    // Evita que el gesto empiece en el borde (navegación por gestos del sistema)
+    lista.setGestureMargin(device.displayWidth / 5)
+    repeat(3) {
+        lista.fling(Direction.DOWN)
+        device.waitForIdle()
+    }
+    lista.fling(Direction.UP)
+    device.waitForIdle()
+}
+
+/**
+ * Toca la primera tarjeta visible y espera DetalleProductoScreen
+ */
+fun MacrobenchmarkScope.abrirPrimerProducto() {
+    device.findObject(By.res(TARJETA_PRODUCTO)).click()
+    check(device.wait(Until.hasObject(By.res(DETALLE_AGREGAR_CARRITO)), ESPERA_MS)) {
+        "El detalle del producto no se mostró"
+    }
+}
+
+/**
+ * En el detalle: agrega al carrito y espera el mensaje de confirmación
+ */
+fun MacrobenchmarkScope.agregarAlCarrito() {
+    device.findObject(By.res(DETALLE_AGREGAR_CARRITO)).click()
+    device.wait(Until.hasObject(By.res(DETALLE_CONFIRMACION)), ESPERA_MS)
+}
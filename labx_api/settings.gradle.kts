@@ -21,4 +21,12 @@ dependencyResolutionManagement {
 
 rootProject.name = "labx"
 include(":app")
+// Dominio, DTOs, entidades y métricas sin dependencias de Android (JVM puro)
+include(":core")
+// Microbenchmarks JMH de :core (./gradlew :microbenchmark:benchmark)
+include(":microbenchmark")
+// Macrobenchmarks de arranque y navegación (corren en dispositivo/emulador)
+include(":benchmark")
+// Generador del Baseline Profile que se empaqueta con :app
+include(":baselineprofile")
  
\ No newline at end of file